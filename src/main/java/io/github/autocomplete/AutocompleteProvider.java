@@ -1,24 +1,66 @@
 package io.github.autocomplete;
 
+import io.github.autocomplete.cache.CacheStats;
+import io.github.autocomplete.cache.DeadPrefixSet;
 import io.github.autocomplete.cache.LRUCache;
+import io.github.autocomplete.cache.Weighers;
 import io.github.autocomplete.config.AutocompleteConfig;
+import io.github.autocomplete.config.CacheConfig;
+import io.github.autocomplete.config.FuzzyAlgorithm;
 import io.github.autocomplete.model.Candidate;
 import io.github.autocomplete.model.WordFrequency;
+import io.github.autocomplete.util.DeletionIndex;
+import io.github.autocomplete.util.NGramIndex;
+import io.github.autocomplete.util.SimilarityIndex;
+import io.github.autocomplete.util.Trie;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 /**
  * Поставщик автодополнений с опциональным кешированием.
+ *
+ * <p>Если в {@link CacheConfig} заданы политики по времени, то кеш не сбрасывается при добавлении
+ * текста: элементы истекают по времени жизни или пересчитываются в фоне, а до окончания пересчёта
+ * отдаются прежние значения.
+ * </p>
  */
 public class AutocompleteProvider {
   private final TextAnalyzer textAnalyzer;
   private final LRUCache<String, List<Candidate>> cache;
   private final LRUCache<String, List<String>> similarPrefixCache;
-  private AutocompleteConfig config;
-  private static final int DEFAULT_CACHE_SIZE = 100;
+  private final DeadPrefixSet deadPrefixes;
+  private final LRUCache<String, Boolean> deadTypoPrefixes;
+  private final CacheConfig cacheConfig;
+  private final ReadWriteLock trieLock = new ReentrantReadWriteLock();
+  private final AtomicInteger pendingWarmups = new AtomicInteger();
+  private volatile boolean warmUpStarted;
+  private volatile IOException lastHotKeysDumpFailure;
+  private final Object deadPrefixLock = new Object();
+  private static final int DEAD_PREFIX_LIMIT = 10_000;
+  // Счётчик изменений дерева, для которого действительны мёртвые префиксы
+  private long deadPrefixVersion;
+  // Индекс похожих слов этого поставщика; другие поставщики того же анализатора подключают свои
+  private volatile SimilarityIndex similarityIndex;
+  private volatile int nGramLength = NGramIndex.DEFAULT_N;
+  private volatile AutocompleteConfig config;
+  private volatile Executor searchExecutor = ForkJoinPool.commonPool();
 
   /**
    * Инициализация автодополнений на основе текстового анализатора.
@@ -28,7 +70,7 @@ public class AutocompleteProvider {
    * @throws IllegalArgumentException Если textAnalyzer равен null
    */
   public AutocompleteProvider(TextAnalyzer textAnalyzer) {
-    this(textAnalyzer, new AutocompleteConfig(), DEFAULT_CACHE_SIZE);
+    this(textAnalyzer, new AutocompleteConfig(), new CacheConfig());
   }
 
   /**
@@ -58,7 +100,7 @@ public class AutocompleteProvider {
    * @throws IllegalArgumentException Если textAnalyzer равен null
    */
   public AutocompleteProvider(TextAnalyzer textAnalyzer, AutocompleteConfig config) {
-    this(textAnalyzer, config, DEFAULT_CACHE_SIZE);
+    this(textAnalyzer, config, new CacheConfig());
   }
 
   /**
@@ -77,8 +119,29 @@ public class AutocompleteProvider {
    * @throws IllegalArgumentException Если textAnalyzer равен null
    */
   public AutocompleteProvider(TextAnalyzer textAnalyzer, AutocompleteConfig config, int cacheSize) {
-    if (cacheSize < 0) {
-      throw new IllegalArgumentException("Размер кеша не может быть отрицательным");
+    this(textAnalyzer, config, new CacheConfig(cacheSize));
+  }
+
+  /**
+   * Инициализация автодополнений с конфигурацией кеша. Позволяет ограничить кеши не только
+   * количеством элементов, но и приблизительным объёмом занимаемой памяти.
+   *
+   * @param textAnalyzer Текстовый анализатор на основе которого определяются автодополнения
+   *
+   * @param config Конфигурация автодополнений
+   *
+   * @param cacheConfig Конфигурация кешей
+   *
+   * @throws IllegalArgumentException Если cacheConfig равен null
+   *
+   * @throws IllegalArgumentException Если config равен null
+   *
+   * @throws IllegalArgumentException Если textAnalyzer равен null
+   */
+  public AutocompleteProvider(TextAnalyzer textAnalyzer, AutocompleteConfig config,
+      CacheConfig cacheConfig) {
+    if (cacheConfig == null) {
+      throw new IllegalArgumentException("cacheConfig cannot be null");
     }
     if (config == null) {
       throw new IllegalArgumentException("config cannot be null");
@@ -89,8 +152,26 @@ public class AutocompleteProvider {
 
     this.textAnalyzer = textAnalyzer;
     this.config = config;
-    this.cache = cacheSize > 0 ? new LRUCache<>(cacheSize) : null;
-    this.similarPrefixCache = cacheSize > 0 ? new LRUCache<>(cacheSize) : null;
+    this.cacheConfig = cacheConfig;
+    if (cacheConfig.enabled()) {
+      long weightLimit = cacheConfig.maxWeightBytes() > 0 ? cacheConfig.maxWeightBytes() / 2
+          : Long.MAX_VALUE;
+      this.cache = new LRUCache<>(cacheConfig.maxEntries(), weightLimit, Weighers.candidateList(),
+          cacheConfig.expireAfterWrite(), cacheConfig.refreshAfterWrite(),
+          (key, old) -> computeCandidates(key, Math.max(1, old.size())));
+      this.similarPrefixCache = new LRUCache<>(cacheConfig.maxEntries(), weightLimit,
+          Weighers.stringList(), cacheConfig.expireAfterWrite(), cacheConfig.refreshAfterWrite(),
+          (key, old) -> computeSimilarPrefixes(key));
+      this.deadPrefixes = new DeadPrefixSet(DEAD_PREFIX_LIMIT);
+      this.deadTypoPrefixes = new LRUCache<>(DEAD_PREFIX_LIMIT);
+      this.deadPrefixVersion = textAnalyzer.getTrie().modificationCount();
+    } else {
+      this.cache = null;
+      this.similarPrefixCache = null;
+      this.deadPrefixes = null;
+      this.deadTypoPrefixes = null;
+    }
+    syncSimilarityIndex(config);
   }
 
   /**
@@ -114,6 +195,7 @@ public class AutocompleteProvider {
       throw new IllegalArgumentException("config cannot be null");
     }
 
+    syncSimilarityIndex(config);
     this.config = config;
     if (cache != null) {
       cache.clear();
@@ -121,10 +203,62 @@ public class AutocompleteProvider {
     if (similarPrefixCache != null) {
       similarPrefixCache.clear();
     }
+    if (deadTypoPrefixes != null) {
+      deadTypoPrefixes.clear();
+    }
+  }
+
+  /**
+   * Установить исполнитель для параллельного поиска похожих префиксов
+   * ({@link io.github.autocomplete.config.FuzzyAlgorithm#DISTANCE_FUNCTION}) по поддеревьям. По
+   * умолчанию используется {@link ForkJoinPool#commonPool()}; небольшие словари (меньше 50 000
+   * узлов префиксного дерева) обходятся последовательно в вызывающем потоке.
+   *
+   * @param executor Исполнитель задач поиска
+   *
+   * @throws IllegalArgumentException Если executor равен null
+   */
+  public void setSearchExecutor(Executor executor) {
+    if (executor == null) {
+      throw new IllegalArgumentException("executor cannot be null");
+    }
+
+    this.searchExecutor = executor;
+  }
+
+  /**
+   * Установить длину n-граммы индекса для
+   * {@link io.github.autocomplete.config.FuzzyAlgorithm#NGRAM_INDEX} (по умолчанию 3 - триграммы).
+   * Короткие n-граммы дают больше кандидатов, но лучше работают с короткими словами и большим
+   * допустимым расстоянием. Если алгоритм уже используется, индекс перестраивается.
+   *
+   * @param n Длина n-граммы
+   *
+   * @throws IllegalArgumentException Если n меньше 1
+   */
+  public void setNGramLength(int n) {
+    if (n < 1) {
+      throw new IllegalArgumentException("n cannot be less than 1");
+    }
+
+    this.nGramLength = n;
+    syncSimilarityIndex(config);
+  }
+
+  /**
+   * Получить длину n-граммы индекса для
+   * {@link io.github.autocomplete.config.FuzzyAlgorithm#NGRAM_INDEX}.
+   *
+   * @return Длина n-граммы
+   */
+  public int getNGramLength() {
+    return nGramLength;
   }
 
   /**
-   * Получить варианты автодополнения с учётом конфигурации (опечатки, веса и т.д.).
+   * Получить варианты автодополнения с учётом конфигурации (опечатки, веса и т.д.). Префикс
+   * сворачивается той же свёрткой, что и токены при загрузке текста
+   * ({@link io.github.autocomplete.config.TokenizerConfig#folding()}).
    *
    * @param prefix Префикс на основе которго происходит автодополнение
    *
@@ -143,16 +277,23 @@ public class AutocompleteProvider {
       throw new IllegalArgumentException("Limit must be positive number");
     }
 
-    String key = isCaseInsensitive() ? prefix.toLowerCase() : prefix;
-    String lookupPrefix = isCaseInsensitive() ? prefix.toLowerCase() : prefix;
+    String key = textAnalyzer.getTokenizer().getConfig().folding().fold(prefix);
+    if (key.isEmpty()) {
+      return List.of();
+    }
 
+    if (isKnownDead(key)) {
+      return List.of();
+    }
     List<Candidate> cached = getCachedCandidates(key, limit);
     if (cached != null) {
       return cached;
     }
-    List<Candidate> candidates =
-        (config.tolerance() <= 0) ? getExactPrefixCandidates(lookupPrefix, limit)
-            : getTypoToleranceCandidates(lookupPrefix, limit, key);
+    long loadStart = System.nanoTime();
+    List<Candidate> candidates = computeCandidates(key, limit);
+    if (cache != null) {
+      cache.recordLoad(System.nanoTime() - loadStart);
+    }
     putCachedCandidates(key, candidates);
     return candidates.size() > limit ? candidates.subList(0, limit) : candidates;
   }
@@ -168,8 +309,9 @@ public class AutocompleteProvider {
    */
   private List<Candidate> getCachedCandidates(String key, int limit) {
     if (cache != null) {
-      List<Candidate> cached = cache.get(key);
-      if (cached != null && cached.size() >= limit) {
+      // Слишком короткий список всё равно пересчитывается, поэтому считается промахом
+      List<Candidate> cached = cache.get(key, candidates -> candidates.size() >= limit);
+      if (cached != null) {
         return cached.subList(0, limit);
       }
     }
@@ -189,6 +331,80 @@ public class AutocompleteProvider {
     }
   }
 
+  /**
+   * Вычислить кандидатов без обращения к кешу автодополнений.
+   *
+   * @param prefix Префикс (уже свёрнутый так же, как токены при загрузке)
+   *
+   * @param limit Максимальное количество вариантов автодополнения
+   *
+   * @return Список вариантов автодополнения
+   */
+  private List<Candidate> computeCandidates(String prefix, int limit) {
+    trieLock.readLock().lock();
+    try {
+      long version = textAnalyzer.getTrie().modificationCount();
+      boolean exact = config.tolerance() <= 0;
+      List<Candidate> candidates = exact ? getExactPrefixCandidates(prefix, limit)
+          : getTypoToleranceCandidates(prefix, limit, prefix);
+      if (candidates.isEmpty() && deadPrefixes != null) {
+        markDead(prefix, exact, version);
+      }
+      return candidates;
+    } finally {
+      trieLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Проверить, известно ли, что для префикса нет автодополнений. В режиме точного совпадения
+   * мёртвым считается и любое продолжение мёртвого префикса; с учётом опечаток проверяется только
+   * сам префикс.
+   *
+   * @param key Префикс (уже приведённый к регистру токенизатора)
+   *
+   * @return true, если для префикса заведомо нет автодополнений
+   */
+  private boolean isKnownDead(String key) {
+    if (deadPrefixes == null) {
+      return false;
+    }
+    synchronized (deadPrefixLock) {
+      // Текст мог быть добавлен в анализатор напрямую, минуя addText поставщика
+      long version = textAnalyzer.getTrie().modificationCount();
+      if (version != deadPrefixVersion) {
+        deadPrefixes.clear();
+        deadTypoPrefixes.clear();
+        deadPrefixVersion = version;
+      }
+    }
+    return config.tolerance() <= 0 ? deadPrefixes.isDead(key)
+        : deadTypoPrefixes.get(key) != null;
+  }
+
+  /**
+   * Запомнить префикс без автодополнений, если дерево не менялось с начала поиска.
+   *
+   * @param prefix Префикс
+   *
+   * @param exact Искались ли только точные совпадения
+   *
+   * @param version Счётчик изменений дерева на момент начала поиска
+   */
+  private void markDead(String prefix, boolean exact, long version) {
+    synchronized (deadPrefixLock) {
+      if (version != deadPrefixVersion
+          || version != textAnalyzer.getTrie().modificationCount()) {
+        return;
+      }
+      if (exact) {
+        deadPrefixes.markDead(prefix);
+      } else {
+        deadTypoPrefixes.put(prefix, Boolean.TRUE);
+      }
+    }
+  }
+
   /**
    * Получить кандидатов для точного совпадения префикса.
    *
@@ -218,28 +434,8 @@ public class AutocompleteProvider {
    */
   private List<Candidate> getTypoToleranceCandidates(String prefix, int limit, String key) {
     List<String> similarPrefixes = getCachedSimilarPrefixes(key, prefix);
-    Set<String> seen = new HashSet<>();
-    List<Candidate> all = new ArrayList<>();
-    List<WordFrequency> orig = textAnalyzer.getTrie().findCompletions(prefix, limit);
-    for (WordFrequency wf : orig) {
-      all.add(new Candidate(wf.word(), wf.frequency() * config.originalWeight()));
-      seen.add(wf.word());
-    }
-    for (String simPrefix : similarPrefixes) {
-      if (simPrefix.equals(prefix)) {
-        continue;
-      }
-      List<WordFrequency> sim = textAnalyzer.getTrie().findCompletions(simPrefix, limit);
-      for (WordFrequency wf : sim) {
-        if (seen.add(wf.word())) {
-          all.add(new Candidate(wf.word(), wf.frequency() * config.similarWeight()));
-        }
-      }
-    }
-    return all.stream().sorted((a, b) -> {
-      int cmp = Double.compare(b.weight(), a.weight());
-      return cmp != 0 ? cmp : a.word().compareTo(b.word());
-    }).collect(Collectors.toList());
+    return textAnalyzer.getTrie().findWeightedCompletions(prefix, config.originalWeight(),
+        similarPrefixes, config.similarWeight(), limit);
   }
 
   /**
@@ -257,19 +453,100 @@ public class AutocompleteProvider {
       if (cachedSim != null) {
         return cachedSim;
       } else {
-        List<String> similarPrefixes = textAnalyzer.getTrie().findSimilarPrefixes(prefix,
-            config.tolerance(), config.toleranceThreshold(), config.distanceFunction());
+        long loadStart = System.nanoTime();
+        List<String> similarPrefixes = computeSimilarPrefixes(prefix);
+        similarPrefixCache.recordLoad(System.nanoTime() - loadStart);
         similarPrefixCache.put(key, similarPrefixes);
         return similarPrefixes;
       }
     } else {
-      return textAnalyzer.getTrie().findSimilarPrefixes(prefix, config.tolerance(),
-          config.toleranceThreshold(), config.distanceFunction());
+      return computeSimilarPrefixes(prefix);
+    }
+  }
+
+  /**
+   * Вычислить похожие префиксы без обращения к кешу.
+   *
+   * @param prefix Префикс на основе которго происходит автодополнение
+   *
+   * @return Список похожих префиксов
+   */
+  private List<String> computeSimilarPrefixes(String prefix) {
+    AutocompleteConfig current = config;
+    trieLock.readLock().lock();
+    try {
+      Trie trie = textAnalyzer.getTrie();
+      return switch (current.fuzzyAlgorithm()) {
+        case LEVENSHTEIN_AUTOMATON -> trie.findSimilarPrefixesByAutomaton(prefix,
+            current.tolerance(), current.toleranceThreshold());
+        case LEVENSHTEIN_DP_ROWS -> trie.findSimilarPrefixes(prefix, current.tolerance(),
+            current.toleranceThreshold());
+        case FUZZY_PREFIX -> trie.findFuzzyPrefixRoots(prefix, current.tolerance(),
+            current.toleranceThreshold());
+        case DELETION_INDEX, NGRAM_INDEX -> trie.findSimilarPrefixesByIndex(prefix,
+            current.tolerance(), current.toleranceThreshold(), similarityIndex);
+        case DISTANCE_FUNCTION -> trie.findSimilarPrefixes(prefix, current.tolerance(),
+            current.toleranceThreshold(), current.boundedDistance(), searchExecutor);
+      };
+    } finally {
+      trieLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Подключить к дереву индекс, нужный алгоритму поиска похожих префиксов, или отключить
+   * ненужный. Индекс принадлежит этому поставщику: индексы других поставщиков того же анализатора
+   * не затрагиваются, а подходящий текущий индекс переиспользуется без перестроения.
+   *
+   * @param config Новая конфигурация автодополнения
+   */
+  private void syncSimilarityIndex(AutocompleteConfig config) {
+    trieLock.writeLock().lock();
+    try {
+      SimilarityIndex current = similarityIndex;
+      SimilarityIndex wanted = switch (config.fuzzyAlgorithm()) {
+        case DELETION_INDEX -> current instanceof DeletionIndex
+            && current.maxTolerance() >= config.tolerance() ? current
+                : new DeletionIndex(config.tolerance());
+        case NGRAM_INDEX -> current instanceof NGramIndex ngrams
+            && ngrams.gramLength() == nGramLength ? current : new NGramIndex(nGramLength);
+        default -> null;
+      };
+      if (wanted == current) {
+        return;
+      }
+
+      Trie trie = textAnalyzer.getTrie();
+      if (current != null) {
+        trie.detachSimilarityIndex(current);
+      }
+      if (wanted != null) {
+        trie.attachSimilarityIndex(wanted);
+      }
+      similarityIndex = wanted;
+    } finally {
+      trieLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Получить приблизительный объём памяти, занимаемый индексом поиска похожих префиксов.
+   *
+   * @return Оценка в байтах, 0 если алгоритм не использует индекс
+   */
+  public long getSimilarityIndexMemoryBytes() {
+    trieLock.readLock().lock();
+    try {
+      SimilarityIndex index = similarityIndex;
+      return index == null ? 0 : index.memoryBytes();
+    } finally {
+      trieLock.readLock().unlock();
     }
   }
 
   /**
-   * Добавить текст для обновления данных. Сбрасывает кеш.
+   * Добавить текст для обновления данных. Сбрасывает кеш, если в {@link CacheConfig} не заданы
+   * политики по времени (см. {@link CacheConfig#allowsStaleEntries()}).
    *
    * @param text Текст для обновления данных
    *
@@ -280,8 +557,23 @@ public class AutocompleteProvider {
       throw new IllegalArgumentException("text cannot be null");
     }
 
-    textAnalyzer.addText(text);
+    trieLock.writeLock().lock();
+    try {
+      textAnalyzer.addText(text);
+      if (deadPrefixes != null) {
+        synchronized (deadPrefixLock) {
+          deadPrefixes.revalidate(p -> !textAnalyzer.getTrie().hasCompletions(p));
+          deadTypoPrefixes.clear();
+          deadPrefixVersion = textAnalyzer.getTrie().modificationCount();
+        }
+      }
+    } finally {
+      trieLock.writeLock().unlock();
+    }
 
+    if (cacheConfig.allowsStaleEntries()) {
+      return;
+    }
     if (cache != null) {
       cache.clear();
     }
@@ -290,7 +582,226 @@ public class AutocompleteProvider {
     }
   }
 
-  private boolean isCaseInsensitive() {
-    return textAnalyzer.getTokenizer().getConfig().toLowerCase();
+  /**
+   * Получить конфигурацию кешей {@link CacheConfig}.
+   *
+   * @return Конфигурация кешей
+   */
+  public CacheConfig getCacheConfig() {
+    return cacheConfig;
+  }
+
+  /**
+   * Получить приблизительный объём памяти в байтах, занимаемый обоими кешами.
+   *
+   * @return Оценка занимаемой кешами памяти, 0 если кеш отключён
+   */
+  public long getCacheWeightBytes() {
+    long weight = 0;
+    if (cache != null) {
+      weight += cache.weight();
+    }
+    if (similarPrefixCache != null) {
+      weight += similarPrefixCache.weight();
+    }
+    return weight;
+  }
+
+  /**
+   * Получить количество известных мёртвых префиксов (префиксов без автодополнений в режиме
+   * точного совпадения).
+   *
+   * @return Количество мёртвых префиксов, 0 если кеш отключён
+   */
+  public int getDeadPrefixCount() {
+    return deadPrefixes != null ? deadPrefixes.size() : 0;
+  }
+
+  /**
+   * Получить статистику кеша автодополнений.
+   *
+   * @return Снимок статистики кеша автодополнений, {@link CacheStats#EMPTY} если кеш отключён
+   */
+  public CacheStats getCacheStats() {
+    return cache != null ? cache.stats() : CacheStats.EMPTY;
+  }
+
+  /**
+   * Получить статистику кеша похожих префиксов (используется при ненулевой толерантности).
+   *
+   * @return Снимок статистики кеша похожих префиксов, {@link CacheStats#EMPTY} если кеш отключён
+   */
+  public CacheStats getSimilarPrefixCacheStats() {
+    return similarPrefixCache != null ? similarPrefixCache.stats() : CacheStats.EMPTY;
+  }
+
+  /**
+   * Сохранить "горячие" ключи кеша автодополнений (от самых недавно использованных) в файл для
+   * последующего прогрева через {@link #warmUp(File, int)}. Сохраняются только префиксы и размеры
+   * результатов, сами автодополнения при прогреве вычисляются заново. Может вызываться
+   * периодически (см. {@link #scheduleHotKeysDump(ScheduledExecutorService, File, Duration)}) или
+   * при завершении работы приложения.
+   *
+   * @param file Файл для сохранения
+   *
+   * @throws IOException Если произошла ошибка при записи файла
+   *
+   * @throws IllegalArgumentException Если file равен null
+   */
+  public void saveHotKeys(File file) throws IOException {
+    if (file == null) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+
+    Map<String, Integer> keys = new LinkedHashMap<>();
+    if (cache != null) {
+      for (Map.Entry<String, List<Candidate>> entry : cache.hottest(cacheConfig.maxEntries())
+          .entrySet()) {
+        keys.put(entry.getKey(), Math.max(1, entry.getValue().size()));
+      }
+    }
+    CacheWarmup.write(file, keys);
+  }
+
+  /**
+   * Периодически сохранять "горячие" ключи в файл с помощью указанного планировщика. Ошибки
+   * записи не прерывают периодическое сохранение; последняя из них доступна через
+   * {@link #getLastHotKeysDumpFailure()} до следующего успешного сохранения.
+   *
+   * @param scheduler Планировщик, в котором выполняется сохранение
+   *
+   * @param file Файл для сохранения
+   *
+   * @param period Период сохранения
+   *
+   * @return Future для отмены периодического сохранения
+   *
+   * @throws IllegalArgumentException Если scheduler, file или period равны null ИЛИ period не
+   *         положительный
+   */
+  public ScheduledFuture<?> scheduleHotKeysDump(ScheduledExecutorService scheduler, File file,
+      Duration period) {
+    if (scheduler == null) {
+      throw new IllegalArgumentException("scheduler cannot be null");
+    }
+    if (file == null) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    if (period == null || period.isNegative() || period.isZero()) {
+      throw new IllegalArgumentException("period must be positive");
+    }
+
+    long periodNanos = period.toNanos();
+    return scheduler.scheduleAtFixedRate(() -> {
+      try {
+        saveHotKeys(file);
+        lastHotKeysDumpFailure = null;
+      } catch (IOException e) {
+        // Следующая попытка будет предпринята в следующем периоде
+        lastHotKeysDumpFailure = e;
+      }
+    }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Ошибка последнего периодического сохранения "горячих" ключей
+   * ({@link #scheduleHotKeysDump(ScheduledExecutorService, File, Duration)}).
+   *
+   * @return Ошибка записи или null, если последнее сохранение прошло успешно или ещё не
+   *         выполнялось
+   */
+  public IOException getLastHotKeysDumpFailure() {
+    return lastHotKeysDumpFailure;
+  }
+
+  /**
+   * Прогреть кеш ключами, сохранёнными {@link #saveHotKeys(File)}. Автодополнения вычисляются
+   * параллельно; до завершения прогрева {@link #isReady()} возвращает false. Отсутствующий файл
+   * (например, при первом запуске, когда ключи ещё не сохранялись) считается пустым набором
+   * ключей: прогрев сразу завершается, и поставщик становится готов.
+   *
+   * @param file Файл с ключами
+   *
+   * @param parallelism Количество потоков прогрева
+   *
+   * @return Future, завершающийся после прогрева всех ключей
+   *
+   * @throws IOException Если произошла ошибка при чтении файла
+   *
+   * @throws IllegalArgumentException Если file равен null или имеет неправильный формат ИЛИ
+   *         parallelism меньше 1
+   */
+  public CompletableFuture<Void> warmUp(File file, int parallelism) throws IOException {
+    if (file == null) {
+      throw new IllegalArgumentException("file cannot be null");
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism cannot be less than 1");
+    }
+
+    if (!file.exists()) {
+      return warmUp(Map.of(), parallelism);
+    }
+    return warmUp(CacheWarmup.read(file), parallelism);
+  }
+
+  /**
+   * Прогреть кеш самыми частыми префиксами из журнала запросов (текстовый файл в UTF-8, по одному
+   * префиксу в строке). Префиксы сворачиваются так же, как в {@link #getAutocomplete(String, int)},
+   * поэтому варианты одного префикса («Apple» и «apple») считаются вместе. Прогревается не больше
+   * префиксов, чем помещается в кеш; до завершения прогрева {@link #isReady()} возвращает false.
+   *
+   * @param queryLog Файл журнала запросов
+   *
+   * @param limit Количество вариантов автодополнения для каждого префикса
+   *
+   * @param parallelism Количество потоков прогрева
+   *
+   * @return Future, завершающийся после прогрева всех префиксов
+   *
+   * @throws IOException Если произошла ошибка при чтении файла
+   *
+   * @throws IllegalArgumentException Если queryLog равен null ИЛИ limit меньше 1 ИЛИ parallelism
+   *         меньше 1
+   */
+  public CompletableFuture<Void> warmUpFromQueryLog(File queryLog, int limit, int parallelism)
+      throws IOException {
+    if (queryLog == null) {
+      throw new IllegalArgumentException("queryLog cannot be null");
+    }
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit cannot be less than 1");
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism cannot be less than 1");
+    }
+
+    return warmUp(CacheWarmup.readQueryLog(queryLog, limit, cacheConfig.maxEntries(),
+        textAnalyzer.getTokenizer().getConfig().folding()), parallelism);
+  }
+
+  /**
+   * Готов ли поставщик к обслуживанию запросов: хотя бы один прогрев кеша был запущен, и все
+   * запущенные прогревы завершены (в том числе с ошибкой). До первого вызова
+   * {@link #warmUp(File, int)} или {@link #warmUpFromQueryLog(File, int, int)} возвращает false,
+   * поэтому подходит для проверки готовности экземпляра, который прогревается при запуске.
+   *
+   * @return true, если прогрев был запущен и завершён
+   */
+  public boolean isReady() {
+    return warmUpStarted && pendingWarmups.get() == 0;
+  }
+
+  private CompletableFuture<Void> warmUp(Map<String, Integer> keys, int parallelism) {
+    if (cache == null) {
+      warmUpStarted = true;
+      return CompletableFuture.completedFuture(null);
+    }
+
+    // Счётчик увеличивается раньше флага, чтобы isReady не увидел запущенный прогрев завершённым
+    pendingWarmups.incrementAndGet();
+    warmUpStarted = true;
+    return CacheWarmup.prefetch(keys, parallelism, this::getAutocomplete)
+        .whenComplete((ignored, error) -> pendingWarmups.decrementAndGet());
   }
 }
@@ -0,0 +1,188 @@
+package io.github.autocomplete;
+
+import io.github.autocomplete.config.Folding;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Сохранение и загрузка "горячих" ключей кеша автодополнений для прогрева кеша после перезапуска.
+ *
+ * <p>Сохраняются только ключи (префиксы) и размер запрошенного результата, но не сами результаты:
+ * при прогреве автодополнения вычисляются заново по текущему состоянию дерева, поэтому
+ * файл остаётся корректным при любом изменении словаря между перезапусками.
+ * </p>
+ */
+final class CacheWarmup {
+  static final int MAGIC_NUMBER = 0x484B4559; // "HKEY" в hex
+  static final int VERSION = 1;
+
+  /**
+   * Приватный конструктор для предотвращения создания экземпляров класса.
+   */
+  private CacheWarmup() {
+    // Утилитный класс не должен иметь публичный конструктор
+  }
+
+  /**
+   * Записывает ключи в файл. Запись производится во временный файл, который затем атомарно
+   * заменяет указанный, чтобы периодическое сохранение не оставляло повреждённый файл.
+   *
+   * @param file Файл для сохранения
+   *
+   * @param keys Ключи и размеры результатов в порядке убывания важности
+   *
+   * @throws IOException Если произошла ошибка при записи файла
+   */
+  static void write(File file, Map<String, Integer> keys) throws IOException {
+    File tmp = new File(file.getPath() + ".tmp");
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+      out.writeInt(MAGIC_NUMBER);
+      out.writeInt(VERSION);
+      out.writeInt(keys.size());
+      for (Map.Entry<String, Integer> entry : keys.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeInt(entry.getValue());
+      }
+    }
+    try {
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Читает ключи из файла, записанного {@link #write(File, Map)}.
+   *
+   * @param file Файл для загрузки
+   *
+   * @return Ключи и размеры результатов в исходном порядке
+   *
+   * @throws IOException Если произошла ошибка при чтении файла
+   *
+   * @throws IllegalArgumentException Если файл не существует или имеет неправильный формат
+   */
+  static Map<String, Integer> read(File file) throws IOException {
+    if (!file.exists()) {
+      throw new IllegalArgumentException("file does not exist: " + file.getPath());
+    }
+
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != MAGIC_NUMBER) {
+        throw new IllegalArgumentException("Invalid file format: not a valid hot keys file");
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new IllegalArgumentException("Unsupported file format version: " + version);
+      }
+
+      int count = in.readInt();
+      if (count < 0) {
+        throw new IllegalArgumentException("Invalid file format: negative key count");
+      }
+      Map<String, Integer> keys = new LinkedHashMap<>();
+      for (int i = 0; i < count; i++) {
+        String key = in.readUTF();
+        int limit = in.readInt();
+        if (!key.isEmpty() && limit > 0) {
+          keys.put(key, limit);
+        }
+      }
+      return keys;
+    }
+  }
+
+  /**
+   * Читает журнал запросов (по одному префиксу в строке) и выбирает самые частые префиксы.
+   * Префиксы сворачиваются до подсчёта, пустые после свёртки пропускаются.
+   *
+   * @param queryLog Файл журнала в кодировке UTF-8
+   *
+   * @param limit Размер результата для каждого префикса
+   *
+   * @param maxKeys Максимальное количество префиксов
+   *
+   * @param folding Свёртка, которой токенизатор приводит слова и префиксы запросов
+   *
+   * @return Префиксы в порядке убывания частоты
+   *
+   * @throws IOException Если произошла ошибка при чтении файла
+   */
+  static Map<String, Integer> readQueryLog(File queryLog, int limit, int maxKeys,
+      Folding folding) throws IOException {
+    Map<String, Integer> counts = new HashMap<>();
+    try (BufferedReader reader = Files.newBufferedReader(queryLog.toPath(),
+        StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String prefix = folding.fold(line.strip());
+        if (!prefix.isEmpty()) {
+          counts.merge(prefix, 1, Integer::sum);
+        }
+      }
+    }
+
+    List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+    entries.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+        .thenComparing(Map.Entry.comparingByKey()));
+    Map<String, Integer> keys = new LinkedHashMap<>();
+    for (Map.Entry<String, Integer> entry : entries) {
+      if (keys.size() >= maxKeys) {
+        break;
+      }
+      keys.put(entry.getKey(), limit);
+    }
+    return keys;
+  }
+
+  /**
+   * Параллельно выполняет предзагрузку ключей.
+   *
+   * @param keys Ключи и размеры результатов
+   *
+   * @param parallelism Количество потоков
+   *
+   * @param loader Функция, вычисляющая и кеширующая результат для ключа
+   *
+   * @return Future, завершающийся после обработки всех ключей
+   */
+  static CompletableFuture<Void> prefetch(Map<String, Integer> keys, int parallelism,
+      ObjIntConsumer<String> loader) {
+    if (keys.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, keys.size()));
+    List<CompletableFuture<Void>> tasks = new ArrayList<>(keys.size());
+    for (Map.Entry<String, Integer> entry : keys.entrySet()) {
+      tasks.add(CompletableFuture.runAsync(
+          () -> loader.accept(entry.getKey(), entry.getValue()), executor));
+    }
+    return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+        .whenComplete((ignored, error) -> executor.shutdown());
+  }
+}
@@ -1,13 +1,41 @@
 package io.github.autocomplete;
 
+import io.github.autocomplete.model.IngestionProgress;
 import io.github.autocomplete.model.WordFrequency;
+import io.github.autocomplete.tokenizer.InternPool;
 import io.github.autocomplete.tokenizer.SimpleTokenizer;
+import io.github.autocomplete.tokenizer.TokenSink;
 import io.github.autocomplete.tokenizer.Tokenizer;
+import io.github.autocomplete.tokenizer.Utf8Tokenizer;
+import io.github.autocomplete.util.TokenCounts;
 import io.github.autocomplete.util.Trie;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -16,8 +44,19 @@ import java.util.stream.Collectors;
  * умолчанию, и в то же время позволяет использовать любой другой токенизатор для особых случаев.
  */
 public class TextAnalyzer {
+  /**
+   * Размер блока (в символах) при потоковой загрузке текста.
+   */
+  public static final int CHUNK_SIZE = 64 * 1024;
+
+  // Максимальное количество различных токенов, накапливаемых перед вставкой в дерево
+  private static final int MAX_PENDING_TOKENS = 1 << 16;
+  // Максимальный размер одного отображения файла в память
+  private static final long MAX_REGION_SIZE = 1L << 30;
+
   private final Trie trie = new Trie();
   private final Tokenizer tokenizer;
+  private volatile InternPool internPool = new InternPool();
 
   /**
    * Создать анализатор текста с {@link SimpleTokenizer} в качестве токенизатора по умолчанию.
@@ -71,7 +110,406 @@ public class TextAnalyzer {
       throw new IllegalArgumentException("tokenizer cannot be null");
     }
 
-    tokenizer.tokenize(text).forEach(trie::insert);
+    // Вхождения сначала агрегируются, и каждое различное слово вставляется в дерево один раз
+    TokenCounts counts = new TokenCounts(internPool);
+    tokenizer.tokenize(text, aggregatingSink(counts, trie, new long[1]));
+    counts.drainTo(trie);
+  }
+
+  /**
+   * Потоково обрабатывает текст из {@link Reader}, используя токенизатор по умолчанию.
+   *
+   * @param reader Источник текста (не закрывается)
+   *
+   * @return Итоговый прогресс (число байт неизвестно и равно -1)
+   *
+   * @throws IOException Если произошла ошибка чтения
+   *
+   * @throws IllegalArgumentException Если reader равен null
+   */
+  public IngestionProgress addText(Reader reader) throws IOException {
+    return addText(reader, progress -> {
+    });
+  }
+
+  /**
+   * Потоково обрабатывает текст из {@link Reader}, используя токенизатор по умолчанию.
+   *
+   * <p>Текст читается блоками по {@link #CHUNK_SIZE} символов. Блок разбивается по последнему
+   * пробельному символу ({@code \s}), а незавершённый токен в конце блока переносится в
+   * следующий, поэтому память не зависит от размера источника (буфер растёт только под токен
+   * длиннее блока). Вхождения токенов подсчитываются заранее и вставляются в дерево пачками не
+   * больше 65536 различных слов. Блоки режутся только при разделении по пробельным символам
+   * ({@link Utf8Tokenizer#supports(io.github.autocomplete.config.TokenizerConfig)}); при другом
+   * {@code splitRegex} пробел может оказаться внутри токена, поэтому текст читается целиком и
+   * токенизируется один раз.
+   * </p>
+   *
+   * @param reader Источник текста (не закрывается)
+   *
+   * @param progress Получатель прогресса, вызывается после каждого блока и в конце
+   *
+   * @return Итоговый прогресс (число байт неизвестно и равно -1)
+   *
+   * @throws IOException Если произошла ошибка чтения
+   *
+   * @throws IllegalArgumentException Если reader равен null ИЛИ progress равен null
+   */
+  public IngestionProgress addText(Reader reader, Consumer<IngestionProgress> progress)
+      throws IOException {
+    if (reader == null) {
+      throw new IllegalArgumentException("reader cannot be null");
+    }
+    if (progress == null) {
+      throw new IllegalArgumentException("progress cannot be null");
+    }
+
+    return ingest(reader, () -> -1, progress);
+  }
+
+  /**
+   * Потоково обрабатывает файл, используя токенизатор по умолчанию.
+   *
+   * @param path Путь к файлу
+   *
+   * @param charset Кодировка файла
+   *
+   * @return Итоговый прогресс
+   *
+   * @throws IOException Если произошла ошибка чтения файла
+   *
+   * @throws IllegalArgumentException Если path равен null ИЛИ charset равен null
+   */
+  public IngestionProgress addFile(Path path, Charset charset) throws IOException {
+    return addFile(path, charset, progress -> {
+    });
+  }
+
+  /**
+   * Потоково обрабатывает файл, используя токенизатор по умолчанию (см.
+   * {@link #addText(Reader, Consumer)}).
+   *
+   * @param path Путь к файлу
+   *
+   * @param charset Кодировка файла
+   *
+   * @param progress Получатель прогресса, вызывается после каждого блока и в конце
+   *
+   * @return Итоговый прогресс
+   *
+   * @throws IOException Если произошла ошибка чтения файла
+   *
+   * @throws IllegalArgumentException Если path, charset или progress равен null
+   */
+  public IngestionProgress addFile(Path path, Charset charset,
+      Consumer<IngestionProgress> progress) throws IOException {
+    if (path == null) {
+      throw new IllegalArgumentException("path cannot be null");
+    }
+    if (charset == null) {
+      throw new IllegalArgumentException("charset cannot be null");
+    }
+    if (progress == null) {
+      throw new IllegalArgumentException("progress cannot be null");
+    }
+
+    try (InputStream in = Files.newInputStream(path)) {
+      return addStream(in, charset, progress);
+    }
+  }
+
+  /**
+   * Потоково обрабатывает UTF-8 текст из {@link InputStream}, используя токенизатор по
+   * умолчанию.
+   *
+   * @param in Источник байт (не закрывается)
+   *
+   * @return Итоговый прогресс
+   *
+   * @throws IOException Если произошла ошибка чтения
+   *
+   * @throws IllegalArgumentException Если in равен null
+   */
+  public IngestionProgress addStream(InputStream in) throws IOException {
+    return addStream(in, StandardCharsets.UTF_8, progress -> {
+    });
+  }
+
+  /**
+   * Потоково обрабатывает текст из {@link InputStream}, используя токенизатор по умолчанию (см.
+   * {@link #addText(Reader, Consumer)}).
+   *
+   * @param in Источник байт (не закрывается)
+   *
+   * @param charset Кодировка текста
+   *
+   * @param progress Получатель прогресса, вызывается после каждого блока и в конце
+   *
+   * @return Итоговый прогресс
+   *
+   * @throws IOException Если произошла ошибка чтения
+   *
+   * @throws IllegalArgumentException Если in, charset или progress равен null
+   */
+  public IngestionProgress addStream(InputStream in, Charset charset,
+      Consumer<IngestionProgress> progress) throws IOException {
+    if (in == null) {
+      throw new IllegalArgumentException("in cannot be null");
+    }
+    if (charset == null) {
+      throw new IllegalArgumentException("charset cannot be null");
+    }
+    if (progress == null) {
+      throw new IllegalArgumentException("progress cannot be null");
+    }
+
+    CountingInputStream counting = new CountingInputStream(in);
+    // Reader не закрывается, чтобы не закрыть поток вызывающего кода
+    return ingest(new InputStreamReader(counting, charset), counting::count, progress);
+  }
+
+  /**
+   * Параллельно обрабатывает UTF-8 файл, используя токенизатор по умолчанию.
+   *
+   * <p>Файл отображается в память и делится на parallelism областей (и больше, если область
+   * не помещается в одно отображение). Границы областей сдвигаются за ближайший пробельный байт
+   * ({@code \s}), который в UTF-8 не встречается внутри многобайтовых символов, поэтому токены и
+   * символы не разрываются. Каждая область декодируется и токенизируется в своём потоке в
+   * отдельное дерево частот, после чего деревья по порядку сливаются в основное. Для
+   * {@link SimpleTokenizer} с разделением по пробельным символам области разбираются прямо по
+   * байтам ({@link Utf8Tokenizer}), без декодирования. Токенизатор по умолчанию должен быть
+   * потокобезопасен. Если он разделяет токены не по пробельным символам, файл обрабатывается
+   * последовательно, как {@link #addFile(Path, Charset)}. Некорректные UTF-8 последовательности
+   * заменяются символом U+FFFD.
+   * </p>
+   *
+   * @param path Путь к файлу
+   *
+   * @param parallelism Количество потоков
+   *
+   * @return Итоговый прогресс
+   *
+   * @throws IOException Если произошла ошибка чтения файла
+   *
+   * @throws IllegalArgumentException Если path равен null ИЛИ parallelism меньше 1
+   */
+  public IngestionProgress addFileParallel(Path path, int parallelism) throws IOException {
+    if (path == null) {
+      throw new IllegalArgumentException("path cannot be null");
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism cannot be less than 1");
+    }
+    if (!Utf8Tokenizer.supports(tokenizer.getConfig())) {
+      // Границы областей по пробелам могут разорвать токен
+      return addFile(path, StandardCharsets.UTF_8);
+    }
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      int regions = (int) Math.max(parallelism, (size + MAX_REGION_SIZE - 1) / MAX_REGION_SIZE);
+      long[] bounds = new long[regions + 1];
+      bounds[regions] = size;
+      for (int i = 1; i < regions; i++) {
+        bounds[i] = alignToSeparator(channel, Math.max(bounds[i - 1], size / regions * i), size);
+      }
+
+      ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, regions));
+      try {
+        List<CompletableFuture<RegionResult>> tasks = new ArrayList<>(regions);
+        for (int i = 0; i < regions; i++) {
+          long start = bounds[i];
+          long end = bounds[i + 1];
+          tasks.add(CompletableFuture.supplyAsync(() -> {
+            try {
+              return ingestRegion(channel, start, end);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          }, executor));
+        }
+
+        long chars = 0;
+        long tokens = 0;
+        for (CompletableFuture<RegionResult> task : tasks) {
+          RegionResult region;
+          try {
+            region = task.join();
+          } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+              throw io.getCause();
+            }
+            throw e;
+          }
+          trie.merge(region.trie());
+          chars += region.chars();
+          tokens += region.tokens();
+        }
+        return new IngestionProgress(size, chars, tokens);
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Частоты и счётчики одной области файла.
+   */
+  private record RegionResult(Trie trie, long chars, long tokens) {
+  }
+
+  private RegionResult ingestRegion(FileChannel channel, long start, long end)
+      throws IOException {
+    Trie regionTrie = new Trie();
+    long[] tokens = new long[1];
+    TokenCounts counts = new TokenCounts(internPool);
+    TokenSink sink = aggregatingSink(counts, regionTrie, tokens);
+    if (start == end) {
+      return new RegionResult(regionTrie, 0, 0);
+    }
+
+    ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    if (tokenizer.getClass() == SimpleTokenizer.class
+        && Utf8Tokenizer.supports(tokenizer.getConfig())) {
+      // Токены читаются прямо из отображённых байт, без декодирования в символы
+      long chars = new Utf8Tokenizer(tokenizer.getConfig()).tokenize(bytes, sink);
+      counts.drainTo(regionTrie);
+      return new RegionResult(regionTrie, chars, tokens[0]);
+    }
+
+    CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    char[] buffer = new char[CHUNK_SIZE];
+    CharBuffer out = CharBuffer.wrap(buffer);
+    long chars = 0;
+    while (true) {
+      int before = out.position();
+      boolean done = decoder.decode(bytes, out, true).isUnderflow();
+      if (done) {
+        decoder.flush(out);
+      }
+      int filled = out.position();
+      chars += filled - before;
+      if (done) {
+        if (filled > 0) {
+          tokenizer.tokenize(CharBuffer.wrap(buffer, 0, filled), sink);
+        }
+        counts.drainTo(regionTrie);
+        return new RegionResult(regionTrie, chars, tokens[0]);
+      }
+
+      int remaining = tokenizeCompleteTokens(buffer, filled, sink);
+      if (remaining == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+      out = CharBuffer.wrap(buffer);
+      out.position(remaining);
+    }
+  }
+
+  /**
+   * Находит позицию сразу после первого пробельного байта, начиная с from.
+   */
+  private static long alignToSeparator(FileChannel channel, long from, long size)
+      throws IOException {
+    ByteBuffer window = ByteBuffer.allocate(4096);
+    long position = from;
+    while (position < size) {
+      window.clear();
+      int read = channel.read(window, position);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        if (isSeparator((char) window.get(i))) {
+          return position + i + 1;
+        }
+      }
+      position += read;
+    }
+    return size;
+  }
+
+  private IngestionProgress ingest(Reader reader, LongSupplier bytes,
+      Consumer<IngestionProgress> progress) throws IOException {
+    long[] tokens = new long[1];
+    TokenCounts counts = new TokenCounts(internPool);
+    TokenSink sink = aggregatingSink(counts, trie, tokens);
+
+    char[] buffer = new char[CHUNK_SIZE];
+    int filled = 0;
+    long chars = 0;
+    while (true) {
+      if (filled == buffer.length) {
+        // Токен длиннее буфера: расширяем, пока не встретится разделитель
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+      int read = reader.read(buffer, filled, buffer.length - filled);
+      if (read < 0) {
+        break;
+      }
+      chars += read;
+      filled += read;
+
+      int remaining = tokenizeCompleteTokens(buffer, filled, sink);
+      if (remaining == filled) {
+        continue;
+      }
+      filled = remaining;
+      progress.accept(new IngestionProgress(bytes.getAsLong(), chars - filled, tokens[0]));
+    }
+    if (filled > 0) {
+      tokenizer.tokenize(CharBuffer.wrap(buffer, 0, filled), sink);
+    }
+    counts.drainTo(trie);
+
+    IngestionProgress result = new IngestionProgress(bytes.getAsLong(), chars, tokens[0]);
+    progress.accept(result);
+    return result;
+  }
+
+  /**
+   * Приёмник, подсчитывающий вхождения токенов; при накоплении {@link #MAX_PENDING_TOKENS}
+   * различных токенов они вставляются в дерево, чтобы счётчик не рос неограниченно.
+   */
+  private static TokenSink aggregatingSink(TokenCounts counts, Trie target, long[] tokens) {
+    return (buffer, offset, length) -> {
+      tokens[0]++;
+      counts.add(buffer, offset, length);
+      if (counts.size() >= MAX_PENDING_TOKENS) {
+        counts.drainTo(target);
+      }
+    };
+  }
+
+  /**
+   * Токенизирует буфер до последнего разделителя включительно и переносит незавершённый токен в
+   * начало буфера. Если токенизатор разделяет токены не по пробельным символам, буфер не режется.
+   *
+   * @return Длина перенесённого остатка (равна filled, если разделителя нет)
+   */
+  private int tokenizeCompleteTokens(char[] buffer, int filled, TokenSink sink) {
+    if (!Utf8Tokenizer.supports(tokenizer.getConfig())) {
+      return filled;
+    }
+    int cut = filled;
+    while (cut > 0 && !isSeparator(buffer[cut - 1])) {
+      cut--;
+    }
+    if (cut == 0) {
+      return filled;
+    }
+    tokenizer.tokenize(CharBuffer.wrap(buffer, 0, cut), sink);
+    System.arraycopy(buffer, cut, buffer, 0, filled - cut);
+    return filled - cut;
+  }
+
+  /**
+   * Пробельные символы regex {@code \s}: по ним блок можно разрезать, не разрывая токен.
+   */
+  private static boolean isSeparator(char c) {
+    return c == ' ' || (c >= '\t' && c <= '\r');
   }
 
   /**
@@ -161,6 +599,33 @@ public class TextAnalyzer {
         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
   }
 
+  /**
+   * Установить пул строк, из которого берутся строки новых токенов при загрузке текста. По
+   * умолчанию у каждого анализатора свой пул ёмкостью {@link InternPool#DEFAULT_CAPACITY};
+   * несколько анализаторов могут использовать общий пул, например {@link InternPool#shared()}.
+   * Пул не очищается вместе с анализатором ({@link #clear()}).
+   *
+   * @param internPool Пул строк
+   *
+   * @throws IllegalArgumentException Если internPool равен null
+   */
+  public void setInternPool(InternPool internPool) {
+    if (internPool == null) {
+      throw new IllegalArgumentException("internPool cannot be null");
+    }
+
+    this.internPool = internPool;
+  }
+
+  /**
+   * Получить пул строк токенов.
+   *
+   * @return Пул строк
+   */
+  public InternPool getInternPool() {
+    return internPool;
+  }
+
   /**
    * Удаляет все слова из анализатора.
    */
@@ -208,4 +673,44 @@ public class TextAnalyzer {
     }
     trie.loadFromFile(file);
   }
+
+  /**
+   * Поток, считающий прочитанные байты.
+   */
+  private static final class CountingInputStream extends FilterInputStream {
+    private long count;
+
+    CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    long count() {
+      return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = super.read(b, off, len);
+      if (read > 0) {
+        count += read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
+  }
 }
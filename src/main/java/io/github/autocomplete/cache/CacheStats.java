@@ -0,0 +1,172 @@
+package io.github.autocomplete.cache;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Снимок статистики работы кеша на момент вызова {@link LRUCache#stats()}.
+ *
+ * <p>Гистограмма времени загрузки логарифмическая: корзина {@code i} содержит количество загрузок
+ * длительностью меньше {@link #bucketUpperBoundNanos(int)}, но не меньше верхней границы
+ * предыдущей корзины. Последняя корзина не ограничена сверху.
+ * </p>
+ *
+ * @param hitCount Количество обращений, для которых значение нашлось в кеше
+ *
+ * @param missCount Количество обращений, для которых значения в кеше не оказалось
+ *
+ * @param putCount Количество добавлений и обновлений значений
+ *
+ * @param evictionCount Количество элементов, вытесненных из-за ограничения размера
+ *
+ * @param invalidationCount Количество элементов, удалённых явной инвалидацией (очисткой кеша)
+ *
+ * @param loadCount Количество вычислений значений после промахов
+ *
+ * @param totalLoadTimeNanos Суммарное время вычисления значений в наносекундах
+ *
+ * @param loadTimeHistogram Гистограмма времени вычисления значений
+ */
+public record CacheStats(long hitCount, long missCount, long putCount, long evictionCount,
+    long invalidationCount, long loadCount, long totalLoadTimeNanos,
+    List<Long> loadTimeHistogram) {
+  /**
+   * Количество корзин гистограммы времени загрузки.
+   */
+  public static final int HISTOGRAM_BUCKETS = 24;
+
+  /**
+   * Верхняя граница первой корзины гистограммы в наносекундах (1 мкс).
+   */
+  static final long FIRST_BUCKET_UPPER_BOUND_NANOS = 1_000;
+
+  /**
+   * Пустая статистика (используется, когда кеш отключён).
+   */
+  public static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, 0,
+      Collections.nCopies(HISTOGRAM_BUCKETS, 0L));
+
+  /**
+   * Стандартный конструктор.
+   *
+   * @throws IllegalArgumentException Если какой-либо из счётчиков отрицательный ИЛИ
+   *         loadTimeHistogram равен null или имеет размер, отличный от {@link #HISTOGRAM_BUCKETS}
+   */
+  public CacheStats {
+    if (hitCount < 0 || missCount < 0 || putCount < 0 || evictionCount < 0
+        || invalidationCount < 0 || loadCount < 0 || totalLoadTimeNanos < 0) {
+      throw new IllegalArgumentException("counters cannot be negative");
+    }
+    if (loadTimeHistogram == null || loadTimeHistogram.size() != HISTOGRAM_BUCKETS) {
+      throw new IllegalArgumentException(
+          "loadTimeHistogram must contain " + HISTOGRAM_BUCKETS + " buckets");
+    }
+    loadTimeHistogram = List.copyOf(loadTimeHistogram);
+  }
+
+  /**
+   * Общее количество обращений к кешу.
+   *
+   * @return Сумма попаданий и промахов
+   */
+  public long requestCount() {
+    return hitCount + missCount;
+  }
+
+  /**
+   * Доля попаданий среди всех обращений. Если обращений не было, возвращает 1.0.
+   *
+   * @return Доля попаданий в диапазоне [0, 1]
+   */
+  public double hitRate() {
+    long requests = requestCount();
+    return requests == 0 ? 1.0 : (double) hitCount / requests;
+  }
+
+  /**
+   * Доля промахов среди всех обращений. Если обращений не было, возвращает 0.0.
+   *
+   * @return Доля промахов в диапазоне [0, 1]
+   */
+  public double missRate() {
+    long requests = requestCount();
+    return requests == 0 ? 0.0 : (double) missCount / requests;
+  }
+
+  /**
+   * Среднее время вычисления значения после промаха.
+   *
+   * @return Среднее время загрузки в наносекундах, 0 если загрузок не было
+   */
+  public double averageLoadPenaltyNanos() {
+    return loadCount == 0 ? 0.0 : (double) totalLoadTimeNanos / loadCount;
+  }
+
+  /**
+   * Оценка перцентиля времени загрузки по гистограмме (верхняя граница соответствующей корзины).
+   *
+   * @param quantile Квантиль в диапазоне (0, 1]
+   *
+   * @return Верхняя граница корзины в наносекундах, 0 если загрузок не было.
+   *         {@link Long#MAX_VALUE} для последней (неограниченной) корзины
+   *
+   * @throws IllegalArgumentException Если quantile не лежит в диапазоне (0, 1]
+   */
+  public long loadTimePercentileNanos(double quantile) {
+    if (!(quantile > 0 && quantile <= 1)) {
+      throw new IllegalArgumentException("quantile must be in range (0, 1]");
+    }
+
+    long total = 0;
+    for (long count : loadTimeHistogram) {
+      total += count;
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long rank = (long) Math.ceil(quantile * total);
+    long seen = 0;
+    for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+      seen += loadTimeHistogram.get(i);
+      if (seen >= rank) {
+        return bucketUpperBoundNanos(i);
+      }
+    }
+    return bucketUpperBoundNanos(HISTOGRAM_BUCKETS - 1);
+  }
+
+  /**
+   * Верхняя граница (не включительно) корзины гистограммы. Границы удваиваются, начиная с 1 мкс.
+   *
+   * @param bucket Номер корзины
+   *
+   * @return Верхняя граница корзины в наносекундах, {@link Long#MAX_VALUE} для последней корзины
+   *
+   * @throws IllegalArgumentException Если bucket вне диапазона [0, HISTOGRAM_BUCKETS)
+   */
+  public static long bucketUpperBoundNanos(int bucket) {
+    if (bucket < 0 || bucket >= HISTOGRAM_BUCKETS) {
+      throw new IllegalArgumentException("bucket out of range: " + bucket);
+    }
+    if (bucket == HISTOGRAM_BUCKETS - 1) {
+      return Long.MAX_VALUE;
+    }
+    return FIRST_BUCKET_UPPER_BOUND_NANOS << bucket;
+  }
+
+  /**
+   * Номер корзины гистограммы для указанной длительности.
+   *
+   * @param nanos Длительность в наносекундах
+   *
+   * @return Номер корзины
+   */
+  static int bucketFor(long nanos) {
+    if (nanos < FIRST_BUCKET_UPPER_BOUND_NANOS) {
+      return 0;
+    }
+    int bucket = 64 - Long.numberOfLeadingZeros(nanos / FIRST_BUCKET_UPPER_BOUND_NANOS);
+    return Math.min(bucket, HISTOGRAM_BUCKETS - 1);
+  }
+}
@@ -0,0 +1,171 @@
+package io.github.autocomplete.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Множество "мёртвых" префиксов - префиксов, для которых заведомо нет ни одного автодополнения.
+ *
+ * <p>Множество замкнуто относительно продолжений: если префикс помечен мёртвым, то мёртвым
+ * считается и любое его продолжение (если у префикса нет ни одного слова в поддереве, то их нет и
+ * у продолжений). Поэтому хранятся только минимальные мёртвые префиксы в виде небольшого
+ * префиксного дерева, а проверка выполняется одним проходом по символам запроса без выделения
+ * памяти. В отличие от фильтра Блума, множество не даёт ложноположительных ответов.
+ * </p>
+ *
+ * <p>Размер множества ограничен: при переполнении оно очищается целиком. Все операции
+ * потокобезопасны.
+ * </p>
+ */
+public class DeadPrefixSet {
+  private static class Node {
+    final Map<Character, Node> children = new HashMap<>(4);
+    boolean dead;
+  }
+
+  private final int maxEntries;
+  private Node root = new Node();
+  private int size;
+
+  /**
+   * Создаёт пустое множество.
+   *
+   * @param maxEntries Максимальное количество хранимых префиксов
+   *
+   * @throws IllegalArgumentException Если maxEntries меньше 1
+   */
+  public DeadPrefixSet(int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("maxEntries cannot be less than 1");
+    }
+
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Проверяет, является ли префикс или какой-либо его начальный отрезок мёртвым.
+   *
+   * @param prefix Префикс для проверки
+   *
+   * @return true, если для префикса заведомо нет автодополнений
+   *
+   * @throws IllegalArgumentException Если prefix равен null
+   */
+  public synchronized boolean isDead(CharSequence prefix) {
+    if (prefix == null) {
+      throw new IllegalArgumentException("prefix cannot be null");
+    }
+
+    Node current = root;
+    for (int i = 0; i < prefix.length(); i++) {
+      current = current.children.get(prefix.charAt(i));
+      if (current == null) {
+        return false;
+      }
+      if (current.dead) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Помечает префикс (и тем самым все его продолжения) мёртвым.
+   *
+   * @param prefix Мёртвый префикс
+   *
+   * @throws IllegalArgumentException Если prefix равен null или пустой строке
+   */
+  public synchronized void markDead(String prefix) {
+    if (prefix == null || prefix.isEmpty()) {
+      throw new IllegalArgumentException("prefix cannot be null or empty");
+    }
+
+    if (size >= maxEntries) {
+      clear();
+    }
+
+    Node current = root;
+    for (int i = 0; i < prefix.length(); i++) {
+      Node child = current.children.get(prefix.charAt(i));
+      if (child == null) {
+        child = new Node();
+        current.children.put(prefix.charAt(i), child);
+      }
+      current = child;
+      if (current.dead) {
+        return;
+      }
+    }
+    current.dead = true;
+    size++;
+    size -= countDead(current.children);
+    current.children.clear();
+  }
+
+  /**
+   * Перепроверяет все мёртвые префиксы и оставляет только те, что по-прежнему мёртвы. Вызывается
+   * после добавления слов, которые могли "оживить" ранее мёртвые префиксы.
+   *
+   * @param stillDead Проверка, остаётся ли префикс мёртвым
+   *
+   * @throws IllegalArgumentException Если stillDead равен null
+   */
+  public synchronized void revalidate(Predicate<String> stillDead) {
+    if (stillDead == null) {
+      throw new IllegalArgumentException("stillDead cannot be null");
+    }
+    if (size == 0) {
+      return;
+    }
+
+    List<String> prefixes = new ArrayList<>(size);
+    collect(root, new StringBuilder(), prefixes);
+    clear();
+    for (String prefix : prefixes) {
+      if (stillDead.test(prefix)) {
+        markDead(prefix);
+      }
+    }
+  }
+
+  /**
+   * Возвращает количество хранимых мёртвых префиксов.
+   *
+   * @return Количество префиксов
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Очищает множество.
+   */
+  public synchronized void clear() {
+    root = new Node();
+    size = 0;
+  }
+
+  private static int countDead(Map<Character, Node> children) {
+    int count = 0;
+    for (Node child : children.values()) {
+      count += (child.dead ? 1 : 0) + countDead(child.children);
+    }
+    return count;
+  }
+
+  private static void collect(Node node, StringBuilder current, List<String> result) {
+    if (node.dead) {
+      result.add(current.toString());
+      return;
+    }
+    for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+      current.append(entry.getKey());
+      collect(entry.getValue(), current, result);
+      current.deleteCharAt(current.length() - 1);
+    }
+  }
+}
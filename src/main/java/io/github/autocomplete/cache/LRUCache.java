@@ -1,19 +1,36 @@
 package io.github.autocomplete.cache;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 
 /**
- * Реализация LRU-кеша для использования в AutocompleteProvider
+ * Реализация LRU-кеша для использования в AutocompleteProvider. Кеш может быть ограничен
+ * количеством элементов и (или) суммарным весом элементов, вычисляемым {@link Weigher}.
+ *
+ * <p>Дополнительно поддерживаются политики по времени: истечение срока жизни после записи
+ * (expireAfterWrite) и фоновое обновление после записи (refreshAfterWrite). Устаревший, но ещё не
+ * истёкший элемент продолжает отдаваться при чтении, пока его новое значение вычисляется в
+ * фоновом виртуальном потоке. Истёкшие элементы удаляются с помощью колеса таймеров без полного
+ * просмотра кеша. Все операции кеша потокобезопасны.
+ * </p>
  *
  * @param <K> тип ключа
  *
  * @param <V> тип значения
  */
 public class LRUCache<K, V> {
-  private static class Node<K, V> {
+  private static class Node<K, V> extends TimerWheel.Timer {
     K key;
     V value;
+    long weight;
+    long writeTime;
+    boolean refreshing;
     Node<K, V> prev;
     Node<K, V> next;
 
@@ -24,88 +41,399 @@ public class LRUCache<K, V> {
   }
 
   private final int capacity;
+  private final long maxWeight;
+  private final Weigher<? super K, ? super V> weigher;
+  private final long expireAfterWriteNanos;
+  private final long refreshAfterWriteNanos;
+  private final BiFunction<? super K, ? super V, ? extends V> refresher;
+  private final Executor refreshExecutor;
+  private final LongSupplier ticker;
+  private final TimerWheel timerWheel;
   private final Map<K, Node<K, V>> map;
+  private long totalWeight;
   private Node<K, V> head;
   private Node<K, V> tail;
+  private final StatsCounter stats = new StatsCounter();
+
+  /**
+   * Ограничение начального размера таблицы для кешей, ограниченных только весом.
+   */
+  private static final int INITIAL_TABLE_LIMIT = 1 << 12;
 
   /**
    * Создает LRU-кеш указанного размера
-   * 
+   *
    * @param capacity размер кеша
-   * 
+   *
    * @throws IllegalArgumentException Если capacity меньше 0
    */
   public LRUCache(int capacity) {
+    this(capacity, Long.MAX_VALUE, (key, value) -> 0);
+  }
+
+  /**
+   * Создает LRU-кеш, ограниченный суммарным весом элементов
+   *
+   * @param maxWeight максимальный суммарный вес элементов
+   *
+   * @param weigher функция оценки веса элемента
+   *
+   * @throws IllegalArgumentException Если maxWeight меньше 0 ИЛИ weigher равен null
+   */
+  public LRUCache(long maxWeight, Weigher<? super K, ? super V> weigher) {
+    this(Integer.MAX_VALUE, maxWeight, weigher);
+  }
+
+  /**
+   * Создает LRU-кеш, ограниченный и количеством элементов, и их суммарным весом
+   *
+   * @param capacity размер кеша
+   *
+   * @param maxWeight максимальный суммарный вес элементов
+   *
+   * @param weigher функция оценки веса элемента
+   *
+   * @throws IllegalArgumentException Если capacity меньше 0 ИЛИ maxWeight меньше 0 ИЛИ weigher
+   *         равен null
+   */
+  public LRUCache(int capacity, long maxWeight, Weigher<? super K, ? super V> weigher) {
+    this(capacity, maxWeight, weigher, Duration.ZERO, Duration.ZERO, null);
+  }
+
+  /**
+   * Создает LRU-кеш с политиками истечения и фонового обновления элементов
+   *
+   * @param capacity размер кеша
+   *
+   * @param maxWeight максимальный суммарный вес элементов
+   *
+   * @param weigher функция оценки веса элемента
+   *
+   * @param expireAfterWrite время жизни элемента после записи, {@link Duration#ZERO} - без
+   *        ограничения
+   *
+   * @param refreshAfterWrite время после записи, по прошествии которого элемент обновляется в фоне
+   *        при следующем чтении, {@link Duration#ZERO} - без обновления
+   *
+   * @param refresher функция вычисления нового значения по ключу и старому значению, может быть
+   *        null, если фоновое обновление отключено
+   *
+   * @throws IllegalArgumentException Если capacity меньше 0 ИЛИ maxWeight меньше 0 ИЛИ weigher
+   *         равен null ИЛИ expireAfterWrite или refreshAfterWrite равны null или отрицательны ИЛИ
+   *         refresher равен null при включённом фоновом обновлении
+   */
+  public LRUCache(int capacity, long maxWeight, Weigher<? super K, ? super V> weigher,
+      Duration expireAfterWrite, Duration refreshAfterWrite,
+      BiFunction<? super K, ? super V, ? extends V> refresher) {
+    this(capacity, maxWeight, weigher, expireAfterWrite, refreshAfterWrite, refresher,
+        task -> Thread.ofVirtual().name("autocomplete-cache-refresh").start(task),
+        System::nanoTime);
+  }
+
+  /**
+   * Создает LRU-кеш с указанными исполнителем фоновых обновлений и источником времени.
+   */
+  LRUCache(int capacity, long maxWeight, Weigher<? super K, ? super V> weigher,
+      Duration expireAfterWrite, Duration refreshAfterWrite,
+      BiFunction<? super K, ? super V, ? extends V> refresher, Executor refreshExecutor,
+      LongSupplier ticker) {
     if (capacity < 0) {
       throw new IllegalArgumentException("capacity cannot be less than 0");
     }
+    if (maxWeight < 0) {
+      throw new IllegalArgumentException("maxWeight cannot be less than 0");
+    }
+    if (weigher == null) {
+      throw new IllegalArgumentException("weigher cannot be null");
+    }
+    if (expireAfterWrite == null || expireAfterWrite.isNegative()) {
+      throw new IllegalArgumentException("expireAfterWrite cannot be null or negative");
+    }
+    if (refreshAfterWrite == null || refreshAfterWrite.isNegative()) {
+      throw new IllegalArgumentException("refreshAfterWrite cannot be null or negative");
+    }
+    if (!refreshAfterWrite.isZero() && refresher == null) {
+      throw new IllegalArgumentException("refresher cannot be null when refresh is enabled");
+    }
 
     this.capacity = capacity;
-    this.map = new HashMap<>(capacity * 2);
+    this.maxWeight = maxWeight;
+    this.weigher = weigher;
+    this.expireAfterWriteNanos = saturatedNanos(expireAfterWrite);
+    this.refreshAfterWriteNanos = saturatedNanos(refreshAfterWrite);
+    this.refresher = refresher;
+    this.refreshExecutor = refreshExecutor;
+    this.ticker = ticker;
+    this.timerWheel =
+        expireAfterWriteNanos > 0 ? new TimerWheel(expireAfterWriteNanos, ticker.getAsLong())
+            : null;
+    this.map = new HashMap<>(Math.min(capacity, INITIAL_TABLE_LIMIT) * 2);
   }
 
   /**
-   * Получить значение из кеша по ключу
-   * 
+   * Получить значение из кеша по ключу. Если элементу пора обновиться, возвращается текущее
+   * значение, а новое вычисляется в фоне
+   *
    * @param key ключ элемента
-   * 
-   * @return значение элемента
-   * 
+   *
+   * @return значение элемента или null, если элемента нет или его срок жизни истёк
+   *
    * @throws IllegalArgumentException Если key равен null
    */
   public V get(K key) {
+    return get(key, value -> true);
+  }
+
+  /**
+   * Получить значение из кеша по ключу, если оно пригодно для вызывающего кода. Непригодное
+   * значение учитывается в статистике как промах и не продвигается в начало очереди, так как
+   * вызывающий код всё равно вычислит и положит новое.
+   *
+   * @param key ключ элемента
+   *
+   * @param usable проверка, подходит ли найденное значение
+   *
+   * @return значение элемента или null, если элемента нет, его срок жизни истёк или оно не
+   *         подходит
+   *
+   * @throws IllegalArgumentException Если key равен null ИЛИ usable равен null
+   */
+  public synchronized V get(K key, Predicate<? super V> usable) {
     if (key == null) {
       throw new IllegalArgumentException("key cannot be null");
     }
+    if (usable == null) {
+      throw new IllegalArgumentException("usable cannot be null");
+    }
+
+    long now = expireOrRefreshEnabled() ? ticker.getAsLong() : 0;
+    expireEntries(now);
 
     Node<K, V> node = map.get(key);
-    if (node == null)
+    if (node == null) {
+      stats.recordMiss();
+      return null;
+    }
+    if (isExpired(node, now)) {
+      removeNode(node);
+      stats.recordEviction();
+      stats.recordMiss();
+      return null;
+    }
+    if (!usable.test(node.value)) {
+      stats.recordMiss();
       return null;
+    }
 
+    stats.recordHit();
     moveToHead(node);
+    if (refreshAfterWriteNanos > 0 && !node.refreshing
+        && now - node.writeTime >= refreshAfterWriteNanos) {
+      scheduleRefresh(node);
+    }
     return node.value;
   }
 
   /**
-   * Добавить новую пару ключ-значение в кеш. Если кеш полон, то вытесняет давно использованный
-   * элемент
-   * 
+   * Добавить новую пару ключ-значение в кеш. Если кеш полон (по количеству элементов или по
+   * суммарному весу), то вытесняет давно использованные элементы. Элемент, вес которого сам по себе
+   * превышает максимальный, в кеше не сохраняется: прежнее значение по этому ключу удаляется, а
+   * остальные элементы не затрагиваются
+   *
    * @param key ключ для кешируемого значения
-   * 
+   *
    * @param value кешируемое значение
-   * 
-   * @throws IllegalArgumentException Если key равен null
+   *
+   * @throws IllegalArgumentException Если key равен null ИЛИ weigher вернул отрицательный вес
    */
-  public void put(K key, V value) {
+  public synchronized void put(K key, V value) {
     if (key == null) {
       throw new IllegalArgumentException("key cannot be null");
     }
 
-    Node<K, V> node = map.get(key);
-    if (node != null) {
-      node.value = value;
-      moveToHead(node);
-      return;
+    stats.recordPut();
+    long weight = weigher.weigh(key, value);
+    if (weight < 0) {
+      throw new IllegalArgumentException("weight cannot be negative: " + weight);
     }
 
-    node = new Node<>(key, value);
-    map.put(key, node);
-    addToFront(node);
+    long now = expireOrRefreshEnabled() ? ticker.getAsLong() : 0;
+    expireEntries(now);
 
-    if (map.size() > capacity) {
-      removeTail();
+    Node<K, V> node = map.get(key);
+    if (weight > maxWeight) {
+      if (node != null) {
+        removeNode(node);
+        stats.recordEviction();
+      }
+      return;
+    }
+    if (node != null) {
+      node.refreshing = false;
+      moveToHead(node);
+    } else {
+      node = new Node<>(key, value);
+      map.put(key, node);
+      addToFront(node);
     }
+    setValue(node, value, weight, now);
+    evictOverflow();
   }
 
   /**
    * Очистить содержимое кеша.
    */
-  public void clear() {
+  public synchronized void clear() {
+    stats.recordInvalidations(map.size());
     map.clear();
+    if (timerWheel != null) {
+      timerWheel.clear();
+    }
+    totalWeight = 0;
     head = null;
     tail = null;
   }
 
+  /**
+   * Возвращает количество элементов в кеше.
+   *
+   * @return Количество элементов
+   */
+  public synchronized int size() {
+    return map.size();
+  }
+
+  /**
+   * Возвращает суммарный вес элементов в кеше.
+   *
+   * @return Суммарный вес элементов
+   */
+  public synchronized long weight() {
+    return totalWeight;
+  }
+
+  /**
+   * Возвращает снимок самых недавно использованных элементов. Не влияет на порядок вытеснения и
+   * статистику.
+   *
+   * @param limit Максимальное количество элементов
+   *
+   * @return Элементы в порядке от самого недавно использованного к наиболее давнему
+   *
+   * @throws IllegalArgumentException Если limit меньше 0
+   */
+  public synchronized Map<K, V> hottest(int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("limit cannot be less than 0");
+    }
+
+    Map<K, V> result = new LinkedHashMap<>();
+    for (Node<K, V> node = head; node != null && result.size() < limit; node = node.next) {
+      result.put(node.key, node.value);
+    }
+    return result;
+  }
+
+  /**
+   * Записать в статистику время вычисления значения, которого не оказалось в кеше.
+   *
+   * @param nanos Время вычисления в наносекундах
+   */
+  public void recordLoad(long nanos) {
+    stats.recordLoad(nanos);
+  }
+
+  /**
+   * Получить снимок статистики кеша: попадания, промахи, вытеснения, добавления, инвалидации и
+   * гистограмму времени вычисления значений.
+   *
+   * @return Снимок статистики {@link CacheStats}
+   */
+  public CacheStats stats() {
+    return stats.snapshot();
+  }
+
+  private boolean expireOrRefreshEnabled() {
+    return expireAfterWriteNanos > 0 || refreshAfterWriteNanos > 0;
+  }
+
+  private boolean isExpired(Node<K, V> node, long now) {
+    return expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void expireEntries(long now) {
+    if (timerWheel == null) {
+      return;
+    }
+    timerWheel.advance(now, timer -> {
+      removeNode((Node<K, V>) timer);
+      stats.recordEviction();
+    });
+  }
+
+  private void setValue(Node<K, V> node, V value, long weight, long now) {
+    totalWeight += weight - node.weight;
+    node.value = value;
+    node.weight = weight;
+    node.writeTime = now;
+    if (timerWheel != null) {
+      timerWheel.schedule(node, now + expireAfterWriteNanos);
+    }
+  }
+
+  private void scheduleRefresh(Node<K, V> node) {
+    node.refreshing = true;
+    K key = node.key;
+    V oldValue = node.value;
+    try {
+      refreshExecutor.execute(() -> refresh(node, key, oldValue));
+    } catch (RuntimeException e) {
+      node.refreshing = false;
+    }
+  }
+
+  private void refresh(Node<K, V> node, K key, V oldValue) {
+    long start = ticker.getAsLong();
+    V newValue;
+    try {
+      newValue = refresher.apply(key, oldValue);
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        node.refreshing = false;
+      }
+      return;
+    }
+    stats.recordLoad(ticker.getAsLong() - start);
+    completeRefresh(node, newValue);
+  }
+
+  private synchronized void completeRefresh(Node<K, V> node, V newValue) {
+    if (!node.refreshing || map.get(node.key) != node) {
+      // Элемент был удалён, вытеснен или перезаписан, пока вычислялось новое значение
+      return;
+    }
+    node.refreshing = false;
+    long weight = weigher.weigh(node.key, newValue);
+    if (weight < 0) {
+      return;
+    }
+    if (weight > maxWeight) {
+      removeNode(node);
+      stats.recordEviction();
+      return;
+    }
+    stats.recordPut();
+    setValue(node, newValue, weight, ticker.getAsLong());
+    evictOverflow();
+  }
+
+  private void evictOverflow() {
+    while (map.size() > capacity || totalWeight > maxWeight) {
+      removeTail();
+    }
+  }
+
   private void addToFront(Node<K, V> node) {
     node.next = head;
     node.prev = null;
@@ -125,32 +453,47 @@ public class LRUCache<K, V> {
     if (node == head)
       return;
 
+    unlink(node);
+    addToFront(node);
+  }
+
+  private void unlink(Node<K, V> node) {
     if (node.prev != null) {
       node.prev.next = node.next;
+    } else if (node == head) {
+      head = node.next;
     }
     if (node.next != null) {
       node.next.prev = node.prev;
-    }
-
-    if (node == tail) {
+    } else if (node == tail) {
       tail = node.prev;
     }
+    node.prev = null;
+    node.next = null;
+  }
 
-    addToFront(node);
+  private void removeNode(Node<K, V> node) {
+    map.remove(node.key);
+    totalWeight -= node.weight;
+    if (timerWheel != null) {
+      timerWheel.cancel(node);
+    }
+    unlink(node);
   }
 
   private void removeTail() {
     if (tail == null)
       return;
 
-    map.remove(tail.key);
+    removeNode(tail);
+    stats.recordEviction();
+  }
 
-    if (tail.prev != null) {
-      tail.prev.next = null;
-    } else {
-      head = null;
+  private static long saturatedNanos(Duration duration) {
+    try {
+      return duration.toNanos();
+    } catch (ArithmeticException e) {
+      return Long.MAX_VALUE;
     }
-
-    tail = tail.prev;
   }
 }
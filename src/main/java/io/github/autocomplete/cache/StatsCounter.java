@@ -0,0 +1,76 @@
+package io.github.autocomplete.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Накопитель статистики кеша. Счётчики построены на {@link LongAdder} (распределённые по ячейкам
+ * счётчики), поэтому запись статистики почти не добавляет накладных расходов и не создаёт
+ * конкуренции между потоками.
+ */
+final class StatsCounter {
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder putCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+  private final LongAdder invalidationCount = new LongAdder();
+  private final LongAdder loadCount = new LongAdder();
+  private final LongAdder totalLoadTime = new LongAdder();
+  private final LongAdder[] loadTimeHistogram = new LongAdder[CacheStats.HISTOGRAM_BUCKETS];
+
+  /**
+   * Создаёт накопитель с нулевыми счётчиками.
+   */
+  StatsCounter() {
+    for (int i = 0; i < loadTimeHistogram.length; i++) {
+      loadTimeHistogram[i] = new LongAdder();
+    }
+  }
+
+  void recordHit() {
+    hitCount.increment();
+  }
+
+  void recordMiss() {
+    missCount.increment();
+  }
+
+  void recordPut() {
+    putCount.increment();
+  }
+
+  void recordEviction() {
+    evictionCount.increment();
+  }
+
+  void recordInvalidations(int count) {
+    invalidationCount.add(count);
+  }
+
+  /**
+   * Записывает время вычисления значения после промаха.
+   *
+   * @param nanos Длительность в наносекундах
+   */
+  void recordLoad(long nanos) {
+    long duration = Math.max(0, nanos);
+    loadCount.increment();
+    totalLoadTime.add(duration);
+    loadTimeHistogram[CacheStats.bucketFor(duration)].increment();
+  }
+
+  /**
+   * Возвращает снимок текущих значений счётчиков.
+   *
+   * @return Снимок статистики
+   */
+  CacheStats snapshot() {
+    List<Long> histogram = new ArrayList<>(loadTimeHistogram.length);
+    for (LongAdder bucket : loadTimeHistogram) {
+      histogram.add(bucket.sum());
+    }
+    return new CacheStats(hitCount.sum(), missCount.sum(), putCount.sum(), evictionCount.sum(),
+        invalidationCount.sum(), loadCount.sum(), totalLoadTime.sum(), histogram);
+  }
+}
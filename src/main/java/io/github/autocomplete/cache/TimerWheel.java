@@ -0,0 +1,134 @@
+package io.github.autocomplete.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Хешированное колесо таймеров для истечения срока жизни элементов кеша.
+ *
+ * <p>Таймеры раскладываются по корзинам в соответствии с тиком, на который приходится их срок.
+ * При продвижении времени просматриваются только корзины прошедших тиков (не более размера
+ * колеса), поэтому стоимость истечения амортизированно пропорциональна количеству истёкших
+ * элементов, а не размеру кеша. Таймеры, срок которых приходится на следующие обороты колеса,
+ * остаются в своей корзине до нужного оборота.
+ * </p>
+ */
+final class TimerWheel {
+  /**
+   * Узел таймера, встраиваемый в элемент кеша.
+   */
+  static class Timer {
+    long deadline;
+    Timer prevTimer;
+    Timer nextTimer;
+
+    boolean isScheduled() {
+      return nextTimer != null;
+    }
+  }
+
+  private static final int WHEEL_SIZE = 64;
+  private static final int MASK = WHEEL_SIZE - 1;
+
+  private final Timer[] buckets = new Timer[WHEEL_SIZE];
+  private final long tickNanos;
+  private long currentTick;
+
+  /**
+   * Создаёт колесо, один оборот которого покрывает примерно два указанных интервала.
+   *
+   * @param spanNanos Характерный срок жизни таймеров в наносекундах
+   *
+   * @param now Текущее время в наносекундах
+   */
+  TimerWheel(long spanNanos, long now) {
+    this.tickNanos = Math.max(1, spanNanos / (WHEEL_SIZE / 2));
+    this.currentTick = Math.floorDiv(now, tickNanos);
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      Timer sentinel = new Timer();
+      sentinel.prevTimer = sentinel;
+      sentinel.nextTimer = sentinel;
+      buckets[i] = sentinel;
+    }
+  }
+
+  /**
+   * Ставит (или переставляет) таймер на указанный срок.
+   *
+   * @param timer Таймер
+   *
+   * @param deadline Срок срабатывания в наносекундах
+   */
+  void schedule(Timer timer, long deadline) {
+    cancel(timer);
+    timer.deadline = deadline;
+    long tick = Math.max(Math.floorDiv(deadline, tickNanos), currentTick);
+    Timer sentinel = buckets[(int) (tick & MASK)];
+    timer.prevTimer = sentinel.prevTimer;
+    timer.nextTimer = sentinel;
+    sentinel.prevTimer.nextTimer = timer;
+    sentinel.prevTimer = timer;
+  }
+
+  /**
+   * Снимает таймер с колеса, если он был поставлен.
+   *
+   * @param timer Таймер
+   */
+  void cancel(Timer timer) {
+    if (!timer.isScheduled()) {
+      return;
+    }
+    timer.prevTimer.nextTimer = timer.nextTimer;
+    timer.nextTimer.prevTimer = timer.prevTimer;
+    timer.prevTimer = null;
+    timer.nextTimer = null;
+  }
+
+  /**
+   * Продвигает колесо до текущего момента, снимая и передавая обработчику все истёкшие таймеры.
+   *
+   * @param now Текущее время в наносекундах
+   *
+   * @param onExpired Обработчик истёкших таймеров
+   */
+  void advance(long now, Consumer<Timer> onExpired) {
+    long targetTick = Math.floorDiv(now, tickNanos);
+    if (targetTick < currentTick) {
+      return;
+    }
+    long steps = Math.min(targetTick - currentTick, WHEEL_SIZE - 1);
+    for (long tick = targetTick - steps; tick <= targetTick; tick++) {
+      expireBucket(buckets[(int) (tick & MASK)], now, onExpired);
+    }
+    currentTick = targetTick;
+  }
+
+  /**
+   * Снимает все таймеры с колеса.
+   */
+  void clear() {
+    for (Timer sentinel : buckets) {
+      Timer timer = sentinel.nextTimer;
+      while (timer != sentinel) {
+        Timer next = timer.nextTimer;
+        timer.prevTimer = null;
+        timer.nextTimer = null;
+        timer = next;
+      }
+      sentinel.prevTimer = sentinel;
+      sentinel.nextTimer = sentinel;
+    }
+  }
+
+  private void expireBucket(Timer sentinel, long now, Consumer<Timer> onExpired) {
+    Timer timer = sentinel.nextTimer;
+    while (timer != sentinel) {
+      Timer next = timer.nextTimer;
+      if (timer.deadline - now <= 0) {
+        cancel(timer);
+        onExpired.accept(timer);
+      }
+      timer = next;
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package io.github.autocomplete.cache;
+
+/**
+ * Функция оценки "веса" элемента кеша, используемая для ограничения кеша по суммарному весу
+ * (например, по приблизительному объёму занимаемой памяти в байтах).
+ *
+ * @param <K> тип ключа
+ *
+ * @param <V> тип значения
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+  /**
+   * Оценить вес элемента кеша.
+   *
+   * @param key Ключ элемента
+   *
+   * @param value Значение элемента
+   *
+   * @return Неотрицательный вес элемента
+   */
+  long weigh(K key, V value);
+}
@@ -0,0 +1,72 @@
+package io.github.autocomplete.cache;
+
+import io.github.autocomplete.model.Candidate;
+import io.github.autocomplete.util.Footprint;
+import java.util.List;
+
+/**
+ * Набор стандартных {@link Weigher} для кешей {@code AutocompleteProvider}. Оценивают
+ * приблизительный объём памяти в байтах, удерживаемый элементом кеша, по оценкам
+ * {@link Footprint}.
+ */
+public final class Weighers {
+  /**
+   * Candidate: заголовок, ссылка на слово, double вес.
+   */
+  private static final long CANDIDATE_SHALLOW =
+      Footprint.align(Footprint.OBJECT_HEADER + Footprint.REFERENCE + 8);
+
+  /**
+   * ArrayList: заголовок, modCount, size, ссылка на массив.
+   */
+  private static final long LIST_SHALLOW =
+      Footprint.align(Footprint.OBJECT_HEADER + 4 + 4 + Footprint.REFERENCE);
+
+  /**
+   * Накладные расходы самого кеша на элемент: узел списка LRUCache (ключ, значение, вес, две
+   * ссылки) и узел HashMap (hash, ключ, значение, следующий) со слотом таблицы.
+   */
+  static final long ENTRY_OVERHEAD =
+      Footprint.align(Footprint.OBJECT_HEADER + 4 * Footprint.REFERENCE + 8) + Footprint.HASH_ENTRY;
+
+  /**
+   * Приватный конструктор для предотвращения создания экземпляров класса.
+   */
+  private Weighers() {
+    // Утилитный класс не должен иметь публичный конструктор
+  }
+
+  /**
+   * Оценка памяти для кеша автодополнений (ключ - префикс, значение - список кандидатов).
+   *
+   * @return Функция оценки веса в байтах
+   */
+  public static Weigher<String, List<Candidate>> candidateList() {
+    return (key, value) -> {
+      long weight = ENTRY_OVERHEAD + Footprint.string(key) + listSize(value);
+      for (Candidate candidate : value) {
+        weight += CANDIDATE_SHALLOW + Footprint.string(candidate.word());
+      }
+      return weight;
+    };
+  }
+
+  /**
+   * Оценка памяти для кеша похожих префиксов (ключ - префикс, значение - список строк).
+   *
+   * @return Функция оценки веса в байтах
+   */
+  public static Weigher<String, List<String>> stringList() {
+    return (key, value) -> {
+      long weight = ENTRY_OVERHEAD + Footprint.string(key) + listSize(value);
+      for (String word : value) {
+        weight += Footprint.string(word);
+      }
+      return weight;
+    };
+  }
+
+  private static long listSize(List<?> list) {
+    return LIST_SHALLOW + Footprint.referenceArray(list.size());
+  }
+}
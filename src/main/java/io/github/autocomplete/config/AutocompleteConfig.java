@@ -1,6 +1,7 @@
 package io.github.autocomplete.config;
 
 import java.util.function.BiFunction;
+import io.github.autocomplete.distance.BoundedDistance;
 import io.github.autocomplete.distance.Levenshtein;
 
 /**
@@ -15,19 +16,33 @@ import io.github.autocomplete.distance.Levenshtein;
  * @param similarWeight Вес для похожих префиксов
  *
  * @param originalWeight Вес для оригинальных префиксов
+ *
+ * @param fuzzyAlgorithm Алгоритм поиска похожих префиксов
+ *
+ * @param boundedDistance Ограниченная функция расстояния, которой пользуется
+ *        {@link FuzzyAlgorithm#DISTANCE_FUNCTION}; null - получить её из distanceFunction
+ *        ({@link BoundedDistance#of(BiFunction)}). Если заданы обе функции, вызывающий код
+ *        отвечает за то, чтобы они давали одинаковые расстояния: конфигурация их не сверяет.
  */
 public record AutocompleteConfig(BiFunction<String, String, Integer> distanceFunction,
-    int toleranceThreshold, int tolerance, double similarWeight, double originalWeight) {
+    int toleranceThreshold, int tolerance, double similarWeight, double originalWeight,
+    FuzzyAlgorithm fuzzyAlgorithm, BoundedDistance boundedDistance) {
   /**
    * Стандартный конструктор.
    *
    * @throws IllegalArgumentException Если distanceFunction равен null ИЛИ toleranceThreshold меньше
-   *         0 ИЛИ tolerance меньше 0
+   *         0 ИЛИ tolerance меньше 0 ИЛИ fuzzyAlgorithm равен null
    */
   public AutocompleteConfig {
     if (distanceFunction == null) {
       throw new IllegalArgumentException("distanceFunction cannot be null");
     }
+    if (boundedDistance == null) {
+      boundedDistance = BoundedDistance.of(distanceFunction);
+    }
+    if (fuzzyAlgorithm == null) {
+      throw new IllegalArgumentException("fuzzyAlgorithm cannot be null");
+    }
     if (toleranceThreshold < 0) {
       throw new IllegalArgumentException("toleranceThreshold cannot be negative");
     }
@@ -36,10 +51,92 @@ public record AutocompleteConfig(BiFunction<String, String, Integer> distanceFun
     }
   }
 
+  /**
+   * Конструктор с произвольной функцией расстояния, которая вычисляется полностью для каждого
+   * слова.
+   *
+   * @param distanceFunction Функция расстояния между двумя строками
+   *
+   * @param toleranceThreshold Пороговое значение длины строки, для которой применяется
+   *        толерантность
+   *
+   * @param tolerance Максимальное расстояние между строками
+   *
+   * @param similarWeight Вес для похожих префиксов
+   *
+   * @param originalWeight Вес для оригинальных префиксов
+   *
+   * @param fuzzyAlgorithm Алгоритм поиска похожих префиксов
+   *
+   * @throws IllegalArgumentException Если distanceFunction равен null ИЛИ toleranceThreshold меньше
+   *         0 ИЛИ tolerance меньше 0 ИЛИ fuzzyAlgorithm равен null
+   */
+  public AutocompleteConfig(BiFunction<String, String, Integer> distanceFunction,
+      int toleranceThreshold, int tolerance, double similarWeight, double originalWeight,
+      FuzzyAlgorithm fuzzyAlgorithm) {
+    this(distanceFunction, toleranceThreshold, tolerance, similarWeight, originalWeight,
+        fuzzyAlgorithm, null);
+  }
+
+  /**
+   * Конструктор с поиском похожих префиксов полным перебором с указанной функцией расстояния
+   * ({@link FuzzyAlgorithm#DISTANCE_FUNCTION}).
+   *
+   * @param distanceFunction Функция расстояния между двумя строками
+   *
+   * @param toleranceThreshold Пороговое значение длины строки, для которой применяется
+   *        толерантность
+   *
+   * @param tolerance Максимальное расстояние между строками
+   *
+   * @param similarWeight Вес для похожих префиксов
+   *
+   * @param originalWeight Вес для оригинальных префиксов
+   *
+   * @throws IllegalArgumentException Если distanceFunction равен null ИЛИ toleranceThreshold меньше
+   *         0 ИЛИ tolerance меньше 0
+   */
+  public AutocompleteConfig(BiFunction<String, String, Integer> distanceFunction,
+      int toleranceThreshold, int tolerance, double similarWeight, double originalWeight) {
+    this(distanceFunction, toleranceThreshold, tolerance, similarWeight, originalWeight,
+        FuzzyAlgorithm.DISTANCE_FUNCTION);
+  }
+
   /**
    * Конструктор по умолчанию.
    */
   public AutocompleteConfig() {
-    this(Levenshtein::distance, 0, 0, 0.5, 1.0);
+    this(Levenshtein::distance, 0, 0, 0.5, 1.0, FuzzyAlgorithm.DISTANCE_FUNCTION,
+        BoundedDistance.levenshtein());
+  }
+
+  /**
+   * Конфигурация с ограниченной функцией расстояния и поиском похожих префиксов полным перебором
+   * ({@link FuzzyAlgorithm#DISTANCE_FUNCTION}).
+   *
+   * @param boundedDistance Ограниченная функция расстояния
+   *
+   * @param toleranceThreshold Пороговое значение длины строки, для которой применяется
+   *        толерантность
+   *
+   * @param tolerance Максимальное расстояние между строками
+   *
+   * @param similarWeight Вес для похожих префиксов
+   *
+   * @param originalWeight Вес для оригинальных префиксов
+   *
+   * @return Конфигурация автодополнения
+   *
+   * @throws IllegalArgumentException Если boundedDistance равен null ИЛИ toleranceThreshold меньше
+   *         0 ИЛИ tolerance меньше 0
+   */
+  public static AutocompleteConfig ofBoundedDistance(BoundedDistance boundedDistance,
+      int toleranceThreshold, int tolerance, double similarWeight, double originalWeight) {
+    if (boundedDistance == null) {
+      throw new IllegalArgumentException("boundedDistance cannot be null");
+    }
+    return new AutocompleteConfig((a, b) -> boundedDistance.distance(a, b, Integer.MAX_VALUE),
+        toleranceThreshold, tolerance, similarWeight, originalWeight,
+        FuzzyAlgorithm.DISTANCE_FUNCTION, boundedDistance);
   }
 }
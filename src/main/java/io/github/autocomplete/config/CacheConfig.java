@@ -0,0 +1,116 @@
+package io.github.autocomplete.config;
+
+import java.time.Duration;
+
+/**
+ * Конфигурация кешей автодополнения.
+ *
+ * @param maxEntries Максимальное количество элементов в каждом из кешей. 0 - кеширование
+ *        отключено.
+ *
+ * @param maxWeightBytes Бюджет памяти кешей в байтах (приблизительная оценка удерживаемой памяти).
+ *        Делится поровну между кешем автодополнений и кешем похожих префиксов. 0 - без ограничения
+ *        по памяти.
+ *
+ * @param expireAfterWrite Время жизни элемента кеша после записи. {@link Duration#ZERO} - без
+ *        ограничения.
+ *
+ * @param refreshAfterWrite Время после записи, по прошествии которого элемент при следующем чтении
+ *        пересчитывается в фоне (а до окончания пересчёта отдаётся старое значение).
+ *        {@link Duration#ZERO} - без фонового обновления.
+ */
+public record CacheConfig(int maxEntries, long maxWeightBytes, Duration expireAfterWrite,
+    Duration refreshAfterWrite) {
+  /**
+   * Размер кеша по умолчанию.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 100;
+
+  /**
+   * Стандартный конструктор.
+   *
+   * @throws IllegalArgumentException Если maxEntries меньше 0 ИЛИ maxWeightBytes меньше 0 ИЛИ
+   *         expireAfterWrite или refreshAfterWrite равны null или отрицательны
+   */
+  public CacheConfig {
+    if (maxEntries < 0) {
+      throw new IllegalArgumentException("maxEntries cannot be negative");
+    }
+    if (maxWeightBytes < 0) {
+      throw new IllegalArgumentException("maxWeightBytes cannot be negative");
+    }
+    if (expireAfterWrite == null || expireAfterWrite.isNegative()) {
+      throw new IllegalArgumentException("expireAfterWrite cannot be null or negative");
+    }
+    if (refreshAfterWrite == null || refreshAfterWrite.isNegative()) {
+      throw new IllegalArgumentException("refreshAfterWrite cannot be null or negative");
+    }
+  }
+
+  /**
+   * Конфигурация кеша без политик по времени.
+   *
+   * @param maxEntries Максимальное количество элементов в каждом из кешей
+   *
+   * @param maxWeightBytes Бюджет памяти кешей в байтах, 0 - без ограничения
+   *
+   * @throws IllegalArgumentException Если maxEntries меньше 0 ИЛИ maxWeightBytes меньше 0
+   */
+  public CacheConfig(int maxEntries, long maxWeightBytes) {
+    this(maxEntries, maxWeightBytes, Duration.ZERO, Duration.ZERO);
+  }
+
+  /**
+   * Конфигурация кеша, ограниченного только количеством элементов.
+   *
+   * @param maxEntries Максимальное количество элементов в каждом из кешей
+   *
+   * @throws IllegalArgumentException Если maxEntries меньше 0
+   */
+  public CacheConfig(int maxEntries) {
+    this(maxEntries, 0);
+  }
+
+  /**
+   * Конфигурация по умолчанию: {@link #DEFAULT_MAX_ENTRIES} элементов без ограничения по памяти.
+   */
+  public CacheConfig() {
+    this(DEFAULT_MAX_ENTRIES);
+  }
+
+  /**
+   * Конфигурация кеша, ограниченного только бюджетом памяти.
+   *
+   * @param maxWeightBytes Бюджет памяти кешей в байтах
+   *
+   * @return Конфигурация кеша
+   *
+   * @throws IllegalArgumentException Если maxWeightBytes меньше или равен 0
+   */
+  public static CacheConfig ofMaxWeightBytes(long maxWeightBytes) {
+    if (maxWeightBytes <= 0) {
+      throw new IllegalArgumentException("maxWeightBytes must be positive");
+    }
+    return new CacheConfig(Integer.MAX_VALUE, maxWeightBytes);
+  }
+
+  /**
+   * Включено ли кеширование.
+   *
+   * @return true, если кеш может хранить хотя бы один элемент
+   */
+  public boolean enabled() {
+    return maxEntries > 0;
+  }
+
+  /**
+   * Допускает ли конфигурация устаревшие значения. Если задано время жизни или фоновое
+   * обновление, то добавление текста не сбрасывает кеш: устаревание значений ограничивается
+   * политиками по времени.
+   *
+   * @return true, если задано expireAfterWrite или refreshAfterWrite
+   */
+  public boolean allowsStaleEntries() {
+    return !expireAfterWrite.isZero() || !refreshAfterWrite.isZero();
+  }
+}
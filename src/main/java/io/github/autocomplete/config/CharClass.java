@@ -0,0 +1,150 @@
+package io.github.autocomplete.config;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Скомпилированный класс символов: битовая таблица на все 65536 значений {@code char}.
+ *
+ * <p>Токенизаторы проверяют символы (UTF-16), поэтому таблицы на всю BMP, включая суррогаты,
+ * достаточно для любого фильтра, а проверка сводится к чтению одного бита без упаковки символа и
+ * вызова предиката. Таблица занимает 8 КБ и строится один раз: из предиката (он вызывается для
+ * каждого значения {@code char}), из категорий Unicode ({@link Character#getType(char)}) или из
+ * диапазонов.
+ * </p>
+ *
+ * <p>Экземпляр неизменяем и потокобезопасен. Для совместимости класс реализует
+ * {@link Predicate}.
+ * </p>
+ */
+public final class CharClass implements Predicate<Character> {
+  private static final int CHAR_COUNT = Character.MAX_VALUE + 1;
+
+  private final long[] bits;
+
+  private CharClass(long[] bits) {
+    this.bits = bits;
+  }
+
+  /**
+   * Строит класс из предиката.
+   *
+   * @param predicate Предикат, вызывается по одному разу для каждого значения {@code char}
+   *
+   * @return Класс символов, для которых предикат истинен
+   *
+   * @throws IllegalArgumentException Если predicate равен null
+   */
+  public static CharClass of(Predicate<Character> predicate) {
+    if (predicate == null) {
+      throw new IllegalArgumentException("predicate cannot be null");
+    }
+    if (predicate instanceof CharClass charClass) {
+      return charClass;
+    }
+
+    long[] bits = new long[CHAR_COUNT / Long.SIZE];
+    for (int c = 0; c < CHAR_COUNT; c++) {
+      if (predicate.test((char) c)) {
+        bits[c >>> 6] |= 1L << c;
+      }
+    }
+    return new CharClass(bits);
+  }
+
+  /**
+   * Строит класс из категорий Unicode.
+   *
+   * @param types Категории, например {@link Character#UPPERCASE_LETTER}
+   *
+   * @return Класс символов указанных категорий
+   *
+   * @throws IllegalArgumentException Если types равен null
+   */
+  public static CharClass ofCategories(int... types) {
+    if (types == null) {
+      throw new IllegalArgumentException("types cannot be null");
+    }
+
+    int mask = 0;
+    for (int type : types) {
+      mask |= 1 << type;
+    }
+    int categories = mask;
+    return of(c -> (categories & (1 << Character.getType(c))) != 0);
+  }
+
+  /**
+   * Строит класс из диапазонов символов.
+   *
+   * @param bounds Пары границ: from1, to1, from2, to2, ... (включительно)
+   *
+   * @return Класс символов, попадающих в один из диапазонов
+   *
+   * @throws IllegalArgumentException Если bounds равен null ИЛИ содержит нечётное количество
+   *         элементов ИЛИ в диапазоне from больше to
+   */
+  public static CharClass ofRanges(char... bounds) {
+    if (bounds == null || bounds.length % 2 != 0) {
+      throw new IllegalArgumentException("bounds must contain pairs of characters");
+    }
+
+    long[] bits = new long[CHAR_COUNT / Long.SIZE];
+    for (int i = 0; i < bounds.length; i += 2) {
+      if (bounds[i] > bounds[i + 1]) {
+        throw new IllegalArgumentException("range start cannot be greater than range end");
+      }
+      for (int c = bounds[i]; c <= bounds[i + 1]; c++) {
+        bits[c >>> 6] |= 1L << c;
+      }
+    }
+    return new CharClass(bits);
+  }
+
+  /**
+   * Проверяет принадлежность символа классу.
+   *
+   * @param c Символ
+   *
+   * @return true, если символ входит в класс
+   */
+  public boolean contains(char c) {
+    return (bits[c >>> 6] & (1L << c)) != 0;
+  }
+
+  /**
+   * Объединение с другим классом.
+   *
+   * @param other Другой класс
+   *
+   * @return Класс символов, входящих хотя бы в один из классов
+   *
+   * @throws IllegalArgumentException Если other равен null
+   */
+  public CharClass union(CharClass other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+
+    long[] result = bits.clone();
+    for (int i = 0; i < result.length; i++) {
+      result[i] |= other.bits[i];
+    }
+    return new CharClass(result);
+  }
+
+  @Override
+  public boolean test(Character c) {
+    return contains(c);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof CharClass charClass && Arrays.equals(bits, charClass.bits);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(bits);
+  }
+}
@@ -0,0 +1,233 @@
+package io.github.autocomplete.config;
+
+import java.text.Normalizer;
+
+/**
+ * Посимвольное приведение текста к канонической форме: нижний регистр, снятие диакритических
+ * знаков и замена «ё» на «е».
+ *
+ * <p>Одна и та же свёртка применяется токенизатором к словам при загрузке текста и
+ * {@code AutocompleteProvider} к префиксу запроса, поэтому оба пути дают одинаковые ключи.
+ * Символы до U+2000 (латиница, кириллица, греческий и их расширения) сворачиваются чтением из
+ * таблицы, построенной один раз для каждой комбинации настроек; для остальных символов
+ * используется {@link Character#toLowerCase(char)}. Регистр сворачивается посимвольно, без учёта
+ * локали, как и в токенизаторе.
+ * </p>
+ *
+ * <p>Снятие диакритики заменяет букву на первый символ её канонического разложения (NFD), если
+ * остальные символы разложения - комбинируемые знаки, а сами комбинируемые знаки U+0300-U+036F
+ * удаляются. Кириллица при этом не затрагивается, чтобы «й» не превращалась в «и»; «ё»
+ * сворачивается отдельной настройкой.
+ * </p>
+ *
+ * <p>Экземпляры неизменяемы, потокобезопасны и кешируются: {@link #of(boolean, boolean, boolean)}
+ * для одинаковых настроек возвращает один и тот же объект.
+ * </p>
+ */
+public final class Folding {
+  private static final int TABLE_SIZE = 0x2000;
+  // Значение таблицы для удаляемых символов; сам U+FFFF в таблицу не попадает
+  private static final char REMOVED = '\uFFFF';
+  private static final Folding[] INSTANCES = new Folding[8];
+
+  /**
+   * Свёртка, не изменяющая текст.
+   */
+  public static final Folding NONE = of(false, false, false);
+
+  /**
+   * Только приведение к нижнему регистру.
+   */
+  public static final Folding LOWER_CASE = of(true, false, false);
+
+  private final boolean lowerCase;
+  private final boolean stripDiacritics;
+  private final boolean foldYo;
+  private final char[] table;
+
+  private Folding(boolean lowerCase, boolean stripDiacritics, boolean foldYo) {
+    this.lowerCase = lowerCase;
+    this.stripDiacritics = stripDiacritics;
+    this.foldYo = foldYo;
+    this.table = new char[TABLE_SIZE];
+    for (int c = 0; c < TABLE_SIZE; c++) {
+      table[c] = foldUncached((char) c);
+    }
+  }
+
+  /**
+   * Возвращает свёртку с указанными настройками.
+   *
+   * @param lowerCase Приводить ли символы к нижнему регистру
+   *
+   * @param stripDiacritics Снимать ли диакритические знаки (кроме кириллицы)
+   *
+   * @param foldYo Заменять ли «ё» на «е» (и «Ё» на «Е» без приведения регистра)
+   *
+   * @return Свёртка
+   */
+  public static Folding of(boolean lowerCase, boolean stripDiacritics, boolean foldYo) {
+    int index = (lowerCase ? 1 : 0) | (stripDiacritics ? 2 : 0) | (foldYo ? 4 : 0);
+    synchronized (INSTANCES) {
+      if (INSTANCES[index] == null) {
+        INSTANCES[index] = new Folding(lowerCase, stripDiacritics, foldYo);
+      }
+      return INSTANCES[index];
+    }
+  }
+
+  /**
+   * Приводятся ли символы к нижнему регистру.
+   *
+   * @return true, если регистр сворачивается
+   */
+  public boolean lowerCase() {
+    return lowerCase;
+  }
+
+  /**
+   * Снимаются ли диакритические знаки.
+   *
+   * @return true, если диакритика снимается
+   */
+  public boolean stripDiacritics() {
+    return stripDiacritics;
+  }
+
+  /**
+   * Заменяется ли «ё» на «е».
+   *
+   * @return true, если «ё» сворачивается
+   */
+  public boolean foldYo() {
+    return foldYo;
+  }
+
+  /**
+   * Оставляет ли свёртка любой текст без изменений.
+   *
+   * @return true для {@link #NONE}
+   */
+  public boolean isIdentity() {
+    return this == NONE;
+  }
+
+  /**
+   * Сворачивает один символ.
+   *
+   * @param c Символ
+   *
+   * @return Свёрнутый символ или -1, если символ удаляется (комбинируемый знак)
+   */
+  public int fold(char c) {
+    if (c < TABLE_SIZE) {
+      char folded = table[c];
+      return folded == REMOVED ? -1 : folded;
+    }
+    return lowerCase ? Character.toLowerCase(c) : c;
+  }
+
+  /**
+   * Сворачивает строку.
+   *
+   * @param text Строка
+   *
+   * @return Свёрнутая строка; сама text, если свёртка её не меняет
+   *
+   * @throws IllegalArgumentException Если text равен null
+   */
+  public String fold(String text) {
+    if (text == null) {
+      throw new IllegalArgumentException("text cannot be null");
+    }
+
+    int n = text.length();
+    char[] table = this.table;
+    for (int i = 0; i < n; i++) {
+      char c = text.charAt(i);
+      if (c < TABLE_SIZE ? table[c] != c : fold(c) != c) {
+        char[] buffer = new char[n];
+        text.getChars(0, n, buffer, 0);
+        return new String(buffer, 0, i + foldTail(buffer, i, n));
+      }
+    }
+    return text;
+  }
+
+  /**
+   * Сворачивает отрезок массива на месте. Удалённые символы сдвигают остаток отрезка влево.
+   *
+   * @param buffer Массив символов
+   *
+   * @param offset Индекс первого символа
+   *
+   * @param length Количество символов
+   *
+   * @return Длина свёрнутого отрезка (не больше length)
+   *
+   * @throws IllegalArgumentException Если buffer равен null ИЛИ отрезок выходит за границы массива
+   */
+  public int fold(char[] buffer, int offset, int length) {
+    if (buffer == null) {
+      throw new IllegalArgumentException("buffer cannot be null");
+    }
+    if (offset < 0 || length < 0 || offset > buffer.length - length) {
+      throw new IllegalArgumentException("offset and length are out of buffer bounds");
+    }
+    return foldTail(buffer, offset, offset + length);
+  }
+
+  @Override
+  public String toString() {
+    return "Folding[lowerCase=" + lowerCase + ", stripDiacritics=" + stripDiacritics + ", foldYo="
+        + foldYo + "]";
+  }
+
+  private int foldTail(char[] buffer, int from, int to) {
+    char[] table = this.table;
+    int out = from;
+    for (int i = from; i < to; i++) {
+      char c = buffer[i];
+      if (c >= TABLE_SIZE) {
+        buffer[out++] = lowerCase ? Character.toLowerCase(c) : c;
+      } else if (table[c] != REMOVED) {
+        buffer[out++] = table[c];
+      }
+    }
+    return out - from;
+  }
+
+  private char foldUncached(char c) {
+    char result = c;
+    if (stripDiacritics && !isCyrillic(c)) {
+      if (c >= '\u0300' && c <= '\u036F') {
+        return REMOVED;
+      }
+      result = baseLetter(c);
+    }
+    if (foldYo) {
+      result = result == 'ё' ? 'е' : result == 'Ё' ? 'Е' : result;
+    }
+    return lowerCase ? Character.toLowerCase(result) : result;
+  }
+
+  private static boolean isCyrillic(char c) {
+    return Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CYRILLIC;
+  }
+
+  /**
+   * Первый символ канонического разложения, если остальные - комбинируемые знаки.
+   */
+  private static char baseLetter(char c) {
+    String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+    if (decomposed.length() < 2) {
+      return c;
+    }
+    for (int i = 1; i < decomposed.length(); i++) {
+      if (Character.getType(decomposed.charAt(i)) != Character.NON_SPACING_MARK) {
+        return c;
+      }
+    }
+    return decomposed.charAt(0);
+  }
+}
@@ -0,0 +1,53 @@
+package io.github.autocomplete.config;
+
+/**
+ * Алгоритм поиска похожих префиксов при ненулевой толерантности к опечаткам.
+ */
+public enum FuzzyAlgorithm {
+  /**
+   * Полный обход дерева с вычислением {@link AutocompleteConfig#boundedDistance()} для каждого
+   * слова. Работает с любой функцией расстояния, но просматривает весь словарь.
+   */
+  DISTANCE_FUNCTION,
+
+  /**
+   * Обход дерева с передачей строки матрицы расстояния Левенштейна от родителя к потомку: каждая
+   * вершина вычисляет одну строку, поддеревья с минимумом строки больше толерантности
+   * отбрасываются. Вариант для встроенного расстояния Левенштейна, не требующий построения
+   * автомата; {@link AutocompleteConfig#distanceFunction()} игнорируется.
+   */
+  LEVENSHTEIN_DP_ROWS,
+
+  /**
+   * Обход дерева, совмещённый с автоматом Левенштейна для целевого префикса: ветви, в которых
+   * автомат переходит в мёртвое состояние, отбрасываются. Всегда использует расстояние
+   * Левенштейна, {@link AutocompleteConfig#distanceFunction()} игнорируется.
+   */
+  LEVENSHTEIN_AUTOMATON,
+
+  /**
+   * Поиск по индексу удалений (SymSpell), который строится рядом с деревом и пополняется при
+   * добавлении слов: похожие слова находятся несколькими обращениями к хеш-таблице без обхода
+   * дерева. Требует дополнительной памяти, разумен для толерантности 1-2. Всегда использует
+   * расстояние Левенштейна, {@link AutocompleteConfig#distanceFunction()} игнорируется.
+   */
+  DELETION_INDEX,
+
+  /**
+   * Поиск по инвертированному индексу триграмм: кандидаты отбираются по количеству общих
+   * триграмм с запросом, и только для них проверяется точное расстояние. Масштабируется
+   * сублинейно по размеру словаря и, в отличие от индекса удалений, подходит для длинных слов и
+   * большой толерантности. Всегда использует расстояние Левенштейна,
+   * {@link AutocompleteConfig#distanceFunction()} игнорируется.
+   */
+  NGRAM_INDEX,
+
+  /**
+   * Нечёткий поиск по префиксу: с запросом сравниваются начала путей дерева, а не целые слова, и
+   * спуск прекращается на первой подходящей глубине. Найденные узлы становятся корнями
+   * автодополнений, так что "helo" дополняется всеми словами, начинающимися с "hello", а не только
+   * словами, близкими к "helo" целиком. Всегда использует расстояние Левенштейна,
+   * {@link AutocompleteConfig#distanceFunction()} игнорируется.
+   */
+  FUZZY_PREFIX
+}
@@ -0,0 +1,295 @@
+package io.github.autocomplete.config;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Неизменяемое множество стоп-слов с минимальным идеальным хешированием.
+ *
+ * <p>Таблица строится методом «hash and displace»: слова распределяются по корзинам первой
+ * половиной хеша, и для каждой корзины, начиная с самых больших, подбирается смещение, при котором
+ * все её слова попадают в свободные ячейки. Корзины из одного слова занимают оставшиеся ячейки
+ * напрямую. Таблица и массив смещений содержат ровно по одному элементу на слово, поэтому память
+ * и время построения растут линейно. Проверка токена - одно вычисление хеша по символам буфера,
+ * чтение смещения и одно сравнение, без создания строки.
+ * </p>
+ *
+ * <p>Экземпляр потокобезопасен.</p>
+ */
+public final class StopWords {
+  // Смещение, после которого корзина считается неразместимой и подбирается новое зерно
+  private static final int MAX_DISPLACEMENT = 1 << 20;
+
+  private final String[] table;
+  private final int[] displacements;
+  private final long seed;
+  private final int size;
+
+  private StopWords(String[] table, int[] displacements, long seed, int size) {
+    this.table = table;
+    this.displacements = displacements;
+    this.seed = seed;
+    this.size = size;
+  }
+
+  /**
+   * Строит множество стоп-слов.
+   *
+   * @param words Стоп-слова (сравниваются с токеном после всех преобразований токенизатора,
+   *        поэтому обычно задаются в нижнем регистре)
+   *
+   * @return Множество стоп-слов
+   *
+   * @throws IllegalArgumentException Если words равен null ИЛИ содержит null или пустую строку
+   */
+  public static StopWords of(Collection<String> words) {
+    if (words == null) {
+      throw new IllegalArgumentException("words cannot be null");
+    }
+
+    Set<String> distinct = new LinkedHashSet<>();
+    for (String word : words) {
+      if (word == null || word.isEmpty()) {
+        throw new IllegalArgumentException("stop word cannot be null or empty");
+      }
+      distinct.add(word);
+    }
+
+    String[] array = distinct.toArray(new String[0]);
+    for (long seed = 1; ; seed++) {
+      StopWords stopWords = build(array, seed);
+      if (stopWords != null) {
+        return stopWords;
+      }
+    }
+  }
+
+  /**
+   * Строит множество стоп-слов.
+   *
+   * @param words Стоп-слова
+   *
+   * @return Множество стоп-слов
+   *
+   * @throws IllegalArgumentException Если words равен null ИЛИ содержит null или пустую строку
+   */
+  public static StopWords of(String... words) {
+    if (words == null) {
+      throw new IllegalArgumentException("words cannot be null");
+    }
+    return of(Arrays.asList(words));
+  }
+
+  /**
+   * Проверяет, является ли отрезок буфера стоп-словом.
+   *
+   * @param buffer Буфер с символами токена
+   *
+   * @param offset Индекс первого символа
+   *
+   * @param length Длина токена
+   *
+   * @return true, если токен - стоп-слово
+   */
+  public boolean contains(char[] buffer, int offset, int length) {
+    long h = seed;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      h = mix(h, buffer[i]);
+    }
+    String candidate = table[slot(finish(h))];
+    if (candidate == null || candidate.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (candidate.charAt(i) != buffer[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Проверяет, является ли строка стоп-словом.
+   *
+   * @param word Строка
+   *
+   * @return true, если строка - стоп-слово
+   *
+   * @throws IllegalArgumentException Если word равен null
+   */
+  public boolean contains(CharSequence word) {
+    if (word == null) {
+      throw new IllegalArgumentException("word cannot be null");
+    }
+    String candidate = table[slot(hash(seed, word))];
+    return candidate != null && candidate.contentEquals(word);
+  }
+
+  /**
+   * Количество стоп-слов.
+   *
+   * @return Количество слов
+   */
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (!(other instanceof StopWords stopWords) || stopWords.size != size) {
+      return false;
+    }
+    for (String word : table) {
+      if (word != null && !stopWords.contains(word)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 0;
+    for (String word : table) {
+      if (word != null) {
+        result += word.hashCode();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Строит таблицу для указанного зерна.
+   *
+   * @return Множество или null, если какую-то корзину не удалось разместить
+   */
+  private static StopWords build(String[] words, long seed) {
+    int n = words.length;
+    int capacity = Math.max(1, n);
+    long[] hashes = new long[n];
+    int[] bucketSizes = new int[capacity];
+    for (int i = 0; i < n; i++) {
+      hashes[i] = hash(seed, words[i]);
+      bucketSizes[bucket(hashes[i], capacity)]++;
+    }
+
+    // Слова, сгруппированные по корзинам (сортировка подсчётом)
+    int[] bucketStarts = new int[capacity + 1];
+    for (int b = 0; b < capacity; b++) {
+      bucketStarts[b + 1] = bucketStarts[b] + bucketSizes[b];
+    }
+    int[] grouped = new int[n];
+    int[] filled = new int[capacity];
+    for (int i = 0; i < n; i++) {
+      int b = bucket(hashes[i], capacity);
+      grouped[bucketStarts[b] + filled[b]++] = i;
+    }
+
+    // Корзины по убыванию размера, тоже подсчётом
+    int maxSize = 0;
+    for (int size : bucketSizes) {
+      maxSize = Math.max(maxSize, size);
+    }
+    int[] sizeStarts = new int[maxSize + 2];
+    for (int size : bucketSizes) {
+      sizeStarts[maxSize - size + 1]++;
+    }
+    for (int i = 1; i < sizeStarts.length; i++) {
+      sizeStarts[i] += sizeStarts[i - 1];
+    }
+    int[] order = new int[capacity];
+    for (int b = 0; b < capacity; b++) {
+      order[sizeStarts[maxSize - bucketSizes[b]]++] = b;
+    }
+
+    String[] table = new String[capacity];
+    int[] displacements = new int[capacity];
+    int[] slots = new int[maxSize];
+    int next = 0;
+    for (int b : order) {
+      int size = bucketSizes[b];
+      if (size == 0) {
+        break;
+      }
+      int start = bucketStarts[b];
+      if (size == 1) {
+        while (table[next] != null) {
+          next++;
+        }
+        table[next] = words[grouped[start]];
+        displacements[b] = -next - 1;
+        continue;
+      }
+
+      int displacement = 0;
+      while (!place(hashes, grouped, start, size, displacement, table, slots)) {
+        if (++displacement == MAX_DISPLACEMENT) {
+          return null;
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        table[slots[i]] = words[grouped[start + i]];
+      }
+      displacements[b] = displacement;
+    }
+    return new StopWords(table, displacements, seed, n);
+  }
+
+  /**
+   * Проверяет, что при смещении все слова корзины попадают в разные свободные ячейки.
+   */
+  private static boolean place(long[] hashes, int[] grouped, int start, int size,
+      int displacement, String[] table, int[] slots) {
+    for (int i = 0; i < size; i++) {
+      int slot = displace(hashes[grouped[start + i]], displacement, table.length);
+      if (table[slot] != null) {
+        return false;
+      }
+      for (int j = 0; j < i; j++) {
+        if (slots[j] == slot) {
+          return false;
+        }
+      }
+      slots[i] = slot;
+    }
+    return true;
+  }
+
+  private int slot(long hash) {
+    int displacement = displacements[bucket(hash, table.length)];
+    return displacement < 0 ? -displacement - 1 : displace(hash, displacement, table.length);
+  }
+
+  private static int bucket(long hash, int capacity) {
+    return reduce((int) (hash >>> 32), capacity);
+  }
+
+  private static int displace(long hash, int displacement, int capacity) {
+    int h = (int) hash + displacement * 0x9E3779B9;
+    h = (h ^ (h >>> 16)) * 0x85EBCA6B;
+    h = (h ^ (h >>> 13)) * 0xC2B2AE35;
+    return reduce(h ^ (h >>> 16), capacity);
+  }
+
+  private static int reduce(int h, int capacity) {
+    return (int) (((h & 0xFFFFFFFFL) * capacity) >>> 32);
+  }
+
+  private static long hash(long seed, CharSequence word) {
+    long h = seed;
+    for (int i = 0; i < word.length(); i++) {
+      h = mix(h, word.charAt(i));
+    }
+    return finish(h);
+  }
+
+  private static long mix(long h, char c) {
+    return (h ^ c) * 0x9E3779B97F4A7C15L;
+  }
+
+  private static long finish(long h) {
+    return h ^ (h >>> 29);
+  }
+}
@@ -0,0 +1,88 @@
+package io.github.autocomplete.config;
+
+import java.text.Normalizer;
+
+/**
+ * Цепочка фильтров токенов, которую токенизатор применяет к готовому токену в том же проходе,
+ * в котором собирает его из символов.
+ *
+ * <p>Стадии выполняются в порядке: ограничение длины (по числу символов после фильтра символов и
+ * приведения регистра), нормализация Unicode, проверка стоп-слов (по нормализованному токену).
+ * Отброшенный токен не превращается в строку, а нормализация вызывается только для токенов с
+ * символами, которые она может изменить.
+ * </p>
+ *
+ * @param minLength Минимальная длина токена
+ *
+ * @param maxLength Максимальная длина токена
+ *
+ * @param stopWords Стоп-слова или null
+ *
+ * @param normalization Форма нормализации Unicode или null
+ */
+public record TokenFilter(int minLength, int maxLength, StopWords stopWords,
+    Normalizer.Form normalization) {
+  /**
+   * Пустая цепочка: токены проходят без изменений.
+   */
+  public static final TokenFilter NONE = new TokenFilter(1, Integer.MAX_VALUE, null, null);
+
+  /**
+   * Создаёт цепочку фильтров.
+   *
+   * @throws IllegalArgumentException Если minLength меньше 1 ИЛИ maxLength меньше minLength
+   */
+  public TokenFilter {
+    if (minLength < 1) {
+      throw new IllegalArgumentException("minLength cannot be less than 1");
+    }
+    if (maxLength < minLength) {
+      throw new IllegalArgumentException("maxLength cannot be less than minLength");
+    }
+  }
+
+  /**
+   * Цепочка только с ограничением длины.
+   *
+   * @param minLength Минимальная длина токена
+   *
+   * @param maxLength Максимальная длина токена
+   *
+   * @return Цепочка фильтров
+   */
+  public static TokenFilter ofLength(int minLength, int maxLength) {
+    return new TokenFilter(minLength, maxLength, null, null);
+  }
+
+  /**
+   * Копия цепочки с указанными стоп-словами.
+   *
+   * @param stopWords Стоп-слова или null
+   *
+   * @return Новая цепочка
+   */
+  public TokenFilter withStopWords(StopWords stopWords) {
+    return new TokenFilter(minLength, maxLength, stopWords, normalization);
+  }
+
+  /**
+   * Копия цепочки с указанной нормализацией.
+   *
+   * @param normalization Форма нормализации или null
+   *
+   * @return Новая цепочка
+   */
+  public TokenFilter withNormalization(Normalizer.Form normalization) {
+    return new TokenFilter(minLength, maxLength, stopWords, normalization);
+  }
+
+  /**
+   * Пропускает ли цепочка все токены без изменений.
+   *
+   * @return true для пустой цепочки
+   */
+  public boolean isEmpty() {
+    return minLength == 1 && maxLength == Integer.MAX_VALUE && stopWords == null
+        && normalization == null;
+  }
+}
@@ -12,9 +12,127 @@ import java.util.function.Predicate;
  *        По умолчанию - только буквенные символы.
  *
  * @param toLowerCase Приводить ли все слова к нижнему регистру. По умолчанию - true.
+ *
+ * @param charClass Скомпилированная таблица charFilter, по которой токенизаторы проверяют
+ *        символы. Если равна null, строится из charFilter при создании конфигурации.
+ *
+ * @param tokenFilter Цепочка фильтров готовых токенов (длина, нормализация, стоп-слова). Если
+ *        равна null, используется {@link TokenFilter#NONE}.
+ *
+ * @param folding Свёртка символов токенов (регистр, диакритика, «ё»). Если равна null, выбирается
+ *        по toLowerCase: {@link Folding#LOWER_CASE} или {@link Folding#NONE}.
  */
 public record TokenizerConfig(String splitRegex, Predicate<Character> charFilter,
-    boolean toLowerCase) {
+    boolean toLowerCase, CharClass charClass, TokenFilter tokenFilter, Folding folding) {
+  /**
+   * Regex разделения по умолчанию - последовательности пробельных символов.
+   */
+  public static final String WHITESPACE_SPLIT = "\\s+";
+
+  /**
+   * Фильтр символов по умолчанию - только буквы.
+   */
+  public static final CharClass LETTERS = CharClass.of(Character::isLetter);
+
+  /**
+   * Создаёт конфигурацию; если charClass равен null, таблица строится из charFilter.
+   *
+   * @throws IllegalArgumentException Если folding не совпадает с toLowerCase по приведению
+   *         регистра
+   */
+  public TokenizerConfig {
+    if (charClass == null && charFilter != null) {
+      charClass = CharClass.of(charFilter);
+    }
+    if (tokenFilter == null) {
+      tokenFilter = TokenFilter.NONE;
+    }
+    if (folding == null) {
+      folding = toLowerCase ? Folding.LOWER_CASE : Folding.NONE;
+    } else if (folding.lowerCase() != toLowerCase) {
+      throw new IllegalArgumentException("folding must match toLowerCase");
+    }
+  }
+
+  /**
+   * Конфигурация токенизатора со свёрткой, определяемой toLowerCase.
+   *
+   * @param splitRegex Regex разделения текста на токены
+   *
+   * @param charFilter Фильтр символов
+   *
+   * @param toLowerCase Приводить ли токены к нижнему регистру
+   *
+   * @param charClass Таблица символов или null
+   *
+   * @param tokenFilter Цепочка фильтров токенов или null
+   */
+  public TokenizerConfig(String splitRegex, Predicate<Character> charFilter, boolean toLowerCase,
+      CharClass charClass, TokenFilter tokenFilter) {
+    this(splitRegex, charFilter, toLowerCase, charClass, tokenFilter, null);
+  }
+
+  /**
+   * Конфигурация токенизатора со скомпилированной таблицей символов и без фильтров токенов.
+   *
+   * @param splitRegex Regex разделения текста на токены
+   *
+   * @param charFilter Фильтр символов
+   *
+   * @param toLowerCase Приводить ли токены к нижнему регистру
+   *
+   * @param charClass Таблица символов или null
+   */
+  public TokenizerConfig(String splitRegex, Predicate<Character> charFilter, boolean toLowerCase,
+      CharClass charClass) {
+    this(splitRegex, charFilter, toLowerCase, charClass, null, null);
+  }
+
+  /**
+   * Конфигурация токенизатора с фильтром символов в виде предиката. Предикат один раз
+   * материализуется в таблицу {@link CharClass}; если он уже является {@link CharClass}, таблица
+   * используется как есть.
+   *
+   * @param splitRegex Regex разделения текста на токены
+   *
+   * @param charFilter Фильтр символов
+   *
+   * @param toLowerCase Приводить ли токены к нижнему регистру
+   */
+  public TokenizerConfig(String splitRegex, Predicate<Character> charFilter,
+      boolean toLowerCase) {
+    this(splitRegex, charFilter, toLowerCase, null, null, null);
+  }
+
+  /**
+   * Копия конфигурации с указанной цепочкой фильтров токенов.
+   *
+   * @param tokenFilter Цепочка фильтров или null
+   *
+   * @return Новая конфигурация
+   */
+  public TokenizerConfig withTokenFilter(TokenFilter tokenFilter) {
+    return new TokenizerConfig(splitRegex, charFilter, toLowerCase, charClass, tokenFilter,
+        folding);
+  }
+
+  /**
+   * Копия конфигурации с указанной свёрткой; toLowerCase берётся из свёртки.
+   *
+   * @param folding Свёртка символов
+   *
+   * @return Новая конфигурация
+   *
+   * @throws IllegalArgumentException Если folding равен null
+   */
+  public TokenizerConfig withFolding(Folding folding) {
+    if (folding == null) {
+      throw new IllegalArgumentException("folding cannot be null");
+    }
+    return new TokenizerConfig(splitRegex, charFilter, folding.lowerCase(), charClass,
+        tokenFilter, folding);
+  }
+
   /**
    * Конфигурация токенизатора со стандартными настройками.
    *
@@ -23,6 +141,6 @@ public record TokenizerConfig(String splitRegex, Predicate<Character> charFilter
    * </p>
    */
   public TokenizerConfig() {
-    this("\\s+", Character::isLetter, true);
+    this(WHITESPACE_SPLIT, LETTERS, true);
   }
 }
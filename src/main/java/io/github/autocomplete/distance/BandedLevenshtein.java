@@ -0,0 +1,94 @@
+package io.github.autocomplete.distance;
+
+import java.util.Arrays;
+
+/**
+ * Ограниченное расстояние Левенштейна (алгоритм Укконена).
+ *
+ * <p>Если расстояние не больше k, то путь выравнивания не отходит от главной диагонали матрицы
+ * дальше, чем на k, поэтому вычисляется только полоса из 2k+1 диагоналей. Строки с разницей длин
+ * больше k отбрасываются сразу, а вычисление прекращается, как только минимум очередной строки
+ * матрицы превышает k. Память - O(k) вместо O(длины строки).
+ * </p>
+ */
+public final class BandedLevenshtein {
+  /**
+   * Приватный конструктор для предотвращения создания экземпляров класса.
+   */
+  private BandedLevenshtein() {
+    // Утилитный класс не должен иметь публичный конструктор
+  }
+
+  /**
+   * Вычисляет расстояние Левенштейна между строками, если оно не больше max.
+   *
+   * @param a Первая строка
+   *
+   * @param b Вторая строка
+   *
+   * @param max Максимальное интересующее расстояние
+   *
+   * @return Расстояние Левенштейна, если оно не больше max, иначе max + 1
+   *
+   * @throws IllegalArgumentException Если a или b равны null ИЛИ max меньше 0
+   */
+  public static int distance(CharSequence a, CharSequence b, int max) {
+    if (a == null || b == null) {
+      throw new IllegalArgumentException("strings cannot be null");
+    }
+    if (max < 0) {
+      throw new IllegalArgumentException("max cannot be negative");
+    }
+
+    int m = a.length();
+    int n = b.length();
+    // Расстояние не превосходит длины большей строки, шире полоса не нужна
+    int k = Math.min(max, Math.max(m, n));
+    int over = k + 1;
+    if (Math.abs(m - n) > k) {
+      return max + 1;
+    }
+    if (m == 0 || n == 0) {
+      return Math.max(m, n);
+    }
+
+    // Ячейка (i, j) хранится по индексу j - i + k + 1; крайние элементы - ограничители
+    int width = 2 * k + 3;
+    int[] prev = new int[width];
+    int[] curr = new int[width];
+    Arrays.fill(prev, over);
+    for (int j = 0; j <= Math.min(n, k); j++) {
+      prev[j + k + 1] = j;
+    }
+
+    for (int i = 1; i <= m; i++) {
+      Arrays.fill(curr, over);
+      int from = Math.max(0, i - k);
+      int to = Math.min(n, i + k);
+      int rowMin = over;
+      char c = a.charAt(i - 1);
+      for (int j = from; j <= to; j++) {
+        int d = j - i + k + 1;
+        int value;
+        if (j == 0) {
+          value = i;
+        } else {
+          int cost = b.charAt(j - 1) == c ? 0 : 1;
+          value = Math.min(Math.min(prev[d] + cost, prev[d + 1] + 1), curr[d - 1] + 1);
+        }
+        value = Math.min(value, over);
+        curr[d] = value;
+        rowMin = Math.min(rowMin, value);
+      }
+      if (rowMin > k) {
+        return max + 1;
+      }
+      int[] tmp = prev;
+      prev = curr;
+      curr = tmp;
+    }
+
+    int result = prev[n - m + k + 1];
+    return result > k ? max + 1 : result;
+  }
+}
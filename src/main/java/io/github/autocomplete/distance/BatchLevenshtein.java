@@ -0,0 +1,56 @@
+package io.github.autocomplete.distance;
+
+import java.util.List;
+
+/**
+ * Пакетное вычисление ограниченного расстояния Левенштейна от одного запроса до множества строк.
+ *
+ * <p>Если в JVM доступен модуль {@code jdk.incubator.vector} (запуск с
+ * {@code --add-modules jdk.incubator.vector}) и запрос не длиннее 64 символов, то строки
+ * обрабатываются векторно ({@link VectorBatchLevenshtein}): каждая полоса SIMD-регистра ведёт
+ * бит-параллельный алгоритм Майерса для своей строки. Иначе используется скалярный алгоритм
+ * Майерса с однократно вычисленными масками запроса.
+ * </p>
+ */
+final class BatchLevenshtein {
+  static final boolean VECTOR_AVAILABLE = isVectorModulePresent();
+
+  /**
+   * Приватный конструктор для предотвращения создания экземпляров класса.
+   */
+  private BatchLevenshtein() {
+    // Утилитный класс не должен иметь публичный конструктор
+  }
+
+  static int[] distances(CharSequence query, List<? extends CharSequence> candidates, int max) {
+    if (VECTOR_AVAILABLE && query.length() > 0 && query.length() <= Long.SIZE
+        && candidates.size() > 1) {
+      return VectorBatchLevenshtein.distances(query, candidates, max);
+    }
+    return scalarDistances(query, candidates, max);
+  }
+
+  static int[] scalarDistances(CharSequence query, List<? extends CharSequence> candidates,
+      int max) {
+    MyersLevenshtein.Pattern pattern = MyersLevenshtein.compile(query);
+    int[] result = new int[candidates.size()];
+    for (int i = 0; i < result.length; i++) {
+      CharSequence candidate = candidates.get(i);
+      if (Math.abs(candidate.length() - query.length()) > max) {
+        result[i] = max + 1;
+        continue;
+      }
+      int distance = pattern.distance(candidate);
+      result[i] = distance > max ? max + 1 : distance;
+    }
+    return result;
+  }
+
+  private static boolean isVectorModulePresent() {
+    try {
+      return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package io.github.autocomplete.distance;
+
+import java.util.function.BiFunction;
+
+/**
+ * Функция расстояния с ограничением сверху.
+ *
+ * <p>При поиске похожих префиксов важно лишь, не превышает ли расстояние допустимое значение,
+ * поэтому реализация может прекратить вычисление, как только ограничение превышено, и вернуть
+ * любое значение больше {@code max}. Результат - примитивный {@code int}, без упаковки.
+ * </p>
+ */
+@FunctionalInterface
+public interface BoundedDistance {
+  /**
+   * Вычисляет расстояние между строками, если оно не превышает max.
+   *
+   * @param a Первая строка
+   *
+   * @param b Вторая строка
+   *
+   * @param max Максимальное интересующее расстояние (не меньше 0)
+   *
+   * @return Точное расстояние, если оно не больше max, иначе любое значение больше max
+   */
+  int distance(CharSequence a, CharSequence b, int max);
+
+  /**
+   * Ограниченное расстояние Левенштейна ({@link BandedLevenshtein}).
+   *
+   * @return Функция расстояния
+   */
+  static BoundedDistance levenshtein() {
+    return BandedLevenshtein::distance;
+  }
+
+  /**
+   * Адаптер для произвольной функции расстояния: расстояние вычисляется полностью, без раннего
+   * выхода.
+   *
+   * @param distanceFunction Функция расстояния между двумя строками
+   *
+   * @return Функция расстояния
+   *
+   * @throws IllegalArgumentException Если distanceFunction равен null
+   */
+  static BoundedDistance of(BiFunction<String, String, Integer> distanceFunction) {
+    if (distanceFunction == null) {
+      throw new IllegalArgumentException("distanceFunction cannot be null");
+    }
+    return (a, b, max) -> distanceFunction.apply(a.toString(), b.toString());
+  }
+}
@@ -1,5 +1,7 @@
 package io.github.autocomplete.distance;
 
+import java.util.List;
+
 /**
  * Класс для вычисления расстояния Левенштейна между двумя строками.
  */
@@ -46,4 +48,32 @@ public class Levenshtein {
     }
     return prev[n];
   }
+
+  /**
+   * Вычисляет ограниченные расстояния Левенштейна от запроса до каждой из строк. Строки с
+   * разницей длин больше max отбрасываются без вычислений. При наличии модуля
+   * {@code jdk.incubator.vector} строки обрабатываются пакетами на SIMD-полосах, иначе - скалярным
+   * бит-параллельным алгоритмом ({@link MyersLevenshtein}).
+   *
+   * @param query Запрос
+   *
+   * @param candidates Строки для сравнения
+   *
+   * @param max Максимальное интересующее расстояние
+   *
+   * @return Расстояния в порядке строк; для расстояний больше max - значение max + 1
+   *
+   * @throws IllegalArgumentException Если query или candidates равны null ИЛИ max меньше 0
+   */
+  public static int[] batchDistance(CharSequence query, List<? extends CharSequence> candidates,
+      int max) {
+    if (query == null || candidates == null) {
+      throw new IllegalArgumentException("query and candidates cannot be null");
+    }
+    if (max < 0) {
+      throw new IllegalArgumentException("max cannot be negative");
+    }
+
+    return BatchLevenshtein.distances(query, candidates, max);
+  }
 }
@@ -0,0 +1,168 @@
+package io.github.autocomplete.distance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Детерминированный автомат Левенштейна: распознаёт строки, находящиеся на расстоянии
+ * Левенштейна не больше заданного от целевой строки.
+ *
+ * <p>Состояние автомата - строка матрицы динамического программирования, в которой значения
+ * ограничены сверху числом {@code maxDistance + 1}. Одинаковые строки соответствуют одному
+ * состоянию, поэтому число состояний конечно. Автомат строится лениво: переход вычисляется при
+ * первом обращении и запоминается. Все символы, не входящие в целевую строку, ведут себя
+ * одинаково и образуют один класс, так что таблица переходов имеет размер
+ * (число состояний) x (число различных символов цели + 1).
+ * </p>
+ *
+ * <p>Состояние {@link #DEAD} означает, что ни одно продолжение уже не может уложиться в
+ * допустимое расстояние, - при обходе префиксного дерева такие ветви можно отбрасывать целиком.
+ * Экземпляр не потокобезопасен.
+ * </p>
+ */
+public final class LevenshteinAutomaton {
+  /**
+   * Мёртвое состояние: никакое продолжение не распознаётся автоматом.
+   */
+  public static final int DEAD = -1;
+
+  private static final int NOT_COMPUTED = -2;
+
+  private final char[] target;
+  private final int maxDistance;
+  private final char[] alphabet;
+  private final List<int[]> rows = new ArrayList<>();
+  private final List<int[]> transitions = new ArrayList<>();
+  private final Map<String, Integer> stateIds = new HashMap<>();
+
+  /**
+   * Создаёт автомат для целевой строки и максимального расстояния.
+   *
+   * @param target Целевая строка
+   *
+   * @param maxDistance Максимальное расстояние Левенштейна
+   *
+   * @throws IllegalArgumentException Если target равен null ИЛИ maxDistance меньше 0
+   */
+  public LevenshteinAutomaton(String target, int maxDistance) {
+    if (target == null) {
+      throw new IllegalArgumentException("target cannot be null");
+    }
+    if (maxDistance < 0) {
+      throw new IllegalArgumentException("maxDistance cannot be negative");
+    }
+
+    this.target = target.toCharArray();
+    // Значения строки хранятся в char-ключе состояния
+    this.maxDistance = Math.min(maxDistance, Character.MAX_VALUE - 1);
+    this.alphabet = target.chars().distinct().sorted().collect(StringBuilder::new,
+        StringBuilder::appendCodePoint, StringBuilder::append).toString().toCharArray();
+
+    int[] startRow = new int[this.target.length + 1];
+    for (int j = 0; j < startRow.length; j++) {
+      startRow[j] = Math.min(j, this.maxDistance + 1);
+    }
+    stateFor(startRow);
+  }
+
+  /**
+   * Начальное состояние (соответствует пустой строке).
+   *
+   * @return Номер начального состояния
+   */
+  public int start() {
+    return 0;
+  }
+
+  /**
+   * Переход по символу.
+   *
+   * @param state Текущее состояние (не {@link #DEAD})
+   *
+   * @param c Очередной символ
+   *
+   * @return Новое состояние или {@link #DEAD}
+   */
+  public int step(int state, char c) {
+    int charClass = Arrays.binarySearch(alphabet, c);
+    if (charClass < 0) {
+      charClass = alphabet.length;
+    }
+
+    int[] outgoing = transitions.get(state);
+    int next = outgoing[charClass];
+    if (next == NOT_COMPUTED) {
+      next = computeTransition(rows.get(state), c);
+      outgoing[charClass] = next;
+    }
+    return next;
+  }
+
+  /**
+   * Распознаёт ли автомат строку, приведшую в данное состояние.
+   *
+   * @param state Состояние
+   *
+   * @return true, если расстояние от прочитанной строки до цели не больше maxDistance
+   */
+  public boolean isMatch(int state) {
+    return state != DEAD && rows.get(state)[target.length] <= maxDistance;
+  }
+
+  /**
+   * Возвращает расстояние от прочитанной строки до цели, если оно не больше maxDistance.
+   *
+   * @param state Состояние
+   *
+   * @return Расстояние или maxDistance + 1, если оно больше допустимого
+   */
+  public int distance(int state) {
+    return state == DEAD ? maxDistance + 1 : rows.get(state)[target.length];
+  }
+
+  /**
+   * Количество уже построенных состояний (для диагностики).
+   *
+   * @return Количество состояний
+   */
+  public int stateCount() {
+    return rows.size();
+  }
+
+  private int computeTransition(int[] row, char c) {
+    int cap = maxDistance + 1;
+    int[] next = new int[row.length];
+    next[0] = Math.min(row[0] + 1, cap);
+    int min = next[0];
+    for (int j = 1; j < row.length; j++) {
+      int cost = target[j - 1] == c ? 0 : 1;
+      int value = Math.min(Math.min(row[j] + 1, next[j - 1] + 1), row[j - 1] + cost);
+      next[j] = Math.min(value, cap);
+      min = Math.min(min, next[j]);
+    }
+    return min > maxDistance ? DEAD : stateFor(next);
+  }
+
+  private int stateFor(int[] row) {
+    char[] key = new char[row.length];
+    for (int j = 0; j < row.length; j++) {
+      key[j] = (char) row[j];
+    }
+    String stateKey = new String(key);
+    Integer id = stateIds.get(stateKey);
+    if (id != null) {
+      return id;
+    }
+
+    int newId = rows.size();
+    rows.add(row);
+    int[] outgoing = new int[alphabet.length + 1];
+    Arrays.fill(outgoing, NOT_COMPUTED);
+    transitions.add(outgoing);
+    stateIds.put(stateKey, newId);
+    return newId;
+  }
+}
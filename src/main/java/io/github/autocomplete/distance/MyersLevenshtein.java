@@ -0,0 +1,241 @@
+package io.github.autocomplete.distance;
+
+import java.util.Arrays;
+
+/**
+ * Бит-параллельное вычисление расстояния Левенштейна (алгоритм Майерса в формулировке Хюррё).
+ *
+ * <p>Столбец матрицы динамического программирования хранится в виде битовых векторов
+ * вертикальных приращений (+1 / -1), поэтому каждый символ текста обрабатывается за несколько
+ * побитовых операций над машинным словом вместо прохода по всей строке матрицы. Для шаблонов
+ * длиной до 64 символов используется одно слово {@code long}, для более длинных - блоки по 64
+ * бита с переносом горизонтального приращения между блоками. Результат совпадает с
+ * {@link Levenshtein#distance(String, String)}.
+ * </p>
+ *
+ * <p>Битовые маски символов шаблона можно вычислить один раз ({@link #compile(CharSequence)}) и
+ * переиспользовать для сравнения с множеством строк.
+ * </p>
+ */
+public final class MyersLevenshtein {
+  private static final int WORD_SIZE = Long.SIZE;
+  private static final int ASCII_SIZE = 128;
+
+  /**
+   * Приватный конструктор для предотвращения создания экземпляров класса.
+   */
+  private MyersLevenshtein() {
+    // Утилитный класс не должен иметь публичный конструктор
+  }
+
+  /**
+   * Вычисляет расстояние Левенштейна между двумя строками. Шаблоном выбирается более короткая
+   * строка.
+   *
+   * @param a Первая строка
+   *
+   * @param b Вторая строка
+   *
+   * @return Расстояние Левенштейна
+   */
+  public static int distance(String a, String b) {
+    if (a.length() > b.length()) {
+      String tmp = a;
+      a = b;
+      b = tmp;
+    }
+    if (a.isEmpty()) {
+      return b.length();
+    }
+    if (a.length() > WORD_SIZE) {
+      return compile(a).distance(b);
+    }
+
+    // Для разового сравнения короткого шаблона таблица масок не окупается: маска символа текста
+    // собирается проходом по шаблону, что для слов до 64 символов дешевле построения таблицы
+    long lastBit = 1L << (a.length() - 1);
+    long pv = -1L;
+    long mv = 0L;
+    int score = a.length();
+    for (int j = 0; j < b.length(); j++) {
+      char c = b.charAt(j);
+      long eq = 0L;
+      for (int i = 0; i < a.length(); i++) {
+        if (a.charAt(i) == c) {
+          eq |= 1L << i;
+        }
+      }
+      long xv = eq | mv;
+      long xh = (((eq & pv) + pv) ^ pv) | eq;
+      long ph = mv | ~(xh | pv);
+      long mh = pv & xh;
+      if ((ph & lastBit) != 0) {
+        score++;
+      } else if ((mh & lastBit) != 0) {
+        score--;
+      }
+      ph = (ph << 1) | 1L;
+      mh <<= 1;
+      pv = mh | ~(xv | ph);
+      mv = ph & xv;
+    }
+    return score;
+  }
+
+  /**
+   * Вычисляет битовые маски символов шаблона для многократного сравнения.
+   *
+   * @param pattern Шаблон
+   *
+   * @return Скомпилированный шаблон
+   *
+   * @throws IllegalArgumentException Если pattern равен null
+   */
+  public static Pattern compile(CharSequence pattern) {
+    if (pattern == null) {
+      throw new IllegalArgumentException("pattern cannot be null");
+    }
+    return new Pattern(pattern);
+  }
+
+  /**
+   * Шаблон с предвычисленными битовыми масками символов. Экземпляр неизменяем и потокобезопасен.
+   */
+  public static final class Pattern {
+    private final int length;
+    private final int words;
+    private final long lastBit;
+    // Символы шаблона вне ASCII, отсортированные для двоичного поиска
+    private final char[] alphabet;
+    // Маски символов: [индекс символа * words + номер блока]
+    private final long[] masks;
+    // Индекс ASCII-символа в alphabet или -1
+    private final int[] asciiIndex = new int[ASCII_SIZE];
+
+    private Pattern(CharSequence pattern) {
+      this.length = pattern.length();
+      this.words = Math.max(1, (length + WORD_SIZE - 1) / WORD_SIZE);
+      this.lastBit = 1L << ((Math.max(length, 1) - 1) % WORD_SIZE);
+
+      char[] chars = new char[length];
+      for (int i = 0; i < length; i++) {
+        chars[i] = pattern.charAt(i);
+      }
+      char[] sorted = chars.clone();
+      Arrays.sort(sorted);
+      int distinct = 0;
+      for (int i = 0; i < sorted.length; i++) {
+        if (i == 0 || sorted[i] != sorted[i - 1]) {
+          sorted[distinct++] = sorted[i];
+        }
+      }
+      this.alphabet = Arrays.copyOf(sorted, distinct);
+      this.masks = new long[distinct * words];
+
+      Arrays.fill(asciiIndex, -1);
+      for (int i = 0; i < distinct; i++) {
+        if (alphabet[i] < ASCII_SIZE) {
+          asciiIndex[alphabet[i]] = i;
+        }
+      }
+      for (int i = 0; i < length; i++) {
+        int index = indexOf(chars[i]);
+        masks[index * words + i / WORD_SIZE] |= 1L << (i % WORD_SIZE);
+      }
+    }
+
+    /**
+     * Длина шаблона.
+     *
+     * @return Количество символов шаблона
+     */
+    public int length() {
+      return length;
+    }
+
+    /**
+     * Вычисляет расстояние Левенштейна между шаблоном и строкой.
+     *
+     * @param text Строка для сравнения
+     *
+     * @return Расстояние Левенштейна
+     *
+     * @throws IllegalArgumentException Если text равен null
+     */
+    public int distance(CharSequence text) {
+      if (text == null) {
+        throw new IllegalArgumentException("text cannot be null");
+      }
+      if (length == 0) {
+        return text.length();
+      }
+      return words == 1 ? distanceSingleWord(text) : distanceBlocks(text);
+    }
+
+    private int indexOf(char c) {
+      if (c < ASCII_SIZE) {
+        return asciiIndex[c];
+      }
+      int index = Arrays.binarySearch(alphabet, c);
+      return index < 0 ? -1 : index;
+    }
+
+    private int distanceSingleWord(CharSequence text) {
+      long pv = -1L;
+      long mv = 0L;
+      int score = length;
+      for (int j = 0; j < text.length(); j++) {
+        int index = indexOf(text.charAt(j));
+        long eq = index < 0 ? 0L : masks[index];
+        long xv = eq | mv;
+        long xh = (((eq & pv) + pv) ^ pv) | eq;
+        long ph = mv | ~(xh | pv);
+        long mh = pv & xh;
+        if ((ph & lastBit) != 0) {
+          score++;
+        } else if ((mh & lastBit) != 0) {
+          score--;
+        }
+        // Верхняя строка матрицы растёт на 1 с каждым символом текста
+        ph = (ph << 1) | 1L;
+        mh <<= 1;
+        pv = mh | ~(xv | ph);
+        mv = ph & xv;
+      }
+      return score;
+    }
+
+    private int distanceBlocks(CharSequence text) {
+      long[] pv = new long[words];
+      long[] mv = new long[words];
+      Arrays.fill(pv, -1L);
+      int score = length;
+      int last = words - 1;
+      for (int j = 0; j < text.length(); j++) {
+        int index = indexOf(text.charAt(j));
+        int base = index < 0 ? -1 : index * words;
+        int carry = 1;
+        for (int b = 0; b < words; b++) {
+          long eq = base < 0 ? 0L : masks[base + b];
+          long negIn = carry < 0 ? 1L : 0L;
+          long posIn = carry > 0 ? 1L : 0L;
+          long xv = eq | mv[b];
+          eq |= negIn;
+          long xh = (((eq & pv[b]) + pv[b]) ^ pv[b]) | eq;
+          long ph = mv[b] | ~(xh | pv[b]);
+          long mh = pv[b] & xh;
+
+          long outBit = b == last ? lastBit : Long.MIN_VALUE;
+          carry = (ph & outBit) != 0 ? 1 : (mh & outBit) != 0 ? -1 : 0;
+
+          ph = (ph << 1) | posIn;
+          mh = (mh << 1) | negIn;
+          pv[b] = mh | ~(xv | ph);
+          mv[b] = ph & xv;
+        }
+        score += carry;
+      }
+      return score;
+    }
+  }
+}
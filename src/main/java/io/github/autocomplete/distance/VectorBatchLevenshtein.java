@@ -0,0 +1,158 @@
+package io.github.autocomplete.distance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Векторная реализация {@link BatchLevenshtein} на {@code jdk.incubator.vector}.
+ *
+ * <p>Запрос (до 64 символов) - шаблон бит-параллельного алгоритма Майерса, а строки-кандидаты
+ * раскладываются по полосам регистра: на шаге j каждая полоса читает j-й символ своей строки,
+ * маска совпадений собирается gather-загрузкой из таблицы масок запроса, а обновление битовых
+ * векторов выполняется одновременно для всех полос. Кандидаты группируются по длине, так что все
+ * полосы пакета заканчиваются на одном шаге и маскировать их не нужно. Класс загружается только
+ * при наличии модуля.
+ * </p>
+ */
+final class VectorBatchLevenshtein {
+  private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+  private static final int ASCII_SIZE = 128;
+
+  /**
+   * Приватный конструктор для предотвращения создания экземпляров класса.
+   */
+  private VectorBatchLevenshtein() {
+    // Утилитный класс не должен иметь публичный конструктор
+  }
+
+  static int[] distances(CharSequence query, List<? extends CharSequence> candidates, int max) {
+    Pattern pattern = new Pattern(query);
+    int m = query.length();
+    int[] result = new int[candidates.size()];
+
+    // Группы кандидатов по длине: подходят только длины из [m - max, m + max]
+    int minLength = Math.max(0, m - max);
+    int maxLength = (int) Math.min((long) m + max, Integer.MAX_VALUE);
+    List<List<Integer>> byLength = new ArrayList<>();
+    for (int i = 0; i < result.length; i++) {
+      int length = candidates.get(i).length();
+      if (length < minLength || length > maxLength) {
+        result[i] = max + 1;
+        continue;
+      }
+      int group = length - minLength;
+      while (byLength.size() <= group) {
+        byLength.add(new ArrayList<>());
+      }
+      byLength.get(group).add(i);
+    }
+
+    int lanes = SPECIES.length();
+    int[] batch = new int[lanes];
+    for (List<Integer> group : byLength) {
+      for (int from = 0; from < group.size(); from += lanes) {
+        int size = Math.min(lanes, group.size() - from);
+        for (int l = 0; l < size; l++) {
+          batch[l] = group.get(from + l);
+        }
+        runBatch(candidates, batch, size, pattern, max, result);
+      }
+    }
+    return result;
+  }
+
+  private static void runBatch(List<? extends CharSequence> candidates, int[] batch, int size,
+      Pattern pattern, int max, int[] result) {
+    int lanes = SPECIES.length();
+    CharSequence[] texts = new CharSequence[size];
+    for (int l = 0; l < size; l++) {
+      texts[l] = candidates.get(batch[l]);
+    }
+    int length = texts[0].length();
+
+    LongVector lastBit = LongVector.broadcast(SPECIES, pattern.lastBit);
+    LongVector pv = LongVector.broadcast(SPECIES, -1L);
+    LongVector mv = LongVector.zero(SPECIES);
+    LongVector score = LongVector.broadcast(SPECIES, pattern.length);
+    // Пустые полосы неполного пакета читают пустую маску (индекс 0)
+    int[] indexes = new int[lanes];
+
+    for (int j = 0; j < length; j++) {
+      for (int l = 0; l < size; l++) {
+        indexes[l] = pattern.indexOf(texts[l].charAt(j));
+      }
+      LongVector eq = LongVector.fromArray(SPECIES, pattern.masks, 0, indexes, 0);
+
+      LongVector xv = eq.or(mv);
+      LongVector xh = eq.and(pv).add(pv).lanewise(VectorOperators.XOR, pv).or(eq);
+      LongVector ph = mv.or(xh.or(pv).not());
+      LongVector mh = pv.and(xh);
+
+      VectorMask<Long> up = ph.and(lastBit).compare(VectorOperators.NE, 0L);
+      VectorMask<Long> down = mh.and(lastBit).compare(VectorOperators.NE, 0L);
+      score = score.add(1L, up).sub(1L, down);
+
+      ph = ph.lanewise(VectorOperators.LSHL, 1).or(1L);
+      mh = mh.lanewise(VectorOperators.LSHL, 1);
+      pv = mh.or(xv.or(ph).not());
+      mv = ph.and(xv);
+    }
+
+    long[] scores = score.toArray();
+    for (int l = 0; l < size; l++) {
+      result[batch[l]] = scores[l] > max ? max + 1 : (int) scores[l];
+    }
+  }
+
+  /**
+   * Маски символов запроса. Элемент 0 таблицы масок - пустая маска для символов, которых нет в
+   * запросе.
+   */
+  private static final class Pattern {
+    final int length;
+    final long lastBit;
+    final long[] masks;
+    private final char[] alphabet;
+    private final int distinct;
+    private final int[] asciiIndex = new int[ASCII_SIZE];
+
+    Pattern(CharSequence query) {
+      this.length = query.length();
+      this.lastBit = 1L << (length - 1);
+      char[] sorted = new char[length];
+      for (int i = 0; i < length; i++) {
+        sorted[i] = query.charAt(i);
+      }
+      Arrays.sort(sorted);
+      int count = 0;
+      for (int i = 0; i < length; i++) {
+        if (count == 0 || sorted[i] != sorted[count - 1]) {
+          sorted[count++] = sorted[i];
+        }
+      }
+      this.alphabet = sorted;
+      this.distinct = count;
+      for (int i = 0; i < count; i++) {
+        if (sorted[i] < ASCII_SIZE) {
+          asciiIndex[sorted[i]] = i + 1;
+        }
+      }
+      this.masks = new long[count + 1];
+      for (int i = 0; i < length; i++) {
+        masks[indexOf(query.charAt(i))] |= 1L << i;
+      }
+    }
+
+    int indexOf(char c) {
+      if (c < ASCII_SIZE) {
+        return asciiIndex[c];
+      }
+      return Math.max(0, Arrays.binarySearch(alphabet, 0, distinct, c) + 1);
+    }
+  }
+}
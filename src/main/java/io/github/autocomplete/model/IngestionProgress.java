@@ -0,0 +1,36 @@
+package io.github.autocomplete.model;
+
+/**
+ * Record с прогрессом потоковой загрузки текста.
+ *
+ * @param bytes Количество прочитанных из источника байт (-1, если источник - {@link java.io.Reader}
+ *        и число байт неизвестно)
+ *
+ * @param chars Количество обработанных символов
+ *
+ * @param tokens Количество добавленных токенов
+ */
+public record IngestionProgress(long bytes, long chars, long tokens) {
+  /**
+   * Создаёт запись прогресса.
+   *
+   * @param bytes Количество прочитанных байт или -1
+   *
+   * @param chars Количество обработанных символов
+   *
+   * @param tokens Количество добавленных токенов
+   *
+   * @throws IllegalArgumentException Если bytes меньше -1 ИЛИ chars или tokens меньше 0
+   */
+  public IngestionProgress {
+    if (bytes < -1) {
+      throw new IllegalArgumentException("bytes cannot be less than -1: " + bytes);
+    }
+    if (chars < 0) {
+      throw new IllegalArgumentException("chars cannot be negative: " + chars);
+    }
+    if (tokens < 0) {
+      throw new IllegalArgumentException("tokens cannot be negative: " + tokens);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package io.github.autocomplete.tokenizer;
+
+import io.github.autocomplete.config.StopWords;
+import io.github.autocomplete.config.TokenFilter;
+import java.nio.CharBuffer;
+import java.text.Normalizer;
+
+/**
+ * Приёмник, применяющий {@link TokenFilter} к токену из буфера токенизатора перед передачей
+ * дальше. Отброшенные токены не копируются.
+ */
+final class FilteringSink implements TokenSink {
+  private final int minLength;
+  private final int maxLength;
+  private final StopWords stopWords;
+  private final Normalizer.Form normalization;
+  // Символы меньше порога не изменяются выбранной нормализацией
+  private final char normalizationThreshold;
+  private final TokenSink sink;
+
+  private FilteringSink(TokenFilter filter, TokenSink sink) {
+    this.minLength = filter.minLength();
+    this.maxLength = filter.maxLength();
+    this.stopWords = filter.stopWords();
+    this.normalization = filter.normalization();
+    this.normalizationThreshold = normalization == null ? Character.MAX_VALUE
+        : switch (normalization) {
+          // Комбинируемые символы начинаются с U+0300
+          case NFC -> '\u0300';
+          // Разложимые буквы Latin-1 начинаются с U+00C0
+          case NFD -> '\u00C0';
+          // Совместимые разложения есть уже у U+00A0
+          case NFKC, NFKD -> '\u00A0';
+        };
+    this.sink = sink;
+  }
+
+  /**
+   * Оборачивает приёмник цепочкой фильтров.
+   *
+   * @return Исходный приёмник, если цепочка пуста
+   */
+  static TokenSink wrap(TokenFilter filter, TokenSink sink) {
+    return filter.isEmpty() ? sink : new FilteringSink(filter, sink);
+  }
+
+  @Override
+  public void accept(char[] buffer, int offset, int length) {
+    if (length < minLength || length > maxLength) {
+      return;
+    }
+    if (normalization != null && needsNormalization(buffer, offset, length)) {
+      String normalized =
+          Normalizer.normalize(CharBuffer.wrap(buffer, offset, length), normalization);
+      if (normalized.isEmpty()) {
+        return;
+      }
+      buffer = normalized.toCharArray();
+      offset = 0;
+      length = buffer.length;
+    }
+    if (stopWords != null && stopWords.contains(buffer, offset, length)) {
+      return;
+    }
+    sink.accept(buffer, offset, length);
+  }
+
+  private boolean needsNormalization(char[] buffer, int offset, int length) {
+    for (int i = offset, end = offset + length; i < end; i++) {
+      if (buffer[i] >= normalizationThreshold) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,222 @@
+package io.github.autocomplete.tokenizer;
+
+import io.github.autocomplete.util.Footprint;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный потокобезопасный пул канонических строк для повторяющихся токенов.
+ *
+ * <p>Токен ищется по отрезку буфера токенизатора ({@link #intern(char[], int, int)}) в
+ * хеш-таблице с открытой адресацией: сравниваются хеш (совпадает с {@link String#hashCode()},
+ * который строка кеширует) и символы, поэтому при попадании строка не создаётся. Новая строка
+ * добавляется в свободный слот через CAS, без блокировок. Пул хранит не больше
+ * {@link #capacity()} строк; когда он заполнен, новые токены создаются без добавления, а уже
+ * добавленные продолжают переиспользоваться.
+ * </p>
+ *
+ * <p>Пул можно создать для одного анализатора или использовать общий для всех
+ * ({@link #shared()}). Статистика обращений и оценка памяти доступны через {@link #stats()}.
+ * </p>
+ */
+public final class InternPool {
+  /**
+   * Ёмкость пула по умолчанию.
+   */
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+
+  /**
+   * Ёмкость общего пула {@link #shared()}.
+   */
+  public static final int SHARED_CAPACITY = 1 << 18;
+
+  // Размер таблицы не меньше удвоенной ёмкости, поэтому свободный слот всегда найдётся
+  private static final int MAX_CAPACITY = 1 << 29;
+
+  private final int capacity;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private volatile Table table;
+
+  /**
+   * Создаёт пул ёмкостью {@link #DEFAULT_CAPACITY}.
+   */
+  public InternPool() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Создаёт пул указанной ёмкости.
+   *
+   * @param capacity Максимальное количество строк в пуле (0 - пул ничего не хранит)
+   *
+   * @throws IllegalArgumentException Если capacity меньше 0 или больше 2^29
+   */
+  public InternPool(int capacity) {
+    if (capacity < 0 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("capacity must be between 0 and " + MAX_CAPACITY);
+    }
+
+    this.capacity = capacity;
+    this.table = new Table(Integer.highestOneBit(Math.max(1, capacity) * 2 - 1) * 2);
+  }
+
+  /**
+   * Общий пул ёмкостью {@link #SHARED_CAPACITY}, создаётся при первом обращении.
+   *
+   * @return Общий пул
+   */
+  public static InternPool shared() {
+    return SharedHolder.POOL;
+  }
+
+  /**
+   * Возвращает каноническую строку для отрезка буфера.
+   *
+   * @param buffer Буфер с символами токена
+   *
+   * @param offset Индекс первого символа
+   *
+   * @param length Длина токена
+   *
+   * @return Строка из пула или новая строка, если пул заполнен
+   *
+   * @throws IllegalArgumentException Если buffer равен null ИЛИ отрезок выходит за границы буфера
+   */
+  public String intern(char[] buffer, int offset, int length) {
+    if (buffer == null) {
+      throw new IllegalArgumentException("buffer cannot be null");
+    }
+    if (offset < 0 || length < 0 || offset > buffer.length - length) {
+      throw new IllegalArgumentException("offset and length are out of buffer bounds");
+    }
+
+    int hash = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      hash = 31 * hash + buffer[i];
+    }
+
+    Table current = table;
+    AtomicReferenceArray<String> slots = current.slots;
+    int mask = slots.length() - 1;
+    int index = (hash ^ (hash >>> 16)) & mask;
+    String created = null;
+    while (true) {
+      String key = slots.get(index);
+      if (key == null) {
+        if (created == null) {
+          created = new String(buffer, offset, length);
+          if (current.size.incrementAndGet() > capacity) {
+            current.size.decrementAndGet();
+            rejected.increment();
+            return created;
+          }
+        }
+        if (slots.compareAndSet(index, null, created)) {
+          current.bytes.add(Footprint.string(created));
+          misses.increment();
+          return created;
+        }
+        // Слот занят другим потоком: проверяем его ключ на следующей итерации
+        continue;
+      }
+      if (key.hashCode() == hash && matches(key, buffer, offset, length)) {
+        if (created != null) {
+          current.size.decrementAndGet();
+        }
+        hits.increment();
+        return key;
+      }
+      index = (index + 1) & mask;
+    }
+  }
+
+  /**
+   * Возвращает каноническую строку для последовательности символов.
+   *
+   * @param text Последовательность символов
+   *
+   * @return Строка из пула или новая строка, если пул заполнен
+   *
+   * @throws IllegalArgumentException Если text равен null
+   */
+  public String intern(CharSequence text) {
+    if (text == null) {
+      throw new IllegalArgumentException("text cannot be null");
+    }
+
+    char[] chars = new char[text.length()];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = text.charAt(i);
+    }
+    return intern(chars, 0, chars.length);
+  }
+
+  /**
+   * Максимальное количество строк в пуле.
+   *
+   * @return Ёмкость пула
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Количество строк в пуле.
+   *
+   * @return Количество строк
+   */
+  public int size() {
+    return Math.min(table.size.get(), capacity);
+  }
+
+  /**
+   * Снимок статистики пула.
+   *
+   * @return Статистика обращений и оценка памяти
+   */
+  public InternStats stats() {
+    Table current = table;
+    long tableBytes = Footprint.referenceArray(current.slots.length());
+    return new InternStats(hits.sum(), misses.sum(), rejected.sum(),
+        Math.min(current.size.get(), capacity), capacity, tableBytes + current.bytes.sum());
+  }
+
+  /**
+   * Удаляет все строки из пула. Счётчики обращений сохраняются.
+   */
+  public void clear() {
+    table = new Table(table.slots.length());
+  }
+
+  private static boolean matches(String key, char[] buffer, int offset, int length) {
+    if (key.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (key.charAt(i) != buffer[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Слоты пула вместе с занятым количеством; при очистке заменяется целиком.
+   */
+  private static final class Table {
+    private final AtomicReferenceArray<String> slots;
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder bytes = new LongAdder();
+
+    Table(int length) {
+      this.slots = new AtomicReferenceArray<>(length);
+    }
+  }
+
+  private static final class SharedHolder {
+    private static final InternPool POOL = new InternPool(SHARED_CAPACITY);
+  }
+}
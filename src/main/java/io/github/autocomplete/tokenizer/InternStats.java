@@ -0,0 +1,55 @@
+package io.github.autocomplete.tokenizer;
+
+/**
+ * Снимок статистики пула строк на момент вызова {@link InternPool#stats()}.
+ *
+ * @param hitCount Количество обращений, для которых строка нашлась в пуле
+ *
+ * @param missCount Количество обращений, после которых строка была добавлена в пул
+ *
+ * @param rejectedCount Количество обращений, для которых строка создана без добавления, потому
+ *        что пул заполнен
+ *
+ * @param size Количество строк в пуле
+ *
+ * @param capacity Максимальное количество строк в пуле
+ *
+ * @param memoryBytes Приблизительный объём памяти пула (таблица и строки) в байтах
+ */
+public record InternStats(long hitCount, long missCount, long rejectedCount, int size,
+    int capacity, long memoryBytes) {
+  /**
+   * Стандартный конструктор.
+   *
+   * @throws IllegalArgumentException Если какой-либо из счётчиков отрицательный ИЛИ size больше
+   *         capacity
+   */
+  public InternStats {
+    if (hitCount < 0 || missCount < 0 || rejectedCount < 0 || size < 0 || capacity < 0
+        || memoryBytes < 0) {
+      throw new IllegalArgumentException("counters cannot be negative");
+    }
+    if (size > capacity) {
+      throw new IllegalArgumentException("size cannot be greater than capacity");
+    }
+  }
+
+  /**
+   * Общее количество обращений к пулу.
+   *
+   * @return Сумма попаданий, добавлений и отказов
+   */
+  public long requestCount() {
+    return hitCount + missCount + rejectedCount;
+  }
+
+  /**
+   * Доля обращений, для которых строка нашлась в пуле.
+   *
+   * @return Доля попаданий от 0 до 1 (1, если обращений не было)
+   */
+  public double hitRate() {
+    long requests = requestCount();
+    return requests == 0 ? 1.0 : (double) hitCount / requests;
+  }
+}
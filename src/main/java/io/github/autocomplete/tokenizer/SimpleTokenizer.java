@@ -1,12 +1,43 @@
 package io.github.autocomplete.tokenizer;
 
+import io.github.autocomplete.config.CharClass;
+import io.github.autocomplete.config.Folding;
 import io.github.autocomplete.config.TokenizerConfig;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
  * Реализация токенизатора с настраиваемыми параметрами через {@link TokenizerConfig}
+ *
+ * <p>Если текст разделяется по пробельным символам ({@code \s+} или {@code \s}), вместо
+ * {@link String#split(String)} используется однопроходный сканер по индексам: разделители ASCII
+ * определяются по таблице, фильтр - по скомпилированной таблице
+ * {@link TokenizerConfig#charClass()}, свёртка символов ({@link TokenizerConfig#folding()}) - по
+ * таблице {@link Folding}, токен собирается в переиспользуемый буфер, и на каждый токен
+ * создаётся ровно одна строка, а через {@link #tokenize(CharSequence, TokenSink)} - ни одной.
+ * Результат совпадает с разбиением по regex. Для остальных regex используется
+ * {@link String#split(String)}.
+ * </p>
+ *
+ * <p>Цепочка {@link TokenizerConfig#tokenFilter()} применяется к токену прямо в буфере сканера,
+ * так что отброшенные токены не превращаются в строки.
+ * </p>
  */
 public class SimpleTokenizer implements Tokenizer {
+  static final byte OTHER = 0;
+  static final byte SEPARATOR = 1;
+  static final int ASCII_SIZE = 128;
+  // Класс ASCII-символа: разделитель из \s (пробел, \t, \n, \u000B, \f, \r) или прочее
+  static final byte[] ASCII_CLASS = new byte[ASCII_SIZE];
+
+  static {
+    for (char c : new char[] {' ', '\t', '\n', '\u000B', '\f', '\r'}) {
+      ASCII_CLASS[c] = SEPARATOR;
+    }
+  }
+
   private TokenizerConfig config;
 
   /**
@@ -40,8 +71,96 @@ public class SimpleTokenizer implements Tokenizer {
       throw new IllegalArgumentException("text cannot be null");
     }
 
-    return Stream.of(text.split(config.splitRegex())).map(this::processWord)
+    TokenizerConfig current = config;
+    if (isWhitespaceSplit(current.splitRegex())) {
+      List<String> tokens = new ArrayList<>();
+      scan(text, current,
+          (buffer, offset, length) -> tokens.add(new String(buffer, offset, length)));
+      return tokens.stream();
+    }
+    Stream<String> words = Stream.of(text.split(current.splitRegex())).map(this::processWord)
         .filter(word -> !word.isEmpty());
+    if (current.tokenFilter().isEmpty()) {
+      return words;
+    }
+    return words.<String>mapMulti((word, downstream) -> FilteringSink
+        .wrap(current.tokenFilter(),
+            (buffer, offset, length) -> downstream.accept(new String(buffer, offset, length)))
+        .accept(word.toCharArray(), 0, word.length()));
+  }
+
+  /**
+   * Разбить текст на токены и передать их в приёмник. При разделении по пробельным символам
+   * токены передаются из внутреннего буфера без создания строк.
+   *
+   * @param text Текст, который необходимо разбить на токены
+   *
+   * @param sink Приёмник токенов
+   *
+   * @throws IllegalArgumentException Если text равен null ИЛИ sink равен null
+   */
+  @Override
+  public void tokenize(CharSequence text, TokenSink sink) {
+    if (text == null) {
+      throw new IllegalArgumentException("text cannot be null");
+    }
+    if (sink == null) {
+      throw new IllegalArgumentException("sink cannot be null");
+    }
+
+    TokenizerConfig current = config;
+    if (isWhitespaceSplit(current.splitRegex())) {
+      scan(text, current, sink);
+    } else {
+      Tokenizer.super.tokenize(text, sink);
+    }
+  }
+
+  static boolean isWhitespaceSplit(String regex) {
+    // Пустые токены между соседними разделителями всё равно отбрасываются, поэтому \s и \s+
+    // дают одинаковый результат
+    return "\\s+".equals(regex) || "\\s".equals(regex);
+  }
+
+  /**
+   * Однопроходное разбиение по пробельным символам с фильтрацией и свёрткой символов.
+   */
+  private static void scan(CharSequence text, TokenizerConfig config, TokenSink sink) {
+    sink = FilteringSink.wrap(config.tokenFilter(), sink);
+    CharClass filter = config.charClass();
+    Folding folding = config.folding();
+    boolean folds = !folding.isIdentity();
+
+    char[] buffer = new char[16];
+    int length = 0;
+    for (int i = 0, n = text.length(); i < n; i++) {
+      char c = text.charAt(i);
+      if (c < ASCII_SIZE && ASCII_CLASS[c] == SEPARATOR) {
+        if (length > 0) {
+          sink.accept(buffer, 0, length);
+          length = 0;
+        }
+        continue;
+      }
+      if (!filter.contains(c)) {
+        continue;
+      }
+      if (folds) {
+        int folded = folding.fold(c);
+        if (folded < 0) {
+          continue;
+        }
+        c = (char) folded;
+      }
+
+      if (length == buffer.length) {
+        buffer = Arrays.copyOf(buffer, length * 2);
+      }
+      buffer[length++] = c;
+    }
+    if (length > 0) {
+      sink.accept(buffer, 0, length);
+    }
   }
 
   /**
@@ -57,9 +176,13 @@ public class SimpleTokenizer implements Tokenizer {
     if (word == null) {
       throw new IllegalArgumentException("word cannot be null");
     }
-    return word.chars().mapToObj(c -> (char) c).filter(c -> config.charFilter().test(c))
-        .map(c -> config.toLowerCase() ? Character.toLowerCase(c) : c)
-        .collect(StringBuilder::new, StringBuilder::append, StringBuilder::append).toString();
+    CharClass filter = config.charClass();
+    Folding folding = config.folding();
+    return word.chars().mapToObj(c -> (char) c).filter(filter::contains).map(folding::fold)
+        .filter(c -> c >= 0)
+        .collect(StringBuilder::new, (builder, c) -> builder.append((char) c.intValue()),
+            StringBuilder::append)
+        .toString();
   }
 
   /**
@@ -0,0 +1,23 @@
+package io.github.autocomplete.tokenizer;
+
+/**
+ * Приёмник токенов для потоковой токенизации без создания строк.
+ *
+ * <p>Токен передаётся как отрезок буфера токенизатора. Буфер переиспользуется, поэтому его
+ * содержимое действительно только во время вызова: чтобы сохранить токен, нужно скопировать
+ * символы (например, {@code new String(buffer, offset, length)}).
+ * </p>
+ */
+@FunctionalInterface
+public interface TokenSink {
+  /**
+   * Принять очередной токен.
+   *
+   * @param buffer Буфер с символами токена
+   *
+   * @param offset Индекс первого символа токена в буфере
+   *
+   * @param length Длина токена (больше 0)
+   */
+  void accept(char[] buffer, int offset, int length);
+}
@@ -18,6 +18,29 @@ public interface Tokenizer {
    */
   Stream<String> tokenize(String text);
 
+  /**
+   * Разбить текст на токены и передать их в приёмник. Реализация по умолчанию токенизирует
+   * текст через {@link #tokenize(String)}; реализации могут переопределить метод, чтобы не
+   * создавать строку на каждый токен.
+   *
+   * @param text Текст, который необходимо разбить на токены
+   *
+   * @param sink Приёмник токенов
+   *
+   * @throws IllegalArgumentException Если text равен null ИЛИ sink равен null
+   */
+  default void tokenize(CharSequence text, TokenSink sink) {
+    if (text == null) {
+      throw new IllegalArgumentException("text cannot be null");
+    }
+    if (sink == null) {
+      throw new IllegalArgumentException("sink cannot be null");
+    }
+
+    tokenize(text.toString())
+        .forEach(token -> sink.accept(token.toCharArray(), 0, token.length()));
+  }
+
   /**
    * Установить настройки токенизации
    * 
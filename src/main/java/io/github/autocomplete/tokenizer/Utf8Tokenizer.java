@@ -0,0 +1,254 @@
+package io.github.autocomplete.tokenizer;
+
+import io.github.autocomplete.config.CharClass;
+import io.github.autocomplete.config.Folding;
+import io.github.autocomplete.config.TokenizerConfig;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Токенизатор, работающий непосредственно с байтами UTF-8 без предварительного декодирования в
+ * строку.
+ *
+ * <p>ASCII-байты классифицируются по таблице, многобайтовые последовательности декодируются на
+ * месте только когда встречаются, а фильтрация символов (по таблице
+ * {@link TokenizerConfig#charClass()}) и свёртка символов ({@link TokenizerConfig#folding()})
+ * выполняются в том же проходе. Токены проходят цепочку {@link TokenizerConfig#tokenFilter()}
+ * и передаются в {@link TokenSink} из переиспользуемого буфера. Поддерживается только разделение
+ * по пробельным символам ({@code \s+} или {@code \s}); для корректного UTF-8 результат совпадает
+ * с {@link SimpleTokenizer} с той же конфигурацией. Символы вне BMP, как и у
+ * {@link SimpleTokenizer}, проверяются фильтром посимвольно (по суррогатам). Некорректный байт
+ * заменяется символом U+FFFD.
+ * </p>
+ *
+ * <p>Экземпляр неизменяем и потокобезопасен.</p>
+ */
+public final class Utf8Tokenizer {
+  private static final char REPLACEMENT = '\uFFFD';
+
+  private final TokenizerConfig config;
+
+  /**
+   * Создает токенизатор с настройками по умолчанию {@link TokenizerConfig}
+   */
+  public Utf8Tokenizer() {
+    this(new TokenizerConfig());
+  }
+
+  /**
+   * Создает токенизатор с указанными настройками
+   *
+   * @param config Настройки токенизации {@link TokenizerConfig}
+   *
+   * @throws IllegalArgumentException Если config равен null ИЛИ разделение задано не по
+   *         пробельным символам (см. {@link #supports(TokenizerConfig)})
+   */
+  public Utf8Tokenizer(TokenizerConfig config) {
+    if (config == null) {
+      throw new IllegalArgumentException("config cannot be null");
+    }
+    if (!supports(config)) {
+      throw new IllegalArgumentException("splitRegex must be \\s+ or \\s");
+    }
+
+    this.config = config;
+  }
+
+  /**
+   * Проверяет, может ли токенизатор работать с указанными настройками.
+   *
+   * @param config Настройки токенизации
+   *
+   * @return true, если разделение задано по пробельным символам
+   *
+   * @throws IllegalArgumentException Если config равен null
+   */
+  public static boolean supports(TokenizerConfig config) {
+    if (config == null) {
+      throw new IllegalArgumentException("config cannot be null");
+    }
+    return SimpleTokenizer.isWhitespaceSplit(config.splitRegex());
+  }
+
+  /**
+   * Разбить UTF-8 байты на токены и передать их в приёмник. Позиция буфера не изменяется.
+   *
+   * @param input Байты от position до limit
+   *
+   * @param sink Приёмник токенов
+   *
+   * @return Количество декодированных символов (UTF-16)
+   *
+   * @throws IllegalArgumentException Если input равен null ИЛИ sink равен null
+   */
+  public long tokenize(ByteBuffer input, TokenSink sink) {
+    if (input == null) {
+      throw new IllegalArgumentException("input cannot be null");
+    }
+    if (sink == null) {
+      throw new IllegalArgumentException("sink cannot be null");
+    }
+
+    TokenSink filtered = FilteringSink.wrap(config.tokenFilter(), sink);
+    return new Scan(config, filtered).run(input, input.position(), input.limit());
+  }
+
+  /**
+   * Разбить UTF-8 байты на токены и передать их в приёмник.
+   *
+   * @param input Массив байт
+   *
+   * @param offset Индекс первого байта
+   *
+   * @param length Количество байт
+   *
+   * @param sink Приёмник токенов
+   *
+   * @return Количество декодированных символов (UTF-16)
+   *
+   * @throws IllegalArgumentException Если input равен null ИЛИ sink равен null ИЛИ отрезок
+   *         выходит за границы массива
+   */
+  public long tokenize(byte[] input, int offset, int length, TokenSink sink) {
+    if (input == null) {
+      throw new IllegalArgumentException("input cannot be null");
+    }
+    if (offset < 0 || length < 0 || offset > input.length - length) {
+      throw new IllegalArgumentException("offset and length are out of input bounds");
+    }
+
+    return tokenize(ByteBuffer.wrap(input, offset, length), sink);
+  }
+
+  /**
+   * Получить настройки токенизации
+   *
+   * @return Настройки токенизации
+   */
+  public TokenizerConfig getConfig() {
+    return config;
+  }
+
+  /**
+   * Состояние одного прохода: буфер текущего токена.
+   */
+  private static final class Scan {
+    private final CharClass filter;
+    private final Folding folding;
+    private final boolean folds;
+    private final TokenSink sink;
+    private char[] buffer = new char[16];
+    private int length;
+
+    Scan(TokenizerConfig config, TokenSink sink) {
+      this.filter = config.charClass();
+      this.folding = config.folding();
+      this.folds = !folding.isIdentity();
+      this.sink = sink;
+    }
+
+    long run(ByteBuffer input, int from, int to) {
+      long chars = 0;
+      int i = from;
+      while (i < to) {
+        int b = input.get(i);
+        if (b >= 0) {
+          i++;
+          chars++;
+          byte charClass = SimpleTokenizer.ASCII_CLASS[b];
+          if (charClass == SimpleTokenizer.SEPARATOR) {
+            flush();
+          } else {
+            accept((char) b);
+          }
+          continue;
+        }
+
+        // Многобайтовая последовательность: ведущий байт задаёт длину и допустимый диапазон
+        // второго байта (исключает избыточные формы, суррогаты и значения больше U+10FFFF)
+        int lead = b & 0xFF;
+        int count;
+        int min = 0x80;
+        int max = 0xBF;
+        int codePoint;
+        if (lead >= 0xC2 && lead <= 0xDF) {
+          count = 1;
+          codePoint = lead & 0x1F;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+          count = 2;
+          codePoint = lead & 0x0F;
+          min = lead == 0xE0 ? 0xA0 : min;
+          max = lead == 0xED ? 0x9F : max;
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+          count = 3;
+          codePoint = lead & 0x07;
+          min = lead == 0xF0 ? 0x90 : min;
+          max = lead == 0xF4 ? 0x8F : max;
+        } else {
+          i++;
+          chars++;
+          accept(REPLACEMENT);
+          continue;
+        }
+
+        int next = i + 1;
+        boolean valid = true;
+        for (int k = 0; k < count; k++, next++) {
+          int continuation = next < to ? input.get(next) & 0xFF : -1;
+          if (continuation < min || continuation > max) {
+            valid = false;
+            break;
+          }
+          codePoint = (codePoint << 6) | (continuation & 0x3F);
+          min = 0x80;
+          max = 0xBF;
+        }
+        if (!valid) {
+          i++;
+          chars++;
+          accept(REPLACEMENT);
+          continue;
+        }
+
+        i = next;
+        if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+          chars++;
+          accept((char) codePoint);
+        } else {
+          chars += 2;
+          accept(Character.highSurrogate(codePoint));
+          accept(Character.lowSurrogate(codePoint));
+        }
+      }
+      flush();
+      return chars;
+    }
+
+    /**
+     * Обработка символа, не являющегося разделителем.
+     */
+    private void accept(char c) {
+      if (!filter.contains(c)) {
+        return;
+      }
+      int folded = folds ? folding.fold(c) : c;
+      if (folded >= 0) {
+        append((char) folded);
+      }
+    }
+
+    private void append(char c) {
+      if (length == buffer.length) {
+        buffer = Arrays.copyOf(buffer, length * 2);
+      }
+      buffer[length++] = c;
+    }
+
+    private void flush() {
+      if (length > 0) {
+        sink.accept(buffer, 0, length);
+        length = 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package io.github.autocomplete.util;
+
+import io.github.autocomplete.model.Candidate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Куча фиксированного размера для отбора top-N кандидатов по весу. Вес и слово хранятся в
+ * параллельных массивах, а строка слова создаётся только если кандидат попадает в кучу. Массивы
+ * растут по мере добавления кандидатов, поэтому большой лимит не приводит к выделению памяти
+ * заранее.
+ */
+final class CandidateHeap {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final int capacity;
+  private double[] weights;
+  private String[] words;
+  private int size;
+
+  /**
+   * Создаёт пустую кучу.
+   *
+   * @param capacity Максимальное количество кандидатов
+   */
+  CandidateHeap(int capacity) {
+    this.capacity = capacity;
+    this.weights = new double[Math.min(capacity, INITIAL_CAPACITY)];
+    this.words = new String[weights.length];
+  }
+
+  /**
+   * Предлагает кандидата.
+   *
+   * @param weight Вес
+   *
+   * @param word Слово (копируется только при попадании в кучу)
+   */
+  void offer(double weight, CharSequence word) {
+    if (size < capacity) {
+      if (size == weights.length) {
+        int grown = (int) Math.min(capacity, 2L * size);
+        weights = Arrays.copyOf(weights, grown);
+        words = Arrays.copyOf(words, grown);
+      }
+      weights[size] = weight;
+      words[size] = word.toString();
+      siftUp(size++);
+      return;
+    }
+    if (capacity == 0 || !less(weights[0], words[0], weight, word)) {
+      return;
+    }
+    weights[0] = weight;
+    words[0] = word.toString();
+    siftDown(0);
+  }
+
+  /**
+   * Преобразует кучу в список по убыванию веса (при равном весе - по возрастанию слова).
+   *
+   * @return Отсортированный список кандидатов
+   */
+  List<Candidate> toSortedList() {
+    List<Candidate> sorted = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      sorted.add(new Candidate(words[i], weights[i]));
+    }
+    Collections.sort(sorted, Collections.reverseOrder());
+    return sorted;
+  }
+
+  /**
+   * Порядок {@link Candidate#compareTo}: меньше вес, при равном весе - больше слово.
+   */
+  private static boolean less(double weightA, CharSequence wordA, double weightB,
+      CharSequence wordB) {
+    int cmp = Double.compare(weightA, weightB);
+    return cmp != 0 ? cmp < 0 : CharSequence.compare(wordB, wordA) < 0;
+  }
+
+  private boolean less(int a, int b) {
+    return less(weights[a], words[a], weights[b], words[b]);
+  }
+
+  private void siftUp(int index) {
+    while (index > 0) {
+      int parent = (index - 1) / 2;
+      if (!less(index, parent)) {
+        break;
+      }
+      swap(index, parent);
+      index = parent;
+    }
+  }
+
+  private void siftDown(int index) {
+    while (true) {
+      int smallest = index;
+      int left = 2 * index + 1;
+      int right = left + 1;
+      if (left < size && less(left, smallest)) {
+        smallest = left;
+      }
+      if (right < size && less(right, smallest)) {
+        smallest = right;
+      }
+      if (smallest == index) {
+        return;
+      }
+      swap(index, smallest);
+      index = smallest;
+    }
+  }
+
+  private void swap(int a, int b) {
+    double weight = weights[a];
+    weights[a] = weights[b];
+    weights[b] = weight;
+    String word = words[a];
+    words[a] = words[b];
+    words[b] = word;
+  }
+}
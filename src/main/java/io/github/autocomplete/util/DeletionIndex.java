@@ -0,0 +1,164 @@
+package io.github.autocomplete.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Индекс удалений (SymSpell): для каждого слова хранятся все варианты, получаемые удалением не
+ * более maxDistance символов, с отсылкой к исходным словам.
+ *
+ * <p>Если расстояние Левенштейна между запросом и словом не больше k, то у них найдётся общий
+ * вариант, полученный не более чем k удалениями из каждого. Поэтому поиск похожих слов сводится к
+ * генерации удалений запроса и нескольким обращениям к хеш-таблице вместо обхода всего дерева.
+ * Плата - память: на слово длины L приходится порядка C(L, k) вариантов, поэтому индекс
+ * предназначен для небольших расстояний (1-2).
+ * </p>
+ *
+ * <p>Экземпляр не потокобезопасен.</p>
+ */
+public final class DeletionIndex implements SimilarityIndex {
+  private final int maxDistance;
+  private final List<String> words = new ArrayList<>();
+  private final Map<String, Integer> wordIds = new HashMap<>();
+  // Списки номеров слов: в элементе 0 хранится количество, далее - номера с запасом ёмкости
+  private final Map<String, int[]> deletes = new HashMap<>();
+  private long memoryBytes;
+
+  /**
+   * Создаёт пустой индекс.
+   *
+   * @param maxDistance Максимальное количество удалений (и максимальное расстояние поиска)
+   *
+   * @throws IllegalArgumentException Если maxDistance меньше 0
+   */
+  public DeletionIndex(int maxDistance) {
+    if (maxDistance < 0) {
+      throw new IllegalArgumentException("maxDistance cannot be negative");
+    }
+
+    this.maxDistance = maxDistance;
+  }
+
+  @Override
+  public void add(String word) {
+    if (word == null || word.isEmpty()) {
+      throw new IllegalArgumentException("word cannot be null or empty");
+    }
+    if (wordIds.containsKey(word)) {
+      return;
+    }
+
+    int id = words.size();
+    words.add(word);
+    wordIds.put(word, id);
+    memoryBytes += Footprint.REFERENCE + Footprint.HASH_ENTRY + Footprint.string(word)
+        + Footprint.align(Footprint.OBJECT_HEADER + 4);
+
+    for (String variant : variants(word, maxDistance)) {
+      int[] ids = deletes.get(variant);
+      if (ids == null) {
+        ids = new int[2];
+        deletes.put(variant, ids);
+        memoryBytes += Footprint.HASH_ENTRY + Footprint.string(variant) + Footprint.intArray(2);
+      } else if (ids[0] + 1 == ids.length) {
+        int[] grown = Arrays.copyOf(ids, ids.length * 2);
+        memoryBytes += Footprint.intArray(grown.length) - Footprint.intArray(ids.length);
+        ids = grown;
+        deletes.put(variant, ids);
+      }
+      ids[++ids[0]] = id;
+    }
+  }
+
+  @Override
+  public Collection<String> candidates(String query, int tolerance) {
+    if (query == null) {
+      throw new IllegalArgumentException("query cannot be null");
+    }
+    if (tolerance < 0 || tolerance > maxDistance) {
+      throw new IllegalArgumentException("tolerance must be between 0 and " + maxDistance);
+    }
+
+    BitSet found = new BitSet(words.size());
+    List<String> result = new ArrayList<>();
+    for (String variant : variants(query, tolerance)) {
+      int[] ids = deletes.get(variant);
+      if (ids == null) {
+        continue;
+      }
+      for (int i = 1; i <= ids[0]; i++) {
+        int id = ids[i];
+        if (!found.get(id)) {
+          found.set(id);
+          String word = words.get(id);
+          if (Math.abs(word.length() - query.length()) <= tolerance) {
+            result.add(word);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public int maxTolerance() {
+    return maxDistance;
+  }
+
+  @Override
+  public long memoryBytes() {
+    return memoryBytes;
+  }
+
+  /**
+   * Количество различных вариантов удалений в индексе.
+   *
+   * @return Количество ключей хеш-таблицы
+   */
+  public int variantCount() {
+    return deletes.size();
+  }
+
+  /**
+   * Количество слов в индексе.
+   *
+   * @return Количество слов
+   */
+  public int size() {
+    return words.size();
+  }
+
+  @Override
+  public void clear() {
+    words.clear();
+    wordIds.clear();
+    deletes.clear();
+    memoryBytes = 0;
+  }
+
+  private static Set<String> variants(String word, int distance) {
+    Set<String> result = new HashSet<>();
+    result.add(word);
+    collectDeletes(word, distance, result);
+    return result;
+  }
+
+  private static void collectDeletes(String word, int distance, Set<String> result) {
+    if (distance == 0 || word.isEmpty()) {
+      return;
+    }
+    for (int i = 0; i < word.length(); i++) {
+      String deleted = word.substring(0, i) + word.substring(i + 1);
+      if (result.add(deleted)) {
+        collectDeletes(deleted, distance - 1, result);
+      }
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package io.github.autocomplete.util;
+
+/**
+ * Оценки занимаемой памяти для индексов словаря, кешей и пула строк, исходя из 64-битной JVM со
+ * сжатыми указателями (заголовок объекта 12 байт, ссылка 4 байта, выравнивание по 8 байт) и
+ * компактных строк. Пакет не экспортируется модулем, поэтому класс остаётся внутренним.
+ */
+public final class Footprint {
+  /**
+   * Заголовок объекта: mark word и сжатый указатель на класс.
+   */
+  public static final int OBJECT_HEADER = 12;
+
+  /**
+   * Заголовок массива: заголовок объекта и длина, с выравниванием.
+   */
+  public static final int ARRAY_HEADER = 16;
+
+  /**
+   * Сжатая ссылка на объект.
+   */
+  public static final int REFERENCE = 4;
+
+  /**
+   * Элемент HashMap: узел (hash, ключ, значение, следующий) и слот таблицы с запасом на
+   * коэффициент заполнения.
+   */
+  public static final long HASH_ENTRY = align(OBJECT_HEADER + 4 + 3 * REFERENCE) + 2 * REFERENCE;
+
+  /**
+   * String: заголовок, ссылка на массив, hash, coder, hashIsZero.
+   */
+  private static final long STRING_SHALLOW = align(OBJECT_HEADER + REFERENCE + 4 + 1 + 1);
+
+  /**
+   * Приватный конструктор для предотвращения создания экземпляров класса.
+   */
+  private Footprint() {
+    // Утилитный класс не должен иметь публичный конструктор
+  }
+
+  /**
+   * Приблизительный размер строки вместе с массивом символов.
+   *
+   * @param s Строка
+   *
+   * @return Размер в байтах
+   */
+  public static long string(String s) {
+    int bytesPerChar = 1;
+    for (int i = 0; i < s.length(); i++) {
+      if (s.charAt(i) > 0xFF) {
+        bytesPerChar = 2;
+        break;
+      }
+    }
+    return STRING_SHALLOW + align(ARRAY_HEADER + (long) s.length() * bytesPerChar);
+  }
+
+  /**
+   * Размер массива int.
+   *
+   * @param length Длина массива
+   *
+   * @return Размер в байтах
+   */
+  public static long intArray(int length) {
+    return align(ARRAY_HEADER + 4L * length);
+  }
+
+  /**
+   * Размер массива ссылок.
+   *
+   * @param length Длина массива
+   *
+   * @return Размер в байтах
+   */
+  public static long referenceArray(int length) {
+    return align(ARRAY_HEADER + (long) REFERENCE * length);
+  }
+
+  /**
+   * Выравнивает размер объекта по 8 байт.
+   *
+   * @param size Размер в байтах
+   *
+   * @return Выровненный размер
+   */
+  public static long align(long size) {
+    return (size + 7) & ~7L;
+  }
+}
@@ -0,0 +1,217 @@
+package io.github.autocomplete.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Инвертированный индекс символьных n-грамм словаря.
+ *
+ * <p>Слово дополняется n-1 служебными символами с обеих сторон, и каждая n-грамма ссылается на
+ * список номеров содержащих её слов. Номера выдаются по возрастанию, поэтому списки хранятся
+ * отсортированными массивами {@code int[]}. Одна правка разрушает не больше n n-грамм, значит,
+ * слова на расстоянии не больше k имеют не меньше max(|a|, |b|) + n - 1 - k·n общих n-грамм
+ * (с учётом повторов). Кандидаты отбираются подсчётом общих n-грамм по спискам запроса, так что
+ * работа пропорциональна длине затронутых списков, а не размеру словаря. В отличие от индекса
+ * удалений, объём индекса не растёт с допустимым расстоянием, но при большой толерантности для
+ * коротких запросов оценка вырождается и приходится просматривать все слова подходящей длины.
+ * </p>
+ *
+ * <p>Экземпляр не потокобезопасен для изменений; одновременный поиск без изменений допустим.</p>
+ */
+public final class NGramIndex implements SimilarityIndex {
+  /**
+   * Длина n-граммы по умолчанию (триграммы).
+   */
+  public static final int DEFAULT_N = 3;
+
+  private static final char PADDING = '\u0000';
+
+  private final int n;
+  private final List<String> words = new ArrayList<>();
+  private final Map<String, Integer> wordIds = new HashMap<>();
+  // Списки номеров слов: в элементе 0 хранится количество, далее - номера по возрастанию
+  private final Map<String, int[]> postings = new HashMap<>();
+  private long memoryBytes;
+
+  /**
+   * Создаёт индекс триграмм.
+   */
+  public NGramIndex() {
+    this(DEFAULT_N);
+  }
+
+  /**
+   * Создаёт индекс n-грамм.
+   *
+   * @param n Длина n-граммы
+   *
+   * @throws IllegalArgumentException Если n меньше 1
+   */
+  public NGramIndex(int n) {
+    if (n < 1) {
+      throw new IllegalArgumentException("n cannot be less than 1");
+    }
+
+    this.n = n;
+  }
+
+  @Override
+  public void add(String word) {
+    if (word == null || word.isEmpty()) {
+      throw new IllegalArgumentException("word cannot be null or empty");
+    }
+    if (wordIds.containsKey(word)) {
+      return;
+    }
+
+    int id = words.size();
+    words.add(word);
+    wordIds.put(word, id);
+    memoryBytes += Footprint.REFERENCE + Footprint.HASH_ENTRY + Footprint.string(word)
+        + Footprint.align(Footprint.OBJECT_HEADER + 4);
+
+    for (String gram : grams(word)) {
+      int[] ids = postings.get(gram);
+      if (ids == null) {
+        ids = new int[2];
+        postings.put(gram, ids);
+        memoryBytes += Footprint.HASH_ENTRY + Footprint.string(gram) + Footprint.intArray(2);
+      } else if (ids[0] + 1 == ids.length) {
+        int[] grown = Arrays.copyOf(ids, ids.length * 2);
+        memoryBytes += Footprint.intArray(grown.length) - Footprint.intArray(ids.length);
+        ids = grown;
+        postings.put(gram, ids);
+      }
+      ids[++ids[0]] = id;
+    }
+  }
+
+  @Override
+  public Collection<String> candidates(String query, int tolerance) {
+    if (query == null) {
+      throw new IllegalArgumentException("query cannot be null");
+    }
+    if (tolerance < 0) {
+      throw new IllegalArgumentException("tolerance cannot be negative");
+    }
+
+    List<String> result = new ArrayList<>();
+    long minShared = (long) query.length() + n - 1 - (long) tolerance * n;
+    if (minShared <= 0) {
+      // Общих n-грамм может не быть вовсе: остаётся фильтр по длине
+      for (String word : words) {
+        if (Math.abs(word.length() - query.length()) <= tolerance) {
+          result.add(word);
+        }
+      }
+      return result;
+    }
+
+    List<int[]> lists = new ArrayList<>();
+    int total = 0;
+    for (String gram : grams(query)) {
+      int[] ids = postings.get(gram);
+      if (ids != null) {
+        lists.add(ids);
+        total += ids[0];
+      }
+    }
+    int[] merged = new int[total];
+    int offset = 0;
+    for (int[] ids : lists) {
+      System.arraycopy(ids, 1, merged, offset, ids[0]);
+      offset += ids[0];
+    }
+    Arrays.sort(merged);
+
+    for (int start = 0; start < merged.length;) {
+      int end = start;
+      while (end < merged.length && merged[end] == merged[start]) {
+        end++;
+      }
+      String word = words.get(merged[start]);
+      int shared = end - start;
+      long required =
+          (long) Math.max(word.length(), query.length()) + n - 1 - (long) tolerance * n;
+      if (Math.abs(word.length() - query.length()) <= tolerance && shared >= required) {
+        result.add(word);
+      }
+      start = end;
+    }
+    return result;
+  }
+
+  @Override
+  public int maxTolerance() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public long memoryBytes() {
+    return memoryBytes;
+  }
+
+  /**
+   * Длина n-граммы.
+   *
+   * @return n
+   */
+  public int gramLength() {
+    return n;
+  }
+
+  /**
+   * Количество различных n-грамм в индексе.
+   *
+   * @return Количество списков
+   */
+  public int gramCount() {
+    return postings.size();
+  }
+
+  /**
+   * Количество слов в индексе.
+   *
+   * @return Количество слов
+   */
+  public int size() {
+    return words.size();
+  }
+
+  @Override
+  public void clear() {
+    words.clear();
+    wordIds.clear();
+    postings.clear();
+    memoryBytes = 0;
+  }
+
+  /**
+   * N-граммы дополненного слова. Повторяющиеся n-граммы различаются номером вхождения, чтобы
+   * пересечение списков считало общие n-граммы с учётом повторов.
+   */
+  private List<String> grams(String word) {
+    StringBuilder padded = new StringBuilder(word.length() + 2 * (n - 1));
+    for (int i = 0; i < n - 1; i++) {
+      padded.append(PADDING);
+    }
+    padded.append(word);
+    for (int i = 0; i < n - 1; i++) {
+      padded.append(PADDING);
+    }
+
+    int count = padded.length() - n + 1;
+    List<String> result = new ArrayList<>(count);
+    Map<String, Integer> occurrences = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      String gram = padded.substring(i, i + n);
+      int occurrence = occurrences.merge(gram, 1, Integer::sum);
+      result.add(occurrence == 1 ? gram : gram + (char) occurrence);
+    }
+    return result;
+  }
+}
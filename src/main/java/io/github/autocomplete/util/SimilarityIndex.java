@@ -0,0 +1,51 @@
+package io.github.autocomplete.util;
+
+import java.util.Collection;
+
+/**
+ * Вспомогательный индекс словаря для быстрого поиска похожих слов.
+ *
+ * <p>Индекс подключается к {@link Trie} ({@link Trie#attachSimilarityIndex(SimilarityIndex)})
+ * и пополняется при вставке новых слов. Индекс лишь отбирает кандидатов: итоговая проверка
+ * расстояния и частоты слова выполняется деревом, поэтому кандидаты могут содержать лишние слова
+ * (в том числе удалённые из дерева), но не должны терять подходящие.
+ * </p>
+ */
+public interface SimilarityIndex {
+  /**
+   * Добавляет слово в индекс. Повторное добавление слова ничего не меняет.
+   *
+   * @param word Слово
+   */
+  void add(String word);
+
+  /**
+   * Отбирает слова, которые могут находиться на расстоянии Левенштейна &lt;= tolerance от запроса.
+   *
+   * @param query Запрос
+   *
+   * @param tolerance Максимальное расстояние (не больше {@link #maxTolerance()})
+   *
+   * @return Кандидаты без повторов
+   */
+  Collection<String> candidates(String query, int tolerance);
+
+  /**
+   * Максимальное расстояние, для которого индекс не теряет подходящих слов.
+   *
+   * @return Максимальное расстояние
+   */
+  int maxTolerance();
+
+  /**
+   * Приблизительный объём памяти, занимаемый индексом.
+   *
+   * @return Оценка в байтах
+   */
+  long memoryBytes();
+
+  /**
+   * Удаляет все слова из индекса.
+   */
+  void clear();
+}
@@ -0,0 +1,200 @@
+package io.github.autocomplete.util;
+
+import io.github.autocomplete.tokenizer.InternPool;
+import java.util.Arrays;
+
+/**
+ * Счётчик вхождений токенов для предварительной агрегации перед вставкой в {@link Trie}.
+ *
+ * <p>Токены принимаются отрезками буфера токенизатора и подсчитываются в хеш-таблице с открытой
+ * адресацией, строка создаётся только для нового токена. Накопленные количества вставляются в
+ * дерево одним отсортированным проходом ({@link #drainTo(Trie)}), поэтому слово, встретившееся
+ * тысячи раз, проходится по дереву один раз. Если задан {@link InternPool}, строка нового токена
+ * берётся из пула, и повторяющиеся между загрузками слова не создаются заново.
+ * </p>
+ *
+ * <p>Экземпляр не потокобезопасен.</p>
+ */
+public final class TokenCounts {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private String[] keys = new String[INITIAL_CAPACITY];
+  private int[] hashes = new int[INITIAL_CAPACITY];
+  private long[] counts = new long[INITIAL_CAPACITY];
+  private final InternPool pool;
+  private int size;
+  private long total;
+
+  /**
+   * Создаёт счётчик без пула строк.
+   */
+  public TokenCounts() {
+    this(null);
+  }
+
+  /**
+   * Создаёт счётчик, получающий строки новых токенов из пула.
+   *
+   * @param pool Пул строк или null
+   */
+  public TokenCounts(InternPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Учитывает одно вхождение токена.
+   *
+   * @param buffer Буфер с символами токена
+   *
+   * @param offset Индекс первого символа токена
+   *
+   * @param length Длина токена
+   *
+   * @throws IllegalArgumentException Если buffer равен null ИЛИ length меньше 1 ИЛИ отрезок
+   *         выходит за границы буфера
+   */
+  public void add(char[] buffer, int offset, int length) {
+    if (buffer == null) {
+      throw new IllegalArgumentException("buffer cannot be null");
+    }
+    if (length < 1) {
+      throw new IllegalArgumentException("length cannot be less than 1");
+    }
+    if (offset < 0 || offset > buffer.length - length) {
+      throw new IllegalArgumentException("offset and length are out of buffer bounds");
+    }
+
+    int hash = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      hash = 31 * hash + buffer[i];
+    }
+    int mask = keys.length - 1;
+    int index = (hash ^ (hash >>> 16)) & mask;
+    while (keys[index] != null) {
+      if (hashes[index] == hash && matches(keys[index], buffer, offset, length)) {
+        counts[index]++;
+        total++;
+        return;
+      }
+      index = (index + 1) & mask;
+    }
+
+    keys[index] = pool == null ? new String(buffer, offset, length)
+        : pool.intern(buffer, offset, length);
+    hashes[index] = hash;
+    counts[index] = 1;
+    size++;
+    total++;
+    if (size * 2 > keys.length) {
+      resize();
+    }
+  }
+
+  /**
+   * Количество различных токенов.
+   *
+   * @return Количество токенов
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Общее количество учтённых вхождений.
+   *
+   * @return Количество вхождений
+   */
+  public long total() {
+    return total;
+  }
+
+  /**
+   * Вставляет накопленные количества в дерево (в отсортированном порядке слов) и очищает
+   * счётчик.
+   *
+   * @param trie Дерево для вставки
+   *
+   * @throws IllegalArgumentException Если trie равен null
+   */
+  public void drainTo(Trie trie) {
+    if (trie == null) {
+      throw new IllegalArgumentException("trie cannot be null");
+    }
+    if (size == 0) {
+      return;
+    }
+
+    String[] words = new String[size];
+    int n = 0;
+    for (String key : keys) {
+      if (key != null) {
+        words[n++] = key;
+      }
+    }
+    Arrays.sort(words);
+    long[] values = new long[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = countOf(words[i]);
+    }
+    trie.insertSorted(words, values, size);
+    clear();
+  }
+
+  /**
+   * Очищает счётчик.
+   */
+  public void clear() {
+    if (keys.length > INITIAL_CAPACITY) {
+      keys = new String[INITIAL_CAPACITY];
+      hashes = new int[INITIAL_CAPACITY];
+      counts = new long[INITIAL_CAPACITY];
+    } else {
+      Arrays.fill(keys, null);
+    }
+    size = 0;
+    total = 0;
+  }
+
+  private long countOf(String word) {
+    int hash = word.hashCode();
+    int mask = keys.length - 1;
+    int index = (hash ^ (hash >>> 16)) & mask;
+    while (!word.equals(keys[index])) {
+      index = (index + 1) & mask;
+    }
+    return counts[index];
+  }
+
+  private void resize() {
+    String[] oldKeys = keys;
+    int[] oldHashes = hashes;
+    long[] oldCounts = counts;
+    keys = new String[oldKeys.length * 2];
+    hashes = new int[keys.length];
+    counts = new long[keys.length];
+    int mask = keys.length - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int index = (oldHashes[i] ^ (oldHashes[i] >>> 16)) & mask;
+        while (keys[index] != null) {
+          index = (index + 1) & mask;
+        }
+        keys[index] = oldKeys[i];
+        hashes[index] = oldHashes[i];
+        counts[index] = oldCounts[i];
+      }
+    }
+  }
+
+  private static boolean matches(String key, char[] buffer, int offset, int length) {
+    if (key.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (key.charAt(i) != buffer[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -1,5 +1,9 @@
 package io.github.autocomplete.util;
 
+import io.github.autocomplete.distance.BoundedDistance;
+import io.github.autocomplete.distance.Levenshtein;
+import io.github.autocomplete.distance.LevenshteinAutomaton;
+import io.github.autocomplete.model.Candidate;
 import io.github.autocomplete.model.WordFrequency;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
@@ -9,10 +13,15 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 
 /**
@@ -22,7 +31,21 @@ public class Trie {
   public static final int MAGIC_NUMBER = 0x54524945; // "TRIE" в hex
   public static final int VERSION = 1;
 
+  /**
+   * Количество узлов дерева, начиная с которого поиск похожих префиксов с {@link Executor}
+   * распараллеливается.
+   */
+  public static final int PARALLEL_THRESHOLD = 50_000;
+
+  private static final SimilarityIndex[] NO_INDEXES = new SimilarityIndex[0];
+
   private final TrieNode root;
+  // Заменяется целиком при подключении и отключении индекса, поэтому вставка читает его без
+  // блокировок
+  private volatile SimilarityIndex[] similarityIndexes = NO_INDEXES;
+  private int nodeCount;
+  // Меняется при каждом изменении дерева; читается без блокировок, поэтому volatile
+  private volatile long modificationCount;
 
   /**
    * Создаёт пустое дерево.
@@ -57,17 +80,215 @@ public class Trie {
       throw new IllegalArgumentException("word cannot be null or empty");
     }
 
+    modificationCount++;
     TrieNode current = root;
-    for (char c : word.toCharArray()) {
-      Map<Character, TrieNode> children = current.getChildren();
-      TrieNode child = children.get(c);
-      if (child == null) {
-        child = new TrieNode();
-        children.put(c, child);
-      }
-      current = child;
+    for (int i = 0; i < word.length(); i++) {
+      current = childOrCreate(current, word.charAt(i));
     }
     current.incrementFrequency();
+    if (current.getFrequency() == 1) {
+      indexWord(word);
+    }
+  }
+
+  /**
+   * Вставляет слово, заданное отрезком массива символов. Для уже известного слова строка не
+   * создаётся - достаточно пройти по символам буфера.
+   *
+   * @param buffer Буфер с символами слова
+   *
+   * @param offset Индекс первого символа слова
+   *
+   * @param length Длина слова
+   *
+   * @throws IllegalArgumentException Если buffer равен null ИЛИ length меньше 1 ИЛИ отрезок
+   *         выходит за границы буфера
+   */
+  public void insert(char[] buffer, int offset, int length) {
+    if (buffer == null) {
+      throw new IllegalArgumentException("buffer cannot be null");
+    }
+    if (length < 1) {
+      throw new IllegalArgumentException("length cannot be less than 1");
+    }
+    if (offset < 0 || offset > buffer.length - length) {
+      throw new IllegalArgumentException("offset and length are out of buffer bounds");
+    }
+
+    modificationCount++;
+    TrieNode current = root;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      current = childOrCreate(current, buffer[i]);
+    }
+    current.incrementFrequency();
+    if (current.getFrequency() == 1 && similarityIndexes.length > 0) {
+      indexWord(new String(buffer, offset, length));
+    }
+  }
+
+  /**
+   * Вставляет слово, увеличивая его частоту сразу на count.
+   *
+   * @param word Слово для вставки
+   *
+   * @param count Количество вхождений
+   *
+   * @throws IllegalArgumentException Если word равен null или пустой строке ИЛИ count меньше 1
+   *
+   * @throws ArithmeticException Если частота слова превышает {@link Integer#MAX_VALUE}
+   */
+  public void insert(String word, long count) {
+    if (word == null || word.isEmpty()) {
+      throw new IllegalArgumentException("word cannot be null or empty");
+    }
+    if (count < 1) {
+      throw new IllegalArgumentException("count cannot be less than 1");
+    }
+
+    modificationCount++;
+    TrieNode current = root;
+    for (int i = 0; i < word.length(); i++) {
+      current = childOrCreate(current, word.charAt(i));
+    }
+    addCount(current, word, count);
+  }
+
+  /**
+   * Вставляет слова с количествами вхождений. Слова обрабатываются в отсортированном порядке, и
+   * общий префикс соседних слов не проходится заново: спуск продолжается от узла, на котором
+   * закончился общий префикс с предыдущим словом.
+   *
+   * @param counts Слова и количества их вхождений
+   *
+   * @throws IllegalArgumentException Если counts равен null ИЛИ содержит пустое слово или
+   *         количество меньше 1 (в этом случае дерево не изменяется)
+   *
+   * @throws ArithmeticException Если частота слова превышает {@link Integer#MAX_VALUE}
+   */
+  public void insertAll(Map<String, Long> counts) {
+    if (counts == null) {
+      throw new IllegalArgumentException("counts cannot be null");
+    }
+
+    String[] words = new String[counts.size()];
+    int size = 0;
+    for (Map.Entry<String, Long> entry : counts.entrySet()) {
+      if (entry.getKey() == null || entry.getKey().isEmpty()) {
+        throw new IllegalArgumentException("word cannot be null or empty");
+      }
+      if (entry.getValue() == null || entry.getValue() < 1) {
+        throw new IllegalArgumentException("count cannot be less than 1");
+      }
+      words[size++] = entry.getKey();
+    }
+    Arrays.sort(words);
+    long[] values = new long[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = counts.get(words[i]);
+    }
+    insertSorted(words, values, size);
+  }
+
+  /**
+   * Вставляет слова с количествами, переиспользуя путь общего префикса соседних слов. Порядок
+   * слов влияет только на количество переиспользованных узлов; наибольшая экономия - для
+   * отсортированных слов.
+   */
+  void insertSorted(String[] words, long[] counts, int size) {
+    modificationCount++;
+    TrieNode[] path = new TrieNode[17];
+    path[0] = root;
+    String previous = "";
+    for (int k = 0; k < size; k++) {
+      String word = words[k];
+      int common = 0;
+      int limit = Math.min(previous.length(), word.length());
+      while (common < limit && previous.charAt(common) == word.charAt(common)) {
+        common++;
+      }
+      if (path.length <= word.length()) {
+        path = Arrays.copyOf(path, Math.max(path.length * 2, word.length() + 1));
+      }
+
+      TrieNode current = path[common];
+      for (int i = common; i < word.length(); i++) {
+        current = childOrCreate(current, word.charAt(i));
+        path[i + 1] = current;
+      }
+      addCount(current, word, counts[k]);
+      previous = word;
+    }
+  }
+
+  private void addCount(TrieNode node, String word, long count) {
+    boolean added = node.getFrequency() == 0;
+    node.setFrequency(Math.toIntExact(node.getFrequency() + count));
+    if (added) {
+      indexWord(word);
+    }
+  }
+
+  private void indexWord(String word) {
+    for (SimilarityIndex index : similarityIndexes) {
+      index.add(word);
+    }
+  }
+
+  private TrieNode childOrCreate(TrieNode node, char c) {
+    Map<Character, TrieNode> children = node.getChildren();
+    TrieNode child = children.get(c);
+    if (child == null) {
+      child = new TrieNode();
+      children.put(c, child);
+      nodeCount++;
+    }
+    return child;
+  }
+
+  /**
+   * Добавляет к дереву все слова другого дерева вместе с частотами. Деревья обходятся совместно,
+   * поэтому строки создаются только для новых слов при подключённом индексе похожих слов.
+   *
+   * @param other Дерево, слова которого добавляются (не изменяется)
+   *
+   * @throws IllegalArgumentException Если other равен null или совпадает с этим деревом
+   *
+   * @throws ArithmeticException Если частота слова превышает {@link Integer#MAX_VALUE}
+   */
+  public void merge(Trie other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+    if (other == this) {
+      throw new IllegalArgumentException("cannot merge trie into itself");
+    }
+
+    modificationCount++;
+    mergeNode(root, other.root, new StringBuilder());
+  }
+
+  private void mergeNode(TrieNode target, TrieNode source, StringBuilder current) {
+    if (source.getFrequency() > 0) {
+      boolean added = target.getFrequency() == 0;
+      target.setFrequency(Math.addExact(target.getFrequency(), source.getFrequency()));
+      if (added && similarityIndexes.length > 0) {
+        indexWord(current.toString());
+      }
+    }
+    for (Map.Entry<Character, TrieNode> entry : source.getChildren().entrySet()) {
+      current.append(entry.getKey());
+      mergeNode(childOrCreate(target, entry.getKey()), entry.getValue(), current);
+      current.deleteCharAt(current.length() - 1);
+    }
+  }
+
+  /**
+   * Возвращает количество узлов дерева (без корня).
+   *
+   * @return Количество узлов
+   */
+  public int getNodeCount() {
+    return nodeCount;
   }
 
   /**
@@ -102,6 +323,7 @@ public class Trie {
       throw new IllegalArgumentException("word cannot be null or empty");
     }
 
+    modificationCount++;
     if (!trulyDelete) {
       TrieNode node = getNode(word);
       if (node != null) {
@@ -143,6 +365,7 @@ public class Trie {
     boolean shouldDeleteChild = removeAndPrune(child, word, index + 1);
     if (shouldDeleteChild) {
       node.getChildren().remove(c);
+      nodeCount--;
     }
     return node.getChildren().isEmpty() && node.getFrequency() == 0;
   }
@@ -219,6 +442,118 @@ public class Trie {
     return heap.toSortedList();
   }
 
+  /**
+   * Ищет автодополнения сразу для префикса и похожих на него префиксов за один обход. Префиксы
+   * сводятся к минимальному набору непересекающихся поддеревьев (префикс, являющийся продолжением
+   * другого, отбрасывается), каждое поддерево обходится один раз, а кандидаты попадают в общую
+   * кучу top-N. Вес слова - частота, умноженная на originalWeight для слов, начинающихся с
+   * prefix, и на similarWeight для остальных.
+   *
+   * @param prefix Исходный префикс
+   *
+   * @param originalWeight Вес для слов исходного префикса
+   *
+   * @param similarPrefixes Похожие префиксы
+   *
+   * @param similarWeight Вес для слов похожих префиксов
+   *
+   * @param limit Максимальное количество результатов
+   *
+   * @return Кандидаты по убыванию веса (при равном весе - по возрастанию слова)
+   *
+   * @throws IllegalArgumentException Если prefix равен null или пустой строке ИЛИ similarPrefixes
+   *         равен null ИЛИ limit меньше 1
+   */
+  public List<Candidate> findWeightedCompletions(String prefix, double originalWeight,
+      Collection<String> similarPrefixes, double similarWeight, int limit) {
+    if (prefix == null || prefix.isEmpty()) {
+      throw new IllegalArgumentException("prefix cannot be null or empty");
+    }
+    if (similarPrefixes == null) {
+      throw new IllegalArgumentException("similarPrefixes cannot be null");
+    }
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit cannot be less than 1");
+    }
+
+    List<String> roots = new ArrayList<>(similarPrefixes.size() + 1);
+    roots.add(prefix);
+    for (String similar : similarPrefixes) {
+      if (similar != null && !similar.isEmpty()) {
+        roots.add(similar);
+      }
+    }
+    // После сортировки продолжения префикса идут сразу за ним
+    Collections.sort(roots);
+
+    TrieNode originalNode = getNode(prefix);
+    CandidateHeap heap = new CandidateHeap(limit);
+    StringBuilder current = new StringBuilder();
+    String lastRoot = null;
+    for (String root : roots) {
+      if (lastRoot != null && root.startsWith(lastRoot)) {
+        continue;
+      }
+      lastRoot = root;
+      TrieNode node = getNode(root);
+      if (node == null) {
+        continue;
+      }
+      current.setLength(0);
+      current.append(root);
+      collectWeightedCompletions(node, current, originalNode, originalWeight, similarWeight,
+          heap);
+    }
+    return heap.toSortedList();
+  }
+
+  private void collectWeightedCompletions(TrieNode node, StringBuilder current,
+      TrieNode originalNode, double originalWeight, double weight, CandidateHeap heap) {
+    if (node == originalNode) {
+      weight = originalWeight;
+    }
+    if (node.getFrequency() > 0) {
+      heap.offer(node.getFrequency() * weight, current);
+    }
+    for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
+      current.append(entry.getKey());
+      collectWeightedCompletions(entry.getValue(), current, originalNode, originalWeight, weight,
+          heap);
+      current.deleteCharAt(current.length() - 1);
+    }
+  }
+
+  /**
+   * Проверяет, есть ли в дереве хотя бы одно слово с данным префиксом. Обход поддерева
+   * прекращается на первом найденном слове.
+   *
+   * @param prefix Префикс для проверки
+   *
+   * @return true, если существует слово с ненулевой частотой, начинающееся с prefix
+   *
+   * @throws IllegalArgumentException Если prefix равен null или пустой строке
+   */
+  public boolean hasCompletions(String prefix) {
+    if (prefix == null || prefix.isEmpty()) {
+      throw new IllegalArgumentException("prefix cannot be null or empty");
+    }
+
+    TrieNode node = getNode(prefix);
+    return node != null && containsWord(node);
+  }
+
+  private boolean containsWord(TrieNode node) {
+    if (node.getFrequency() > 0) {
+      return true;
+    }
+    for (TrieNode child : node.getChildren().values()) {
+      if (containsWord(child)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void collectCompletions(TrieNode node, StringBuilder current, FixedSizeMinHeap heap) {
     if (node.getFrequency() > 0) {
       heap.add(new WordFrequency(current.toString(), node.getFrequency()));
@@ -266,8 +601,93 @@ public class Trie {
    * Очищает всё дерево, удаляя все слова и частоты.
    */
   public void clear() {
+    modificationCount++;
     root.getChildren().clear();
     root.setFrequency(0);
+    nodeCount = 0;
+    for (SimilarityIndex index : similarityIndexes) {
+      index.clear();
+    }
+  }
+
+  /**
+   * Подключает индекс для поиска похожих слов ({@link #findSimilarPrefixesByIndex}). Индекс
+   * очищается и заполняется всеми словами дерева, после чего пополняется при вставке новых слов.
+   * К дереву можно подключить несколько индексов (например, по одному на каждого пользователя
+   * дерева); подключение и отключение синхронизированы на дереве.
+   *
+   * @param index Индекс
+   *
+   * @throws IllegalArgumentException Если index равен null
+   */
+  public synchronized void attachSimilarityIndex(SimilarityIndex index) {
+    if (index == null) {
+      throw new IllegalArgumentException("index cannot be null");
+    }
+
+    fillIndex(index);
+    for (SimilarityIndex attached : similarityIndexes) {
+      if (attached == index) {
+        return;
+      }
+    }
+    SimilarityIndex[] indexes = Arrays.copyOf(similarityIndexes, similarityIndexes.length + 1);
+    indexes[indexes.length - 1] = index;
+    similarityIndexes = indexes;
+  }
+
+  /**
+   * Отключает индекс, подключённый {@link #attachSimilarityIndex(SimilarityIndex)}. Остальные
+   * подключённые индексы не затрагиваются.
+   *
+   * @param index Индекс
+   *
+   * @return true, если индекс был подключён
+   */
+  public synchronized boolean detachSimilarityIndex(SimilarityIndex index) {
+    SimilarityIndex[] indexes = similarityIndexes;
+    for (int i = 0; i < indexes.length; i++) {
+      if (indexes[i] == index) {
+        SimilarityIndex[] remaining = new SimilarityIndex[indexes.length - 1];
+        System.arraycopy(indexes, 0, remaining, 0, i);
+        System.arraycopy(indexes, i + 1, remaining, i, remaining.length - i);
+        similarityIndexes = remaining.length == 0 ? NO_INDEXES : remaining;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Проверяет, подключён ли индекс к дереву.
+   *
+   * @param index Индекс
+   *
+   * @return true, если индекс подключён
+   */
+  public boolean isSimilarityIndexAttached(SimilarityIndex index) {
+    for (SimilarityIndex attached : similarityIndexes) {
+      if (attached == index) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void fillIndex(SimilarityIndex index) {
+    index.clear();
+    getAllWords().keySet().forEach(index::add);
+  }
+
+  /**
+   * Счётчик изменений дерева: увеличивается при каждой вставке, слиянии, загрузке, удалении и
+   * очистке. По нему можно понять, что производные от дерева данные (например, множество
+   * префиксов без автодополнений) устарели.
+   *
+   * @return Текущее значение счётчика
+   */
+  public long modificationCount() {
+    return modificationCount;
   }
 
   /**
@@ -289,6 +709,396 @@ public class Trie {
    */
   public List<String> findSimilarPrefixes(String prefix, int tolerance, int threshold,
       BiFunction<String, String, Integer> distanceFunction) {
+    checkSimilarPrefixArguments(prefix, tolerance, threshold);
+    if (distanceFunction == null) {
+      throw new IllegalArgumentException("distanceFunction cannot be null");
+    }
+
+    if (prefix.length() < threshold) {
+      return exactMatch(prefix);
+    }
+    List<String> result = new ArrayList<>();
+    collectSimilarPrefixes(root, new StringBuilder(), prefix, tolerance, distanceFunction, result);
+    return result;
+  }
+
+  /**
+   * Возвращает список префиксов в дереве, находящихся на расстоянии &lt;= tolerance от заданного
+   * префикса, с ограниченной функцией расстояния: для каждого слова достаточно узнать, не
+   * превышает ли расстояние tolerance, поэтому функция может завершиться досрочно. Слово
+   * передаётся в функцию без копирования и превращается в строку только при совпадении. Для
+   * коротких префиксов (длина &lt; threshold) возвращает только точные совпадения.
+   *
+   * @param prefix Префикс для поиска
+   *
+   * @param tolerance Максимальное расстояние между строками
+   *
+   * @param threshold Пороговое значение длины строки, для которой применяется толерантность
+   *
+   * @param distance Ограниченная функция расстояния
+   *
+   * @return Список префиксов, находящихся на расстоянии &lt;= tolerance от заданного префикса
+   *
+   * @throws IllegalArgumentException Если prefix равен null или пустой строке ИЛИ tolerance меньше
+   *         0 ИЛИ threshold меньше 0 ИЛИ distance равен null
+   */
+  public List<String> findSimilarPrefixes(String prefix, int tolerance, int threshold,
+      BoundedDistance distance) {
+    checkSimilarPrefixArguments(prefix, tolerance, threshold);
+    if (distance == null) {
+      throw new IllegalArgumentException("distance cannot be null");
+    }
+
+    if (prefix.length() < threshold) {
+      return exactMatch(prefix);
+    }
+    List<String> result = new ArrayList<>();
+    collectSimilarPrefixes(root, new StringBuilder(), prefix, tolerance, distance, result);
+    return result;
+  }
+
+  /**
+   * Возвращает список префиксов в дереве, находящихся на расстоянии &lt;= tolerance от заданного
+   * префикса, распределяя обход поддеревьев первого уровня между задачами executor. Результаты
+   * объединяются в порядке символов корней поддеревьев, поэтому не зависят от планирования
+   * задач. Для деревьев меньше {@link #PARALLEL_THRESHOLD} узлов обход выполняется в вызывающем
+   * потоке. Дерево не должно изменяться до завершения поиска. Для коротких префиксов
+   * (длина &lt; threshold) возвращает только точные совпадения.
+   *
+   * @param prefix Префикс для поиска
+   *
+   * @param tolerance Максимальное расстояние между строками
+   *
+   * @param threshold Пороговое значение длины строки, для которой применяется толерантность
+   *
+   * @param distance Ограниченная функция расстояния (должна допускать вызов из разных потоков)
+   *
+   * @param executor Исполнитель задач обхода поддеревьев
+   *
+   * @return Список префиксов, находящихся на расстоянии &lt;= tolerance от заданного префикса
+   *
+   * @throws IllegalArgumentException Если prefix равен null или пустой строке ИЛИ tolerance меньше
+   *         0 ИЛИ threshold меньше 0 ИЛИ distance или executor равны null
+   */
+  public List<String> findSimilarPrefixes(String prefix, int tolerance, int threshold,
+      BoundedDistance distance, Executor executor) {
+    checkSimilarPrefixArguments(prefix, tolerance, threshold);
+    if (distance == null) {
+      throw new IllegalArgumentException("distance cannot be null");
+    }
+    if (executor == null) {
+      throw new IllegalArgumentException("executor cannot be null");
+    }
+
+    if (prefix.length() < threshold || nodeCount < PARALLEL_THRESHOLD
+        || root.getChildren().size() < 2) {
+      return findSimilarPrefixes(prefix, tolerance, threshold, distance);
+    }
+
+    List<Map.Entry<Character, TrieNode>> subtrees = new ArrayList<>(root.getChildren().entrySet());
+    subtrees.sort(Map.Entry.comparingByKey());
+    List<CompletableFuture<List<String>>> tasks = new ArrayList<>(subtrees.size());
+    for (Map.Entry<Character, TrieNode> subtree : subtrees) {
+      tasks.add(CompletableFuture.supplyAsync(() -> {
+        List<String> part = new ArrayList<>();
+        collectSimilarPrefixes(subtree.getValue(), new StringBuilder().append(subtree.getKey()),
+            prefix, tolerance, distance, part);
+        return part;
+      }, executor));
+    }
+
+    List<String> result = new ArrayList<>();
+    for (CompletableFuture<List<String>> task : tasks) {
+      result.addAll(task.join());
+    }
+    return result;
+  }
+
+  private void collectSimilarPrefixes(TrieNode node, StringBuilder current, String target,
+      int tolerance, BoundedDistance distance, List<String> result) {
+    if (current.length() > 0 && node.getFrequency() > 0
+        && distance.distance(target, current, tolerance) <= tolerance) {
+      result.add(current.toString());
+    }
+    for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
+      current.append(entry.getKey());
+      collectSimilarPrefixes(entry.getValue(), current, target, tolerance, distance, result);
+      current.deleteCharAt(current.length() - 1);
+    }
+  }
+
+  /**
+   * Возвращает список слов в дереве, находящихся на расстоянии Левенштейна &lt;= tolerance от
+   * заданного префикса. Результат совпадает с
+   * {@link #findSimilarPrefixes(String, int, int, BiFunction)} с функцией расстояния Левенштейна,
+   * но расстояние не вычисляется заново для каждого слова: при спуске по дереву каждый узел
+   * получает одну строку матрицы динамического программирования, вычисленную из строки родителя,
+   * а поддерево отбрасывается, как только минимум строки превышает tolerance. Строки матрицы
+   * переиспользуются для каждой глубины, так что обход не выделяет память (кроме строк
+   * результата). Для коротких префиксов (длина &lt; threshold) возвращает только точные
+   * совпадения.
+   *
+   * @param prefix Префикс для поиска
+   *
+   * @param tolerance Максимальное расстояние между строками
+   *
+   * @param threshold Пороговое значение длины строки, для которой применяется толерантность
+   *
+   * @return Список слов, находящихся на расстоянии &lt;= tolerance от заданного префикса
+   *
+   * @throws IllegalArgumentException Если prefix равен null или пустой строке ИЛИ tolerance меньше
+   *         0 ИЛИ threshold меньше 0
+   */
+  public List<String> findSimilarPrefixes(String prefix, int tolerance, int threshold) {
+    checkSimilarPrefixArguments(prefix, tolerance, threshold);
+
+    if (prefix.length() < threshold) {
+      return exactMatch(prefix);
+    }
+    List<String> result = new ArrayList<>();
+    // Значение строки на глубине d не меньше d - prefix.length(), поэтому глубже
+    // prefix.length() + tolerance обход не спускается
+    long maxDepth = (long) prefix.length() + tolerance;
+    RowPool pool = new RowPool(prefix.length() + 1, (int) Math.min(maxDepth + 1, 64));
+    int[] first = pool.row(0);
+    for (int j = 0; j <= prefix.length(); j++) {
+      first[j] = j;
+    }
+    collectByRows(root, 0, maxDepth, prefix, tolerance, pool, result);
+    return result;
+  }
+
+  /**
+   * Строки матрицы расстояний и символы текущего пути, переиспользуемые для каждой глубины.
+   */
+  private static final class RowPool {
+    private final int width;
+    private int[][] rows;
+    private char[] path;
+
+    RowPool(int width, int depthHint) {
+      this.width = width;
+      this.rows = new int[depthHint][];
+      this.path = new char[depthHint];
+    }
+
+    int[] row(int depth) {
+      if (depth >= rows.length) {
+        int capacity = Math.max(rows.length * 2, depth + 1);
+        rows = Arrays.copyOf(rows, capacity);
+        path = Arrays.copyOf(path, capacity);
+      }
+      if (rows[depth] == null) {
+        rows[depth] = new int[width];
+      }
+      return rows[depth];
+    }
+  }
+
+  private void collectByRows(TrieNode node, int depth, long maxDepth, String target,
+      int tolerance, RowPool pool, List<String> result) {
+    int[] row = pool.rows[depth];
+    if (depth > 0 && node.getFrequency() > 0 && row[target.length()] <= tolerance) {
+      result.add(new String(pool.path, 0, depth));
+    }
+    if (depth >= maxDepth) {
+      return;
+    }
+
+    int[] next = pool.row(depth + 1);
+    for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
+      char c = entry.getKey();
+      if (nextRow(row, next, depth + 1, target, c) > tolerance) {
+        continue;
+      }
+      pool.path[depth] = c;
+      collectByRows(entry.getValue(), depth + 1, maxDepth, target, tolerance, pool, result);
+    }
+  }
+
+  /**
+   * Вычисляет строку матрицы расстояний для узла глубины depth по строке родителя.
+   *
+   * @return Минимум новой строки
+   */
+  private static int nextRow(int[] row, int[] next, int depth, String target, char c) {
+    next[0] = depth;
+    int min = depth;
+    for (int j = 1; j <= target.length(); j++) {
+      int cost = target.charAt(j - 1) == c ? 0 : 1;
+      next[j] = Math.min(Math.min(row[j] + 1, next[j - 1] + 1), row[j - 1] + cost);
+      min = Math.min(min, next[j]);
+    }
+    return min;
+  }
+
+  /**
+   * Возвращает корни нечётких автодополнений: узлы дерева, путь к которым находится на расстоянии
+   * Левенштейна &lt;= tolerance от заданного префикса. В отличие от
+   * {@link #findSimilarPrefixes(String, int, int)}, с префиксом сравниваются не целые слова, а
+   * любые начала путей, и спуск прекращается на первой подходящей глубине: все слова поддерева
+   * найденного узла являются автодополнениями, поэтому более глубокие узлы не проверяются.
+   * Найденные корни не вложены друг в друга. Для коротких префиксов (длина &lt; threshold)
+   * возвращает только точное совпадение.
+   *
+   * @param prefix Префикс для поиска
+   *
+   * @param tolerance Максимальное расстояние между строками
+   *
+   * @param threshold Пороговое значение длины строки, для которой применяется толерантность
+   *
+   * @return Пути к корням автодополнений (для {@link #findCompletions(String, int)})
+   *
+   * @throws IllegalArgumentException Если prefix равен null или пустой строке ИЛИ tolerance меньше
+   *         0 ИЛИ threshold меньше 0
+   */
+  public List<String> findFuzzyPrefixRoots(String prefix, int tolerance, int threshold) {
+    checkSimilarPrefixArguments(prefix, tolerance, threshold);
+
+    if (prefix.length() < threshold) {
+      return exactMatch(prefix);
+    }
+    List<String> result = new ArrayList<>();
+    // Совпадение находится не глубже prefix.length() + tolerance
+    long maxDepth = (long) prefix.length() + tolerance;
+    RowPool pool = new RowPool(prefix.length() + 1, (int) Math.min(maxDepth + 1, 64));
+    int[] first = pool.row(0);
+    for (int j = 0; j <= prefix.length(); j++) {
+      first[j] = j;
+    }
+    collectFuzzyRoots(root, 0, maxDepth, prefix, tolerance, pool, result);
+    return result;
+  }
+
+  private void collectFuzzyRoots(TrieNode node, int depth, long maxDepth, String target,
+      int tolerance, RowPool pool, List<String> result) {
+    int[] row = pool.rows[depth];
+    if (depth > 0 && row[target.length()] <= tolerance) {
+      if (containsWord(node)) {
+        result.add(new String(pool.path, 0, depth));
+      }
+      return;
+    }
+    if (depth >= maxDepth) {
+      return;
+    }
+
+    int[] next = pool.row(depth + 1);
+    for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
+      char c = entry.getKey();
+      if (nextRow(row, next, depth + 1, target, c) > tolerance) {
+        continue;
+      }
+      pool.path[depth] = c;
+      collectFuzzyRoots(entry.getValue(), depth + 1, maxDepth, target, tolerance, pool, result);
+    }
+  }
+
+  /**
+   * Возвращает список слов в дереве, находящихся на расстоянии Левенштейна &lt;= tolerance от
+   * заданного префикса. Результат совпадает с
+   * {@link #findSimilarPrefixes(String, int, int, BiFunction)} с функцией расстояния Левенштейна,
+   * но обход дерева совмещается с автоматом Левенштейна для префикса: поддеревья, в которых
+   * автомат переходит в мёртвое состояние, не посещаются. Для коротких префиксов
+   * (длина &lt; threshold) возвращает только точные совпадения.
+   *
+   * @param prefix Префикс для поиска
+   *
+   * @param tolerance Максимальное расстояние между строками
+   *
+   * @param threshold Пороговое значение длины строки, для которой применяется толерантность
+   *
+   * @return Список слов, находящихся на расстоянии &lt;= tolerance от заданного префикса
+   *
+   * @throws IllegalArgumentException Если prefix равен null или пустой строке ИЛИ tolerance меньше
+   *         0 ИЛИ threshold меньше 0
+   */
+  public List<String> findSimilarPrefixesByAutomaton(String prefix, int tolerance,
+      int threshold) {
+    checkSimilarPrefixArguments(prefix, tolerance, threshold);
+
+    if (prefix.length() < threshold) {
+      return exactMatch(prefix);
+    }
+    List<String> result = new ArrayList<>();
+    LevenshteinAutomaton automaton = new LevenshteinAutomaton(prefix, tolerance);
+    collectByAutomaton(root, automaton.start(), new StringBuilder(), automaton, result);
+    return result;
+  }
+
+  /**
+   * Возвращает список слов в дереве, находящихся на расстоянии Левенштейна &lt;= tolerance от
+   * заданного префикса, с помощью первого подключённого {@link SimilarityIndex}, поддерживающего
+   * такое расстояние (см. {@link #findSimilarPrefixesByIndex(String, int, int, SimilarityIndex)}).
+   *
+   * @param prefix Префикс для поиска
+   *
+   * @param tolerance Максимальное расстояние между строками
+   *
+   * @param threshold Пороговое значение длины строки, для которой применяется толерантность
+   *
+   * @return Список слов, находящихся на расстоянии &lt;= tolerance от заданного префикса
+   *
+   * @throws IllegalArgumentException Если prefix равен null или пустой строке ИЛИ tolerance меньше
+   *         0 ИЛИ threshold меньше 0
+   */
+  public List<String> findSimilarPrefixesByIndex(String prefix, int tolerance, int threshold) {
+    for (SimilarityIndex index : similarityIndexes) {
+      if (tolerance <= index.maxTolerance()) {
+        return findSimilarPrefixesByIndex(prefix, tolerance, threshold, index);
+      }
+    }
+    return findSimilarPrefixesByIndex(prefix, tolerance, threshold, null);
+  }
+
+  /**
+   * Возвращает список слов в дереве, находящихся на расстоянии Левенштейна &lt;= tolerance от
+   * заданного префикса, с помощью указанного {@link SimilarityIndex}: индекс отбирает
+   * кандидатов, а дерево проверяет их частоту и точное расстояние. Если индекс не задан, не
+   * подключён к дереву или не поддерживает такое расстояние, используется обход дерева
+   * ({@link #findSimilarPrefixes(String, int, int)}). Для коротких префиксов
+   * (длина &lt; threshold) возвращает только точные совпадения.
+   *
+   * @param prefix Префикс для поиска
+   *
+   * @param tolerance Максимальное расстояние между строками
+   *
+   * @param threshold Пороговое значение длины строки, для которой применяется толерантность
+   *
+   * @param index Индекс, подключённый {@link #attachSimilarityIndex(SimilarityIndex)}, или null
+   *
+   * @return Список слов, находящихся на расстоянии &lt;= tolerance от заданного префикса
+   *
+   * @throws IllegalArgumentException Если prefix равен null или пустой строке ИЛИ tolerance меньше
+   *         0 ИЛИ threshold меньше 0
+   */
+  public List<String> findSimilarPrefixesByIndex(String prefix, int tolerance, int threshold,
+      SimilarityIndex index) {
+    checkSimilarPrefixArguments(prefix, tolerance, threshold);
+
+    if (index == null || tolerance > index.maxTolerance() || !isSimilarityIndexAttached(index)) {
+      return findSimilarPrefixes(prefix, tolerance, threshold);
+    }
+    if (prefix.length() < threshold) {
+      return exactMatch(prefix);
+    }
+    List<String> candidates = new ArrayList<>();
+    for (String candidate : index.candidates(prefix, tolerance)) {
+      if (getFrequency(candidate) > 0) {
+        candidates.add(candidate);
+      }
+    }
+    int[] distances = Levenshtein.batchDistance(prefix, candidates, tolerance);
+    List<String> result = new ArrayList<>();
+    for (int i = 0; i < distances.length; i++) {
+      if (distances[i] <= tolerance) {
+        result.add(candidates.get(i));
+      }
+    }
+    return result;
+  }
+
+  private static void checkSimilarPrefixArguments(String prefix, int tolerance, int threshold) {
     if (prefix == null || prefix.isEmpty()) {
       throw new IllegalArgumentException("prefix cannot be null or empty");
     }
@@ -298,32 +1108,42 @@ public class Trie {
     if (threshold < 0) {
       throw new IllegalArgumentException("threshold cannot be negative");
     }
-    if (distanceFunction == null) {
-      throw new IllegalArgumentException("distanceFunction cannot be null");
+  }
+
+  private List<String> exactMatch(String prefix) {
+    List<String> result = new ArrayList<>();
+    if (getNode(prefix) != null) {
+      result.add(prefix);
     }
+    return result;
+  }
 
-    List<String> result = new java.util.ArrayList<>();
-    if (prefix.length() < threshold) {
-      TrieNode node = getNode(prefix);
-      if (node != null) {
-        result.add(prefix);
+  private void collectByAutomaton(TrieNode node, int state, StringBuilder current,
+      LevenshteinAutomaton automaton, List<String> result) {
+    if (current.length() > 0 && node.getFrequency() > 0 && automaton.isMatch(state)) {
+      result.add(current.toString());
+    }
+    for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
+      int next = automaton.step(state, entry.getKey());
+      if (next == LevenshteinAutomaton.DEAD) {
+        continue;
       }
-      return result;
+      current.append(entry.getKey());
+      collectByAutomaton(entry.getValue(), next, current, automaton, result);
+      current.deleteCharAt(current.length() - 1);
     }
-    collectSimilarPrefixes(root, new StringBuilder(), prefix, tolerance, distanceFunction, result);
-    return result;
   }
 
   private void collectSimilarPrefixes(TrieNode node, StringBuilder current, String target,
       int tolerance, BiFunction<String, String, Integer> distanceFunction,
-      java.util.List<String> result) {
+      List<String> result) {
     if (current.length() > 0 && node.getFrequency() > 0) {
       String candidate = current.toString();
       if (distanceFunction.apply(target, candidate) <= tolerance) {
         result.add(candidate);
       }
     }
-    for (java.util.Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
+    for (Map.Entry<Character, TrieNode> entry : node.getChildren().entrySet()) {
       current.append(entry.getKey());
       collectSimilarPrefixes(entry.getValue(), current, target, tolerance, distanceFunction,
           result);
@@ -384,6 +1204,10 @@ public class Trie {
 
       clear();
       loadNode(root, in);
+      modificationCount++;
+    }
+    for (SimilarityIndex index : similarityIndexes) {
+      fillIndex(index);
     }
   }
 
@@ -413,6 +1237,7 @@ public class Trie {
       char key = in.readChar();
       TrieNode child = new TrieNode();
       node.getChildren().put(key, child);
+      nodeCount++;
       loadNode(child, in);
     }
   }
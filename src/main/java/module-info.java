@@ -25,7 +25,11 @@
  * @since 1.0.1
  */
 module io.github.autocomplete {
+  requires static jdk.incubator.vector;
+
   exports io.github.autocomplete;
+
+  exports io.github.autocomplete.cache;
   
   exports io.github.autocomplete.config;
 
@@ -2,9 +2,18 @@ package io.github.autocomplete;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import io.github.autocomplete.cache.CacheStats;
 import io.github.autocomplete.config.AutocompleteConfig;
+import io.github.autocomplete.config.CacheConfig;
 import io.github.autocomplete.model.Candidate;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -153,6 +162,144 @@ class AutocompleteProviderTest {
     assertFalse(completions.stream().anyMatch(c -> c.word().equals("apply")));
   }
 
+  @Test
+  void getAutocompleteTypoToleranceWithLevenshteinAutomaton() {
+    AutocompleteConfig config =
+        new AutocompleteConfig(io.github.autocomplete.distance.Levenshtein::distance, 1, 1, 0.5, 1.0,
+            io.github.autocomplete.config.FuzzyAlgorithm.LEVENSHTEIN_AUTOMATON);
+    provider = new AutocompleteProvider(textAnalyzer, config, 10);
+    provider.addText("apple ample apply");
+    List<Candidate> completions = provider.getAutocomplete("aple", 10);
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("apple")));
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("ample")));
+    assertFalse(completions.stream().anyMatch(c -> c.word().equals("apply")));
+  }
+
+  @Test
+  void getAutocompleteTypoToleranceWithLevenshteinRows() {
+    AutocompleteConfig config =
+        new AutocompleteConfig(io.github.autocomplete.distance.Levenshtein::distance, 1, 1, 0.5, 1.0,
+            io.github.autocomplete.config.FuzzyAlgorithm.LEVENSHTEIN_DP_ROWS);
+    provider = new AutocompleteProvider(textAnalyzer, config, 10);
+    provider.addText("apple ample apply");
+    List<Candidate> completions = provider.getAutocomplete("aple", 10);
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("apple")));
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("ample")));
+    assertFalse(completions.stream().anyMatch(c -> c.word().equals("apply")));
+  }
+
+  @Test
+  void getAutocompleteTypoToleranceWithBoundedDistance() {
+    AutocompleteConfig config = AutocompleteConfig.ofBoundedDistance(
+        io.github.autocomplete.distance.BoundedDistance.levenshtein(), 1, 1, 0.5, 1.0);
+    provider = new AutocompleteProvider(textAnalyzer, config, 10);
+    provider.addText("apple ample apply");
+    List<Candidate> completions = provider.getAutocomplete("aple", 10);
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("apple")));
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("ample")));
+    assertFalse(completions.stream().anyMatch(c -> c.word().equals("apply")));
+  }
+
+  @Test
+  void getAutocompleteTypoToleranceWithDeletionIndex() {
+    AutocompleteConfig config =
+        new AutocompleteConfig(io.github.autocomplete.distance.Levenshtein::distance, 1, 1, 0.5, 1.0,
+            io.github.autocomplete.config.FuzzyAlgorithm.DELETION_INDEX);
+    provider = new AutocompleteProvider(textAnalyzer, config, 10);
+    assertEquals(0, provider.getSimilarityIndexMemoryBytes());
+    provider.addText("apple ample apply");
+    assertTrue(provider.getSimilarityIndexMemoryBytes() > 0);
+    List<Candidate> completions = provider.getAutocomplete("aple", 10);
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("apple")));
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("ample")));
+    assertFalse(completions.stream().anyMatch(c -> c.word().equals("apply")));
+
+    provider.setConfig(new AutocompleteConfig());
+    assertEquals(0, provider.getSimilarityIndexMemoryBytes());
+  }
+
+  @Test
+  void getAutocompleteTypoToleranceWithNGramIndex() {
+    AutocompleteConfig config =
+        new AutocompleteConfig(io.github.autocomplete.distance.Levenshtein::distance, 1, 1, 0.5, 1.0,
+            io.github.autocomplete.config.FuzzyAlgorithm.NGRAM_INDEX);
+    provider = new AutocompleteProvider(textAnalyzer, config, 10);
+    provider.addText("apple ample apply");
+    assertTrue(provider.getSimilarityIndexMemoryBytes() > 0);
+    List<Candidate> completions = provider.getAutocomplete("aple", 10);
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("apple")));
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("ample")));
+    assertFalse(completions.stream().anyMatch(c -> c.word().equals("apply")));
+  }
+
+  @Test
+  void nGramLengthIsConfigurable() {
+    AutocompleteConfig config = new AutocompleteConfig(
+        io.github.autocomplete.distance.Levenshtein::distance, 1, 1, 0.5, 1.0,
+        io.github.autocomplete.config.FuzzyAlgorithm.NGRAM_INDEX);
+    provider = new AutocompleteProvider(textAnalyzer, config, 10);
+    provider.addText("apple ample apply");
+    assertEquals(3, provider.getNGramLength());
+    long trigramMemory = provider.getSimilarityIndexMemoryBytes();
+
+    provider.setNGramLength(2);
+    assertEquals(2, provider.getNGramLength());
+    assertNotEquals(trigramMemory, provider.getSimilarityIndexMemoryBytes());
+    List<Candidate> completions = provider.getAutocomplete("aple", 10);
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("apple")));
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("ample")));
+
+    provider.setNGramLength(3);
+    assertEquals(trigramMemory, provider.getSimilarityIndexMemoryBytes());
+    assertThrows(IllegalArgumentException.class, () -> provider.setNGramLength(0));
+  }
+
+  @Test
+  void similarityIndexIsKeptPerProvider() {
+    AutocompleteConfig deletion = new AutocompleteConfig(
+        io.github.autocomplete.distance.Levenshtein::distance, 1, 1, 0.5, 1.0,
+        io.github.autocomplete.config.FuzzyAlgorithm.DELETION_INDEX);
+    AutocompleteConfig ngram = new AutocompleteConfig(
+        io.github.autocomplete.distance.Levenshtein::distance, 1, 1, 0.5, 1.0,
+        io.github.autocomplete.config.FuzzyAlgorithm.NGRAM_INDEX);
+    provider = new AutocompleteProvider(textAnalyzer, deletion, 10);
+    provider.addText("apple ample apply");
+    long memory = provider.getSimilarityIndexMemoryBytes();
+
+    AutocompleteProvider other =
+        new AutocompleteProvider(textAnalyzer, new AutocompleteConfig(), 10);
+    assertEquals(0, other.getSimilarityIndexMemoryBytes());
+    other.setConfig(ngram);
+    assertTrue(other.getSimilarityIndexMemoryBytes() > 0);
+    other.setConfig(new AutocompleteConfig());
+    assertEquals(0, other.getSimilarityIndexMemoryBytes());
+
+    assertEquals(memory, provider.getSimilarityIndexMemoryBytes());
+    other.addText("maple");
+    assertTrue(provider.getSimilarityIndexMemoryBytes() > memory);
+    List<Candidate> completions = provider.getAutocomplete("mple", 10);
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("maple")));
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("ample")));
+  }
+
+  @Test
+  void getAutocompleteFuzzyPrefixCompletesLongerWords() {
+    AutocompleteConfig config =
+        new AutocompleteConfig(io.github.autocomplete.distance.Levenshtein::distance, 1, 1, 0.5, 1.0,
+            io.github.autocomplete.config.FuzzyAlgorithm.FUZZY_PREFIX);
+    provider = new AutocompleteProvider(textAnalyzer, config, 10);
+    provider.addText("helloworld hello help world");
+    List<Candidate> completions = provider.getAutocomplete("helo", 10);
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("helloworld")));
+    assertTrue(completions.stream().anyMatch(c -> c.word().equals("hello")));
+    assertFalse(completions.stream().anyMatch(c -> c.word().equals("world")));
+  }
+
+  @Test
+  void setSearchExecutorNullThrowsException() {
+    assertThrows(IllegalArgumentException.class, () -> provider.setSearchExecutor(null));
+  }
+
   @Test
   void getAutocompleteTypoToleranceThreshold() {
     AutocompleteConfig config =
@@ -208,4 +355,352 @@ class AutocompleteProviderTest {
     // Second call should hit similarPrefixCache (no assertion, but should not throw or recompute)
     provider.getAutocomplete("aple", 10);
   }
+
+  @Test
+  void cacheStatsReflectHitsAndMisses() {
+    provider = new AutocompleteProvider(textAnalyzer, 10);
+    provider.addText("apple application applet");
+
+    provider.getAutocomplete("app", 2);
+    provider.getAutocomplete("app", 2);
+    provider.getAutocomplete("ban", 2);
+
+    CacheStats stats = provider.getCacheStats();
+    assertEquals(1, stats.hitCount());
+    assertEquals(2, stats.missCount());
+    assertEquals(2, stats.loadCount());
+    assertEquals(2, stats.putCount());
+  }
+
+  @Test
+  void cachedListShorterThanLimitCountsAsMiss() {
+    provider = new AutocompleteProvider(textAnalyzer, 10);
+    provider.addText("apple application applet");
+
+    provider.getAutocomplete("app", 1);
+    assertEquals(3, provider.getAutocomplete("app", 3).size());
+    provider.getAutocomplete("app", 2);
+
+    CacheStats stats = provider.getCacheStats();
+    assertEquals(1, stats.hitCount());
+    assertEquals(2, stats.missCount());
+    assertEquals(2, stats.loadCount());
+  }
+
+  @Test
+  void cacheStatsCountInvalidationsOnAddText() {
+    provider = new AutocompleteProvider(textAnalyzer, 10);
+    provider.addText("apple application");
+    provider.getAutocomplete("app", 5);
+    provider.getAutocomplete("ap", 5);
+
+    provider.addText("applet");
+
+    assertEquals(2, provider.getCacheStats().invalidationCount());
+  }
+
+  @Test
+  void similarPrefixCacheStatsAreSeparate() {
+    AutocompleteConfig config =
+        new AutocompleteConfig(io.github.autocomplete.distance.Levenshtein::distance, 1, 1, 0.5, 1.0);
+    provider = new AutocompleteProvider(textAnalyzer, config, 10);
+    provider.addText("apple ample apply");
+
+    provider.getAutocomplete("aple", 10);
+
+    CacheStats similarStats = provider.getSimilarPrefixCacheStats();
+    assertEquals(1, similarStats.missCount());
+    assertEquals(1, similarStats.loadCount());
+    assertEquals(1, provider.getCacheStats().missCount());
+  }
+
+  @Test
+  void cacheStatsEmptyWhenCacheDisabled() {
+    provider = new AutocompleteProvider(textAnalyzer, 0);
+    provider.addText("apple");
+    provider.getAutocomplete("app", 5);
+
+    assertEquals(CacheStats.EMPTY, provider.getCacheStats());
+    assertEquals(CacheStats.EMPTY, provider.getSimilarPrefixCacheStats());
+  }
+
+  @Test
+  void byteBudgetLimitsCacheWeight() {
+    long budget = 4_096;
+    provider = new AutocompleteProvider(textAnalyzer, new AutocompleteConfig(),
+        CacheConfig.ofMaxWeightBytes(budget));
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      text.append("word").append((char) ('a' + i % 26)).append((char) ('a' + i / 26)).append(' ');
+    }
+    provider.addText(text.toString());
+
+    for (int i = 0; i < 26; i++) {
+      provider.getAutocomplete("word" + (char) ('a' + i), 10);
+    }
+
+    assertTrue(provider.getCacheWeightBytes() > 0);
+    assertTrue(provider.getCacheWeightBytes() <= budget);
+    assertTrue(provider.getCacheStats().evictionCount() > 0);
+  }
+
+  @Test
+  void cacheConfigConstructorWithDisabledCache() {
+    provider = new AutocompleteProvider(textAnalyzer, new AutocompleteConfig(), new CacheConfig(0));
+    provider.addText("apple");
+    provider.getAutocomplete("app", 5);
+
+    assertEquals(0, provider.getCacheWeightBytes());
+    assertEquals(CacheStats.EMPTY, provider.getCacheStats());
+  }
+
+  @Test
+  void nullCacheConfigThrowsException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new AutocompleteProvider(textAnalyzer, new AutocompleteConfig(), (CacheConfig) null));
+  }
+
+  @Test
+  void refreshAfterWriteServesStaleThenRefreshedCompletions() throws InterruptedException {
+    CacheConfig cacheConfig = new CacheConfig(10, 0, Duration.ZERO, Duration.ofMillis(1));
+    provider = new AutocompleteProvider(textAnalyzer, new AutocompleteConfig(), cacheConfig);
+    provider.addText("apple apple application");
+    assertEquals("apple", provider.getAutocomplete("app", 1).get(0).word());
+
+    provider.addText("application application");
+    Thread.sleep(5);
+    assertEquals("apple", provider.getAutocomplete("app", 1).get(0).word());
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (provider.getAutocomplete("app", 1).get(0).word().equals("apple")
+        && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals("application", provider.getAutocomplete("app", 1).get(0).word());
+  }
+
+  @Test
+  void expireAfterWriteRecomputesExpiredCompletions() throws InterruptedException {
+    CacheConfig cacheConfig = new CacheConfig(10, 0, Duration.ofMillis(20), Duration.ZERO);
+    provider = new AutocompleteProvider(textAnalyzer, new AutocompleteConfig(), cacheConfig);
+    provider.addText("apple application");
+    assertEquals(2, provider.getAutocomplete("app", 10).size());
+
+    provider.addText("applet");
+    Thread.sleep(40);
+
+    assertEquals(3, provider.getAutocomplete("app", 10).size());
+  }
+
+  @Test
+  void savedHotKeysWarmUpNewProvider() throws IOException {
+    Path tempFile = Files.createTempFile("hotkeys", ".dat");
+    try {
+      provider = new AutocompleteProvider(textAnalyzer, 10);
+      provider.addText("apple application banana band cherry");
+      provider.getAutocomplete("app", 5);
+      provider.getAutocomplete("ban", 5);
+      provider.saveHotKeys(tempFile.toFile());
+
+      AutocompleteProvider restarted = new AutocompleteProvider(textAnalyzer, 10);
+      CompletableFuture<Void> warmup = restarted.warmUp(tempFile.toFile(), 2);
+      warmup.join();
+
+      assertTrue(restarted.isReady());
+      assertEquals(2, restarted.getCacheStats().putCount());
+      restarted.getAutocomplete("app", 2);
+      restarted.getAutocomplete("ban", 2);
+      assertEquals(2, restarted.getCacheStats().hitCount());
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Test
+  void warmUpFromQueryLogPrefetchesFrequentPrefixes() throws IOException {
+    Path tempFile = Files.createTempFile("queries", ".log");
+    try {
+      Files.write(tempFile, List.of("app", "app", "ban"));
+      provider = new AutocompleteProvider(textAnalyzer, 10);
+      provider.addText("apple banana");
+
+      provider.warmUpFromQueryLog(tempFile.toFile(), 5, 2).join();
+
+      provider.getAutocomplete("app", 1);
+      assertEquals(1, provider.getCacheStats().hitCount());
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Test
+  void warmUpFromQueryLogFoldsPrefixes() throws IOException {
+    Path tempFile = Files.createTempFile("queries", ".log");
+    try {
+      Files.write(tempFile, List.of("ban", "ban", "App", "APP", "app"));
+      provider = new AutocompleteProvider(textAnalyzer, 1);
+      provider.addText("apple banana");
+
+      provider.warmUpFromQueryLog(tempFile.toFile(), 5, 1).join();
+
+      provider.getAutocomplete("app", 1);
+      assertEquals(1, provider.getCacheStats().hitCount());
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Test
+  void providerIsNotReadyBeforeWarmUp() throws IOException {
+    assertFalse(provider.isReady());
+
+    Path tempFile = Files.createTempFile("queries", ".log");
+    try {
+      CompletableFuture<Void> warmup = provider.warmUpFromQueryLog(tempFile.toFile(), 5, 1);
+      warmup.join();
+      assertTrue(provider.isReady());
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Test
+  void missingHotKeysFileCompletesWarmUp() throws IOException {
+    Path dir = Files.createTempDirectory("hotkeys");
+    try {
+      provider.warmUp(dir.resolve("absent.dat").toFile(), 2).join();
+
+      assertTrue(provider.isReady());
+      assertEquals(0, provider.getCacheStats().putCount());
+    } finally {
+      Files.deleteIfExists(dir);
+    }
+  }
+
+  @Test
+  void failedHotKeysDumpIsExposed() throws Exception {
+    java.util.concurrent.ScheduledExecutorService scheduler =
+        java.util.concurrent.Executors.newSingleThreadScheduledExecutor();
+    Path dir = Files.createTempDirectory("hotkeys");
+    try {
+      provider.addText("apple");
+      provider.getAutocomplete("app", 1);
+      File unwritable = dir.resolve("missing-dir").resolve("hot.dat").toFile();
+      java.util.concurrent.ScheduledFuture<?> dump =
+          provider.scheduleHotKeysDump(scheduler, unwritable, Duration.ofMillis(5));
+
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (provider.getLastHotKeysDumpFailure() == null && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+      assertNotNull(provider.getLastHotKeysDumpFailure());
+      assertFalse(dump.isDone());
+      dump.cancel(false);
+    } finally {
+      scheduler.shutdownNow();
+      Files.deleteIfExists(dir);
+    }
+  }
+
+  @Test
+  void warmUpInvalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> provider.warmUp(null, 1));
+    assertThrows(IllegalArgumentException.class, () -> provider.warmUp(new File("x"), 0));
+    assertThrows(IllegalArgumentException.class, () -> provider.saveHotKeys(null));
+  }
+
+  @Test
+  void deadPrefixExtensionsAreAnsweredWithoutLookup() {
+    provider.addText("apple banana");
+
+    assertTrue(provider.getAutocomplete("xq", 5).isEmpty());
+    assertEquals(1, provider.getDeadPrefixCount());
+
+    assertTrue(provider.getAutocomplete("xqz", 5).isEmpty());
+    assertTrue(provider.getAutocomplete("xqzzy", 5).isEmpty());
+    assertEquals(1, provider.getDeadPrefixCount());
+    assertEquals(1, provider.getCacheStats().requestCount());
+  }
+
+  @Test
+  void ingestionRevivesDeadPrefixes() {
+    provider.addText("apple");
+    assertTrue(provider.getAutocomplete("ban", 5).isEmpty());
+
+    provider.addText("banana");
+
+    assertEquals(0, provider.getDeadPrefixCount());
+    assertEquals("banana", provider.getAutocomplete("bana", 5).get(0).word());
+  }
+
+  @Test
+  void getAutocompleteTypoToleranceWithHugeLimit() {
+    provider.setConfig(new AutocompleteConfig(io.github.autocomplete.distance.Levenshtein::distance,
+        1, 1, 0.5, 1.0));
+    provider.addText("hello help helmet");
+
+    List<Candidate> completions = provider.getAutocomplete("helo", Integer.MAX_VALUE);
+    assertFalse(completions.isEmpty());
+    assertEquals(provider.getAutocomplete("helo", 10), completions);
+  }
+
+  @Test
+  void directAnalyzerIngestionRevivesDeadPrefixes() throws IOException {
+    provider.addText("apple");
+    assertTrue(provider.getAutocomplete("zeb", 5).isEmpty());
+    assertTrue(provider.getAutocomplete("qu", 5).isEmpty());
+
+    textAnalyzer.addText("zebra zebu");
+
+    assertEquals(List.of("zebra", "zebu"),
+        provider.getAutocomplete("zeb", 5).stream().map(Candidate::word).sorted().toList());
+    assertEquals("zebra", provider.getAutocomplete("zebr", 5).get(0).word());
+
+    Path file = Files.createTempFile("dead", ".txt");
+    try {
+      Files.writeString(file, "quince");
+      textAnalyzer.addFileParallel(file, 1);
+      assertEquals("quince", provider.getAutocomplete("qu", 5).get(0).word());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  void ingestionRevivesDeadPrefixesWithStaleTolerantCache() {
+    CacheConfig cacheConfig = new CacheConfig(10, 0, Duration.ofMinutes(10), Duration.ZERO);
+    provider = new AutocompleteProvider(textAnalyzer, new AutocompleteConfig(), cacheConfig);
+    provider.addText("apple");
+    assertTrue(provider.getAutocomplete("ban", 5).isEmpty());
+
+    provider.addText("banana");
+
+    assertEquals(1, provider.getAutocomplete("ban", 5).size());
+  }
+
+  @Test
+  void deadTypoPrefixClearedOnIngestion() {
+    AutocompleteConfig config =
+        new AutocompleteConfig(io.github.autocomplete.distance.Levenshtein::distance, 1, 1, 0.5, 1.0);
+    provider = new AutocompleteProvider(textAnalyzer, config, 10);
+    provider.addText("apple");
+    assertTrue(provider.getAutocomplete("bnana", 5).isEmpty());
+    assertTrue(provider.getAutocomplete("bnana", 5).isEmpty());
+
+    provider.addText("banana");
+
+    assertEquals("banana", provider.getAutocomplete("bnana", 5).get(0).word());
+  }
+
+  @Test
+  void queryIsFoldedLikeIngestedTokens() {
+    textAnalyzer.getTokenizer().setConfig(new io.github.autocomplete.config.TokenizerConfig()
+        .withFolding(io.github.autocomplete.config.Folding.of(true, true, true)));
+    provider.addText("Ёлка ёлочка Crème");
+
+    assertEquals(List.of("елка", "елочка"),
+        provider.getAutocomplete("ЁЛ", 10).stream().map(Candidate::word).sorted().toList());
+    assertEquals("creme", provider.getAutocomplete("CRÈ", 10).get(0).word());
+    assertEquals(List.of(), provider.getAutocomplete("\u0301", 10));
+  }
 }
@@ -0,0 +1,88 @@
+package io.github.autocomplete;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.autocomplete.config.Folding;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+class CacheWarmupTest {
+
+  @Test
+  void writeAndReadPreserveKeysAndOrder() throws IOException {
+    Path tempFile = Files.createTempFile("hotkeys", ".dat");
+    try {
+      Map<String, Integer> keys = new LinkedHashMap<>();
+      keys.put("app", 10);
+      keys.put("при", 5);
+      keys.put("ban", 1);
+
+      CacheWarmup.write(tempFile.toFile(), keys);
+      Map<String, Integer> loaded = CacheWarmup.read(tempFile.toFile());
+
+      assertEquals(keys, loaded);
+      assertEquals(new ArrayList<>(keys.keySet()), new ArrayList<>(loaded.keySet()));
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Test
+  void readInvalidFileThrowsException() throws IOException {
+    Path tempFile = Files.createTempFile("hotkeys", ".dat");
+    try {
+      Files.write(tempFile, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+      assertThrows(IllegalArgumentException.class, () -> CacheWarmup.read(tempFile.toFile()));
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Test
+  void readMissingFileThrowsException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> CacheWarmup.read(new File("definitely-missing-hotkeys.dat")));
+  }
+
+  @Test
+  void readQueryLogOrdersByFrequencyAndCapsKeys() throws IOException {
+    Path tempFile = Files.createTempFile("queries", ".log");
+    try {
+      Files.write(tempFile, List.of("App", "ban", "app", " ", "che", "ban", "APP", "\u0301"));
+
+      Map<String, Integer> keys =
+          CacheWarmup.readQueryLog(tempFile.toFile(), 7, 2, Folding.of(true, true, false));
+
+      assertEquals(List.of("app", "ban"), new ArrayList<>(keys.keySet()));
+      assertEquals(7, keys.get("app"));
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Test
+  void prefetchLoadsEveryKey() {
+    Map<String, Integer> keys = new LinkedHashMap<>();
+    for (int i = 0; i < 50; i++) {
+      keys.put("key" + i, i + 1);
+    }
+    Map<String, Integer> loaded = new ConcurrentHashMap<>();
+
+    CacheWarmup.prefetch(keys, 4, loaded::put).join();
+
+    assertEquals(keys, loaded);
+  }
+
+  @Test
+  void prefetchEmptyKeysCompletesImmediately() {
+    assertTrue(CacheWarmup.prefetch(Map.of(), 4, (key, limit) -> fail("unexpected")).isDone());
+  }
+}
@@ -87,6 +87,32 @@ class TextAnalyzerStressTest {
     assertTrue(allWords.size() <= UNIQUE_WORDS);
   }
 
+  @Test
+  @Timeout(value = 2, unit = TimeUnit.MINUTES)
+  void addFileParallelPerformance() throws java.io.IOException {
+    java.nio.file.Path file = java.nio.file.Files.createTempFile("corpus", ".txt");
+    try {
+      java.nio.file.Files.writeString(file, generateLargeText(LARGE_DATA_SIZE * 5));
+
+      long startTime = System.nanoTime();
+      new TextAnalyzer(analyzer.getTokenizer()).addFile(file,
+          java.nio.charset.StandardCharsets.UTF_8);
+      long sequential = System.nanoTime() - startTime;
+
+      int parallelism = Runtime.getRuntime().availableProcessors();
+      startTime = System.nanoTime();
+      analyzer.addFileParallel(file, parallelism);
+      long parallel = System.nanoTime() - startTime;
+
+      System.out.printf("Ingesting %,d bytes: addFile %d ms, addFileParallel(%d) %d ms%n",
+          java.nio.file.Files.size(file), TimeUnit.NANOSECONDS.toMillis(sequential), parallelism,
+          TimeUnit.NANOSECONDS.toMillis(parallel));
+      assertTrue(analyzer.getAllWords().size() > 0);
+    } finally {
+      java.nio.file.Files.deleteIfExists(file);
+    }
+  }
+
   // Походу требует слишком много ОЗУ для github actions
   // @Test
   // @Timeout(value = 30, unit = TimeUnit.SECONDS)
@@ -161,6 +187,46 @@ class TextAnalyzerStressTest {
     assertEquals(LARGE_DATA_SIZE, totalWords);
   }
 
+  @Test
+  @Timeout(value = 1, unit = TimeUnit.MINUTES)
+  void internPoolReducesAllocationsOfRecurringWords() {
+    int chunks = 10;
+    List<String> texts = IntStream.range(0, chunks)
+        .mapToObj(i -> generateLargeText(LARGE_DATA_SIZE / chunks)).collect(Collectors.toList());
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    TextAnalyzer pooled = new TextAnalyzer(analyzer.getTokenizer());
+    TextAnalyzer unpooled = new TextAnalyzer(analyzer.getTokenizer());
+    unpooled.setInternPool(new io.github.autocomplete.tokenizer.InternPool(0));
+    // Прогрев, чтобы оба анализатора уже содержали весь словарь
+    pooled.addText(texts.get(0));
+    unpooled.addText(texts.get(0));
+
+    long allocated = threads.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    texts.forEach(unpooled::addText);
+    long unpooledNanos = System.nanoTime() - start;
+    long unpooledBytes = threads.getThreadAllocatedBytes(threadId) - allocated;
+
+    allocated = threads.getThreadAllocatedBytes(threadId);
+    start = System.nanoTime();
+    texts.forEach(pooled::addText);
+    long pooledNanos = System.nanoTime() - start;
+    long pooledBytes = threads.getThreadAllocatedBytes(threadId) - allocated;
+
+    io.github.autocomplete.tokenizer.InternStats stats = pooled.getInternPool().stats();
+    System.out.printf(
+        "Recurring words: without pool %d ms (%,d bytes), with pool %d ms (%,d bytes), "
+            + "hit rate %.2f, pool %,d bytes%n",
+        TimeUnit.NANOSECONDS.toMillis(unpooledNanos), unpooledBytes,
+        TimeUnit.NANOSECONDS.toMillis(pooledNanos), pooledBytes, stats.hitRate(),
+        stats.memoryBytes());
+    assertEquals(unpooled.getAllWords(), pooled.getAllWords());
+    assertTrue(pooledBytes < unpooledBytes);
+  }
+
   @Test
   @Timeout(value = 10, unit = TimeUnit.SECONDS)
   void getWordsByRegexLargeDatasetPerformance() {
@@ -301,4 +301,198 @@ class TextAnalyzerTest {
       Files.deleteIfExists(tempFile);
     }
   }
+
+  @Test
+  void addTextWithStreamOnlyTokenizerUsesDefaultSinkAdapter() {
+    io.github.autocomplete.tokenizer.Tokenizer streamOnly =
+        new io.github.autocomplete.tokenizer.Tokenizer() {
+          @Override
+          public java.util.stream.Stream<String> tokenize(String text) {
+            return java.util.stream.Stream.of(text.split(","));
+          }
+
+          @Override
+          public void setConfig(TokenizerConfig config) {}
+
+          @Override
+          public TokenizerConfig getConfig() {
+            return new TokenizerConfig();
+          }
+        };
+
+    analyzer.addText("one,two,one", streamOnly);
+
+    assertEquals(2, analyzer.getWordFrequency("one"));
+    assertEquals(1, analyzer.getWordFrequency("two"));
+  }
+
+  @Test
+  void addTextFromReaderCarriesTokensAcrossChunks() throws IOException {
+    StringBuilder text = new StringBuilder();
+    java.util.Random random = new java.util.Random(3);
+    String[] words = {"alpha", "beta", "gamma", "ёлка", "delta"};
+    while (text.length() < TextAnalyzer.CHUNK_SIZE * 3) {
+      text.append(words[random.nextInt(words.length)]).append(random.nextBoolean() ? " " : ",\n");
+    }
+    // Токен длиннее блока
+    text.append("x".repeat(TextAnalyzer.CHUNK_SIZE + 10)).append(" tail");
+
+    TextAnalyzer expected = new TextAnalyzer();
+    expected.addText(text.toString());
+
+    List<io.github.autocomplete.model.IngestionProgress> reports = new java.util.ArrayList<>();
+    io.github.autocomplete.model.IngestionProgress result =
+        analyzer.addText(new java.io.StringReader(text.toString()), reports::add);
+
+    // getAllWords обходит дерево рекурсивно, поэтому сверяем частоты поштучно
+    long total = 0;
+    for (String word : List.of("alpha", "beta", "gamma", "ёлка", "delta", "tail",
+        "x".repeat(TextAnalyzer.CHUNK_SIZE + 10))) {
+      assertEquals(expected.getWordFrequency(word), analyzer.getWordFrequency(word), word);
+      total += expected.getWordFrequency(word);
+    }
+    assertEquals(1, analyzer.getWordFrequency("tail"));
+    assertEquals(-1, result.bytes());
+    assertEquals(text.length(), result.chars());
+    assertEquals(total, result.tokens());
+    assertTrue(reports.size() > 2);
+    assertEquals(result, reports.get(reports.size() - 1));
+    for (int i = 1; i < reports.size(); i++) {
+      assertTrue(reports.get(i).tokens() >= reports.get(i - 1).tokens());
+    }
+  }
+
+  @Test
+  void addFileAndStreamCountBytes() throws IOException {
+    Path tempFile = Files.createTempFile("ingest", ".txt");
+    try {
+      String text = "Привет мир\nhello hello world";
+      Files.writeString(tempFile, text, java.nio.charset.StandardCharsets.UTF_8);
+
+      io.github.autocomplete.model.IngestionProgress result =
+          analyzer.addFile(tempFile, java.nio.charset.StandardCharsets.UTF_8);
+      assertEquals(text.getBytes(java.nio.charset.StandardCharsets.UTF_8).length,
+          result.bytes());
+      assertEquals(5, result.tokens());
+      assertEquals(2, analyzer.getWordFrequency("hello"));
+      assertEquals(1, analyzer.getWordFrequency("привет"));
+
+      try (java.io.InputStream in = Files.newInputStream(tempFile)) {
+        analyzer.addStream(in);
+      }
+      assertEquals(4, analyzer.getWordFrequency("hello"));
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Test
+  void streamingIngestionNullArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> analyzer.addText((java.io.Reader) null));
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.addText(new java.io.StringReader("a"), null));
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.addFile(null, java.nio.charset.StandardCharsets.UTF_8));
+    assertThrows(IllegalArgumentException.class, () -> analyzer.addStream(null));
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.addStream(java.io.InputStream.nullInputStream(), null, progress -> {
+        }));
+  }
+
+  @Test
+  void addFileParallelMatchesSequentialIngestion() throws IOException {
+    Path tempFile = Files.createTempFile("parallel", ".txt");
+    try {
+      java.util.Random random = new java.util.Random(11);
+      String[] words = {"alpha", "Beta", "гамма", "ёж", "delta", "日本", "\uD83D\uDE00x"};
+      StringBuilder text = new StringBuilder();
+      for (int i = 0; i < 20_000; i++) {
+        text.append(words[random.nextInt(words.length)]).append(i % 7 == 0 ? "\n" : ", ");
+      }
+      Files.writeString(tempFile, text, java.nio.charset.StandardCharsets.UTF_8);
+
+      TextAnalyzer expected = new TextAnalyzer();
+      io.github.autocomplete.model.IngestionProgress sequential =
+          expected.addFile(tempFile, java.nio.charset.StandardCharsets.UTF_8);
+      for (int parallelism : new int[] {1, 3, 8}) {
+        TextAnalyzer parallel = new TextAnalyzer();
+        io.github.autocomplete.model.IngestionProgress result =
+            parallel.addFileParallel(tempFile, parallelism);
+        assertEquals(expected.getAllWords(), parallel.getAllWords());
+        assertEquals(sequential, result);
+      }
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Test
+  void streamingWithNonWhitespaceSplitKeepsSpacesInsideTokens() throws IOException {
+    SimpleTokenizer tokenizer = new SimpleTokenizer();
+    tokenizer.setConfig(new TokenizerConfig(",", c -> Character.isLetter(c) || c == ' ', true));
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < TextAnalyzer.CHUNK_SIZE / 8; i++) {
+      text.append("new york,");
+    }
+    text.append("san francisco");
+
+    TextAnalyzer streamed = new TextAnalyzer(tokenizer);
+    streamed.addText(new java.io.StringReader(text.toString()));
+    TextAnalyzer parallel = new TextAnalyzer(tokenizer);
+    Path tempFile = Files.createTempFile("cities", ".txt");
+    try {
+      Files.writeString(tempFile, text, java.nio.charset.StandardCharsets.UTF_8);
+      parallel.addFileParallel(tempFile, 4);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+
+    Map<String, Integer> expected =
+        Map.of("new york", TextAnalyzer.CHUNK_SIZE / 8, "san francisco", 1);
+    assertEquals(expected, streamed.getAllWords());
+    assertEquals(expected, parallel.getAllWords());
+  }
+
+  @Test
+  void addFileParallelSmallAndEmptyFiles() throws IOException {
+    Path tempFile = Files.createTempFile("parallel", ".txt");
+    try {
+      assertEquals(0, analyzer.addFileParallel(tempFile, 4).tokens());
+
+      Files.writeString(tempFile, "one two", java.nio.charset.StandardCharsets.UTF_8);
+      assertEquals(2, analyzer.addFileParallel(tempFile, 16).tokens());
+      assertEquals(Map.of("one", 1, "two", 1), analyzer.getAllWords());
+
+      assertThrows(IllegalArgumentException.class, () -> analyzer.addFileParallel(null, 1));
+      assertThrows(IllegalArgumentException.class, () -> analyzer.addFileParallel(tempFile, 0));
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Test
+  void internPoolIsReusedAcrossAddTextCalls() {
+    io.github.autocomplete.tokenizer.InternPool pool = analyzer.getInternPool();
+    analyzer.addText("apple banana apple");
+    analyzer.addText("banana cherry");
+
+    assertEquals(3, pool.size());
+    assertEquals(1, pool.stats().hitCount());
+    assertEquals(Map.of("apple", 2, "banana", 2, "cherry", 1), analyzer.getAllWords());
+
+    io.github.autocomplete.tokenizer.InternPool shared =
+        new io.github.autocomplete.tokenizer.InternPool(8);
+    TextAnalyzer other = new TextAnalyzer();
+    analyzer.setInternPool(shared);
+    other.setInternPool(shared);
+    analyzer.addText("apple");
+    other.addText("apple");
+    assertSame(shared, other.getInternPool());
+    assertEquals(1, shared.size());
+    assertEquals(1, shared.stats().hitCount());
+
+    analyzer.clear();
+    assertEquals(1, shared.size());
+    assertThrows(IllegalArgumentException.class, () -> analyzer.setInternPool(null));
+  }
 }
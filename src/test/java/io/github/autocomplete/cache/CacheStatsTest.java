@@ -0,0 +1,90 @@
+package io.github.autocomplete.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CacheStatsTest {
+
+  private static List<Long> histogram(long... counts) {
+    List<Long> result = new ArrayList<>(Collections.nCopies(CacheStats.HISTOGRAM_BUCKETS, 0L));
+    for (int i = 0; i < counts.length; i++) {
+      result.set(i, counts[i]);
+    }
+    return result;
+  }
+
+  @Test
+  void emptyStatsHaveNeutralRates() {
+    assertEquals(0, CacheStats.EMPTY.requestCount());
+    assertEquals(1.0, CacheStats.EMPTY.hitRate());
+    assertEquals(0.0, CacheStats.EMPTY.missRate());
+    assertEquals(0.0, CacheStats.EMPTY.averageLoadPenaltyNanos());
+    assertEquals(0, CacheStats.EMPTY.loadTimePercentileNanos(0.99));
+  }
+
+  @Test
+  void ratesAndAveragesAreComputedFromCounters() {
+    CacheStats stats = new CacheStats(3, 1, 1, 0, 0, 2, 3_000, histogram(0, 2));
+    assertEquals(4, stats.requestCount());
+    assertEquals(0.75, stats.hitRate());
+    assertEquals(0.25, stats.missRate());
+    assertEquals(1_500.0, stats.averageLoadPenaltyNanos());
+  }
+
+  @Test
+  void percentileReturnsBucketUpperBound() {
+    CacheStats stats = new CacheStats(0, 0, 0, 0, 0, 10, 0, histogram(9, 0, 0, 1));
+    assertEquals(1_000, stats.loadTimePercentileNanos(0.5));
+    assertEquals(1_000, stats.loadTimePercentileNanos(0.9));
+    assertEquals(8_000, stats.loadTimePercentileNanos(0.99));
+  }
+
+  @Test
+  void bucketBoundsDoubleAndLastIsUnbounded() {
+    assertEquals(1_000, CacheStats.bucketUpperBoundNanos(0));
+    assertEquals(2_000, CacheStats.bucketUpperBoundNanos(1));
+    assertEquals(Long.MAX_VALUE,
+        CacheStats.bucketUpperBoundNanos(CacheStats.HISTOGRAM_BUCKETS - 1));
+  }
+
+  @Test
+  void bucketForPlacesDurationBelowUpperBound() {
+    assertEquals(0, CacheStats.bucketFor(0));
+    assertEquals(0, CacheStats.bucketFor(999));
+    assertEquals(1, CacheStats.bucketFor(1_000));
+    assertEquals(1, CacheStats.bucketFor(1_999));
+    assertEquals(2, CacheStats.bucketFor(2_000));
+    assertEquals(CacheStats.HISTOGRAM_BUCKETS - 1, CacheStats.bucketFor(Long.MAX_VALUE));
+  }
+
+  @Test
+  void histogramIsImmutable() {
+    CacheStats stats = new CacheStats(0, 0, 0, 0, 0, 0, 0, histogram());
+    assertThrows(UnsupportedOperationException.class, () -> stats.loadTimeHistogram().set(0, 1L));
+  }
+
+  @Test
+  void negativeCounterThrowsException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new CacheStats(-1, 0, 0, 0, 0, 0, 0, histogram()));
+  }
+
+  @Test
+  void wrongHistogramSizeThrowsException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new CacheStats(0, 0, 0, 0, 0, 0, 0, List.of(1L)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, -1, 2})
+  void percentileOutOfRangeThrowsException(int quantile) {
+    assertThrows(IllegalArgumentException.class,
+        () -> CacheStats.EMPTY.loadTimePercentileNanos(quantile));
+  }
+}
@@ -0,0 +1,81 @@
+package io.github.autocomplete.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DeadPrefixSetTest {
+
+  private DeadPrefixSet set;
+
+  @BeforeEach
+  void setUp() {
+    set = new DeadPrefixSet(100);
+  }
+
+  @Test
+  void markedPrefixAndExtensionsAreDead() {
+    set.markDead("xq");
+
+    assertTrue(set.isDead("xq"));
+    assertTrue(set.isDead("xqz"));
+    assertTrue(set.isDead("xqzzz"));
+    assertFalse(set.isDead("x"));
+    assertFalse(set.isDead("xa"));
+  }
+
+  @Test
+  void shorterPrefixSubsumesLongerOnes() {
+    set.markDead("xqab");
+    set.markDead("xqcd");
+    assertEquals(2, set.size());
+
+    set.markDead("xq");
+    assertEquals(1, set.size());
+
+    set.markDead("xqef");
+    assertEquals(1, set.size());
+  }
+
+  @Test
+  void revalidateKeepsOnlyStillDeadPrefixes() {
+    set.markDead("abc");
+    set.markDead("xyz");
+
+    set.revalidate(prefix -> !prefix.equals("abc"));
+
+    assertFalse(set.isDead("abcd"));
+    assertTrue(set.isDead("xyz"));
+    assertEquals(1, set.size());
+  }
+
+  @Test
+  void overflowClearsSet() {
+    DeadPrefixSet small = new DeadPrefixSet(2);
+    small.markDead("a");
+    small.markDead("b");
+    small.markDead("c");
+
+    assertFalse(small.isDead("a"));
+    assertTrue(small.isDead("c"));
+    assertEquals(1, small.size());
+  }
+
+  @Test
+  void clearRemovesAllPrefixes() {
+    set.markDead("abc");
+    set.clear();
+
+    assertFalse(set.isDead("abc"));
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  void invalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> new DeadPrefixSet(0));
+    assertThrows(IllegalArgumentException.class, () -> set.markDead(""));
+    assertThrows(IllegalArgumentException.class, () -> set.isDead(null));
+    assertThrows(IllegalArgumentException.class, () -> set.revalidate(null));
+  }
+}
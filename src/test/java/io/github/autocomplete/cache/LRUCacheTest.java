@@ -2,6 +2,10 @@ package io.github.autocomplete.cache;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -36,6 +40,17 @@ class LRUCacheTest {
     assertNull(cache.get(2));
   }
 
+  @Test
+  void getWithUnusableValueCountsAsMiss() {
+    cache.put(1, "One");
+
+    assertNull(cache.get(1, value -> value.length() > 3));
+    assertEquals("One", cache.get(1, value -> value.length() == 3));
+    assertEquals(1, cache.stats().hitCount());
+    assertEquals(1, cache.stats().missCount());
+    assertThrows(IllegalArgumentException.class, () -> cache.get(1, null));
+  }
+
   @Test
   void putWhenCacheNotFullAddsElements() {
     cache.put(1, "One");
@@ -264,4 +279,260 @@ class LRUCacheTest {
     cache.put(3, "Three");
     assertEquals("Three", cache.get(3));
   }
+
+  @Test
+  void statsCountHitsAndMisses() {
+    cache.put(1, "One");
+    cache.get(1);
+    cache.get(1);
+    cache.get(2);
+
+    CacheStats stats = cache.stats();
+    assertEquals(2, stats.hitCount());
+    assertEquals(1, stats.missCount());
+    assertEquals(3, stats.requestCount());
+    assertEquals(2.0 / 3, stats.hitRate(), 1e-9);
+  }
+
+  @Test
+  void statsCountPutsAndEvictions() {
+    cache.put(1, "One");
+    cache.put(2, "Two");
+    cache.put(3, "Three");
+    cache.put(1, "Updated");
+    cache.put(4, "Four");
+    cache.put(5, "Five");
+
+    CacheStats stats = cache.stats();
+    assertEquals(6, stats.putCount());
+    assertEquals(2, stats.evictionCount());
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  void statsCountInvalidationsOnClear() {
+    cache.put(1, "One");
+    cache.put(2, "Two");
+    cache.clear();
+    cache.clear();
+
+    CacheStats stats = cache.stats();
+    assertEquals(2, stats.invalidationCount());
+    assertEquals(0, stats.evictionCount());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void statsRecordLoadTimes() {
+    cache.recordLoad(500);
+    cache.recordLoad(1_500);
+    cache.recordLoad(3_000);
+
+    CacheStats stats = cache.stats();
+    assertEquals(3, stats.loadCount());
+    assertEquals(5_000, stats.totalLoadTimeNanos());
+    assertEquals(1, stats.loadTimeHistogram().get(0));
+    assertEquals(1, stats.loadTimeHistogram().get(1));
+    assertEquals(1, stats.loadTimeHistogram().get(2));
+  }
+
+  @Test
+  void weightBoundedCacheEvictsUntilWithinBudget() {
+    LRUCache<Integer, String> weighted = new LRUCache<>(10, (key, value) -> value.length());
+    weighted.put(1, "aaaa");
+    weighted.put(2, "bbbb");
+    assertEquals(8, weighted.weight());
+
+    weighted.put(3, "cccc");
+
+    assertNull(weighted.get(1));
+    assertEquals("bbbb", weighted.get(2));
+    assertEquals("cccc", weighted.get(3));
+    assertEquals(8, weighted.weight());
+    assertEquals(1, weighted.stats().evictionCount());
+  }
+
+  @Test
+  void weightBoundedCacheRejectsOversizedValue() {
+    LRUCache<Integer, String> weighted = new LRUCache<>(5, (key, value) -> value.length());
+    weighted.put(1, "abc");
+    weighted.put(2, "too long value");
+
+    assertNull(weighted.get(2));
+    assertEquals("abc", weighted.get(1));
+    assertEquals(3, weighted.weight());
+    assertEquals(0, weighted.stats().evictionCount());
+
+    weighted.put(1, "too long value");
+    assertNull(weighted.get(1));
+    assertEquals(0, weighted.weight());
+  }
+
+  @Test
+  void weightUpdatedWhenValueReplaced() {
+    LRUCache<Integer, String> weighted = new LRUCache<>(100, (key, value) -> value.length());
+    weighted.put(1, "abc");
+    weighted.put(1, "abcdef");
+    assertEquals(6, weighted.weight());
+
+    weighted.clear();
+    assertEquals(0, weighted.weight());
+  }
+
+  @Test
+  void capacityAndWeightBoundsAppliedTogether() {
+    LRUCache<Integer, String> bounded = new LRUCache<>(2, 100, (key, value) -> value.length());
+    bounded.put(1, "a");
+    bounded.put(2, "b");
+    bounded.put(3, "c");
+
+    assertNull(bounded.get(1));
+    assertEquals(2, bounded.size());
+    assertEquals(2, bounded.weight());
+  }
+
+  @Test
+  void negativeWeightThrowsException() {
+    LRUCache<Integer, String> weighted = new LRUCache<>(100, (key, value) -> -1);
+    assertThrows(IllegalArgumentException.class, () -> weighted.put(1, "One"));
+  }
+
+  @Test
+  void invalidWeightArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new LRUCache<Integer, String>(-1, (key, value) -> 0));
+    assertThrows(IllegalArgumentException.class, () -> new LRUCache<Integer, String>(10, null));
+  }
+
+  private static final Duration TTL = Duration.ofNanos(1_000);
+  private static final Duration REFRESH = Duration.ofNanos(500);
+
+  private LRUCache<Integer, String> timedCache(AtomicLong clock, List<Runnable> tasks) {
+    return new LRUCache<>(10, Long.MAX_VALUE, (key, value) -> 1, TTL, REFRESH,
+        (key, old) -> old + "'", tasks::add, clock::get);
+  }
+
+  @Test
+  void expiredEntryIsNotReturned() {
+    AtomicLong clock = new AtomicLong();
+    LRUCache<Integer, String> timed = new LRUCache<>(10, Long.MAX_VALUE, (key, value) -> 1, TTL,
+        Duration.ZERO, null, Runnable::run, clock::get);
+    timed.put(1, "One");
+
+    clock.set(999);
+    assertEquals("One", timed.get(1));
+
+    clock.set(1_000);
+    assertNull(timed.get(1));
+    assertEquals(0, timed.size());
+    assertEquals(1, timed.stats().evictionCount());
+  }
+
+  @Test
+  void expiredEntriesAreRemovedWithoutBeingRead() {
+    AtomicLong clock = new AtomicLong();
+    LRUCache<Integer, String> timed = new LRUCache<>(10, Long.MAX_VALUE, (key, value) -> 1, TTL,
+        Duration.ZERO, null, Runnable::run, clock::get);
+    timed.put(1, "One");
+    timed.put(2, "Two");
+
+    clock.set(5_000);
+    timed.put(3, "Three");
+
+    assertEquals(1, timed.size());
+    assertEquals(1, timed.weight());
+  }
+
+  @Test
+  void staleEntryIsServedWhileRefreshing() {
+    AtomicLong clock = new AtomicLong();
+    List<Runnable> tasks = new ArrayList<>();
+    LRUCache<Integer, String> timed = timedCache(clock, tasks);
+    timed.put(1, "One");
+
+    clock.set(600);
+    assertEquals("One", timed.get(1));
+    assertEquals("One", timed.get(1));
+    assertEquals(1, tasks.size());
+
+    tasks.get(0).run();
+    assertEquals("One'", timed.get(1));
+
+    clock.set(1_500);
+    assertEquals("One'", timed.get(1));
+  }
+
+  @Test
+  void refreshResultDiscardedAfterClear() {
+    AtomicLong clock = new AtomicLong();
+    List<Runnable> tasks = new ArrayList<>();
+    LRUCache<Integer, String> timed = timedCache(clock, tasks);
+    timed.put(1, "One");
+
+    clock.set(600);
+    timed.get(1);
+    timed.clear();
+    tasks.get(0).run();
+
+    assertNull(timed.get(1));
+  }
+
+  @Test
+  void refreshResultDiscardedAfterPut() {
+    AtomicLong clock = new AtomicLong();
+    List<Runnable> tasks = new ArrayList<>();
+    LRUCache<Integer, String> timed = timedCache(clock, tasks);
+    timed.put(1, "One");
+
+    clock.set(600);
+    timed.get(1);
+    timed.put(1, "Fresh");
+    tasks.get(0).run();
+
+    assertEquals("Fresh", timed.get(1));
+  }
+
+  @Test
+  void oversizedRefreshResultDropsOnlyItsKey() {
+    AtomicLong clock = new AtomicLong();
+    List<Runnable> tasks = new ArrayList<>();
+    LRUCache<Integer, String> timed = new LRUCache<>(10, 5, (key, value) -> value.length(),
+        Duration.ZERO, REFRESH, (key, old) -> "too long value", tasks::add, clock::get);
+    timed.put(1, "One");
+    timed.put(2, "Tw");
+
+    clock.set(600);
+    timed.get(1);
+    tasks.get(0).run();
+
+    assertNull(timed.get(1));
+    assertEquals("Tw", timed.get(2));
+    assertEquals(2, timed.weight());
+  }
+
+  @Test
+  void failedRefreshKeepsOldValueAndRetries() {
+    AtomicLong clock = new AtomicLong();
+    List<Runnable> tasks = new ArrayList<>();
+    LRUCache<Integer, String> timed = new LRUCache<>(10, Long.MAX_VALUE, (key, value) -> 1,
+        Duration.ZERO, REFRESH, (key, old) -> {
+          throw new IllegalStateException("boom");
+        }, tasks::add, clock::get);
+    timed.put(1, "One");
+
+    clock.set(600);
+    timed.get(1);
+    tasks.get(0).run();
+
+    assertEquals("One", timed.get(1));
+    assertEquals(2, tasks.size());
+  }
+
+  @Test
+  void refreshWithoutRefresherThrowsException() {
+    assertThrows(IllegalArgumentException.class, () -> new LRUCache<Integer, String>(10,
+        Long.MAX_VALUE, (key, value) -> 1, Duration.ZERO, REFRESH, null));
+    assertThrows(IllegalArgumentException.class, () -> new LRUCache<Integer, String>(10,
+        Long.MAX_VALUE, (key, value) -> 1, Duration.ofSeconds(-1), Duration.ZERO, null));
+  }
 }
@@ -0,0 +1,96 @@
+package io.github.autocomplete.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+  private static final long SPAN = 64_000;
+
+  private TimerWheel wheel;
+  private List<TimerWheel.Timer> expired;
+
+  @BeforeEach
+  void setUp() {
+    wheel = new TimerWheel(SPAN, 0);
+    expired = new ArrayList<>();
+  }
+
+  @Test
+  void advanceExpiresOnlyDueTimers() {
+    TimerWheel.Timer early = new TimerWheel.Timer();
+    TimerWheel.Timer late = new TimerWheel.Timer();
+    wheel.schedule(early, 10_000);
+    wheel.schedule(late, 50_000);
+
+    wheel.advance(20_000, expired::add);
+
+    assertEquals(List.of(early), expired);
+    assertFalse(early.isScheduled());
+    assertTrue(late.isScheduled());
+  }
+
+  @Test
+  void timersFromLaterRoundsAreKept() {
+    TimerWheel.Timer farAway = new TimerWheel.Timer();
+    wheel.schedule(farAway, SPAN * 10);
+
+    wheel.advance(SPAN * 3, expired::add);
+    assertTrue(expired.isEmpty());
+
+    wheel.advance(SPAN * 10, expired::add);
+    assertEquals(List.of(farAway), expired);
+  }
+
+  @Test
+  void longIdlePeriodExpiresEverything() {
+    for (int i = 0; i < 100; i++) {
+      wheel.schedule(new TimerWheel.Timer(), i * 1_000L);
+    }
+
+    wheel.advance(SPAN * 1_000, expired::add);
+
+    assertEquals(100, expired.size());
+  }
+
+  @Test
+  void cancelledTimerIsNotExpired() {
+    TimerWheel.Timer timer = new TimerWheel.Timer();
+    wheel.schedule(timer, 1_000);
+    wheel.cancel(timer);
+
+    wheel.advance(SPAN, expired::add);
+
+    assertTrue(expired.isEmpty());
+    assertFalse(timer.isScheduled());
+  }
+
+  @Test
+  void rescheduleMovesTimer() {
+    TimerWheel.Timer timer = new TimerWheel.Timer();
+    wheel.schedule(timer, 1_000);
+    wheel.schedule(timer, 40_000);
+
+    wheel.advance(10_000, expired::add);
+    assertTrue(expired.isEmpty());
+
+    wheel.advance(40_000, expired::add);
+    assertEquals(List.of(timer), expired);
+  }
+
+  @Test
+  void clearUnschedulesAllTimers() {
+    TimerWheel.Timer timer = new TimerWheel.Timer();
+    wheel.schedule(timer, 1_000);
+
+    wheel.clear();
+    wheel.advance(SPAN, expired::add);
+
+    assertFalse(timer.isScheduled());
+    assertTrue(expired.isEmpty());
+  }
+}
@@ -0,0 +1,27 @@
+package io.github.autocomplete.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.autocomplete.model.Candidate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class WeighersTest {
+  @Test
+  void candidateListWeightGrowsWithCandidates() {
+    Weigher<String, List<Candidate>> weigher = Weighers.candidateList();
+    long empty = weigher.weigh("app", List.of());
+    long one = weigher.weigh("app", List.of(new Candidate("apple", 1)));
+    long two = weigher.weigh("app", List.of(new Candidate("apple", 1), new Candidate("apply", 1)));
+
+    assertTrue(empty >= Weighers.ENTRY_OVERHEAD);
+    assertTrue(one > empty);
+    assertTrue(two > one);
+  }
+
+  @Test
+  void stringListWeightGrowsWithWords() {
+    Weigher<String, List<String>> weigher = Weighers.stringList();
+    assertTrue(weigher.weigh("aple", List.of("apple", "ample")) > weigher.weigh("aple", List.of()));
+  }
+}
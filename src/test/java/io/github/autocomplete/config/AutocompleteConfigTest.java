@@ -17,6 +17,20 @@ class AutocompleteConfigTest {
     assertEquals(0.5, config.similarWeight());
     assertEquals(1.0, config.originalWeight());
     assertEquals(3, config.distanceFunction().apply("kitten", "sitting"));
+    assertEquals(FuzzyAlgorithm.DISTANCE_FUNCTION, config.fuzzyAlgorithm());
+  }
+
+  @Test
+  void constructorWithFuzzyAlgorithmSetsProvidedValue() {
+    AutocompleteConfig config = new AutocompleteConfig(Levenshtein::distance, 1, 1, 0.5, 1.0,
+        FuzzyAlgorithm.LEVENSHTEIN_AUTOMATON);
+    assertEquals(FuzzyAlgorithm.LEVENSHTEIN_AUTOMATON, config.fuzzyAlgorithm());
+  }
+
+  @Test
+  void constructorNullFuzzyAlgorithmThrowsException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new AutocompleteConfig(Levenshtein::distance, 1, 1, 0.5, 1.0, null));
   }
 
   @Test
@@ -28,6 +42,7 @@ class AutocompleteConfigTest {
     assertEquals(3, config.tolerance());
     assertEquals(0.7, config.similarWeight());
     assertEquals(2.0, config.originalWeight());
+    assertEquals(FuzzyAlgorithm.DISTANCE_FUNCTION, config.fuzzyAlgorithm());
   }
 
   @Test
@@ -47,4 +62,46 @@ class AutocompleteConfigTest {
     assertThrows(IllegalArgumentException.class,
         () -> new AutocompleteConfig(Levenshtein::distance, 1, -1, 0.5, 1.0));
   }
+
+  @Test
+  void defaultConstructorUsesBoundedLevenshtein() {
+    AutocompleteConfig config = new AutocompleteConfig();
+    assertEquals(2, config.boundedDistance().distance("kitten", "sitting", 1));
+  }
+
+  @Test
+  void ofBoundedDistanceSetsBothFunctions() {
+    AutocompleteConfig config = AutocompleteConfig.ofBoundedDistance(
+        io.github.autocomplete.distance.BoundedDistance.levenshtein(), 1, 2, 0.5, 1.0);
+    assertEquals(3, config.distanceFunction().apply("kitten", "sitting"));
+    assertEquals(3, config.boundedDistance().distance("kitten", "sitting", 2));
+    assertEquals(FuzzyAlgorithm.DISTANCE_FUNCTION, config.fuzzyAlgorithm());
+    assertEquals(2, config.tolerance());
+  }
+
+  @Test
+  void nullBoundedDistanceIsDerivedFromDistanceFunction() {
+    BiFunction<String, String, Integer> fn = (a, b) -> Math.abs(a.length() - b.length());
+    AutocompleteConfig config = new AutocompleteConfig(fn, 1, 1, 0.5, 1.0,
+        FuzzyAlgorithm.DISTANCE_FUNCTION, null);
+    assertEquals(1, config.boundedDistance().distance("kitten", "sitting", 1));
+    assertEquals(0, config.boundedDistance().distance("abc", "xyz", 1));
+  }
+
+  @Test
+  void explicitBoundedDistanceIsKeptWithoutCallingFunctions() {
+    BiFunction<String, String, Integer> fn = (a, b) -> {
+      throw new AssertionError("distanceFunction must not be called");
+    };
+    io.github.autocomplete.distance.BoundedDistance bounded = (a, b, max) -> 7;
+    AutocompleteConfig config = new AutocompleteConfig(fn, 1, 1, 0.5, 1.0,
+        FuzzyAlgorithm.DISTANCE_FUNCTION, bounded);
+    assertEquals(bounded, config.boundedDistance());
+  }
+
+  @Test
+  void ofBoundedDistanceNullThrowsException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> AutocompleteConfig.ofBoundedDistance(null, 1, 1, 0.5, 1.0));
+  }
 }
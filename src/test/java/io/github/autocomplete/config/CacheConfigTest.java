@@ -0,0 +1,58 @@
+package io.github.autocomplete.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class CacheConfigTest {
+  @Test
+  void defaultConstructorBoundsByEntriesOnly() {
+    CacheConfig config = new CacheConfig();
+    assertEquals(CacheConfig.DEFAULT_MAX_ENTRIES, config.maxEntries());
+    assertEquals(0, config.maxWeightBytes());
+    assertTrue(config.enabled());
+  }
+
+  @Test
+  void zeroEntriesDisablesCache() {
+    assertFalse(new CacheConfig(0).enabled());
+  }
+
+  @Test
+  void ofMaxWeightBytesBoundsByMemoryOnly() {
+    CacheConfig config = CacheConfig.ofMaxWeightBytes(1 << 20);
+    assertEquals(Integer.MAX_VALUE, config.maxEntries());
+    assertEquals(1 << 20, config.maxWeightBytes());
+    assertTrue(config.enabled());
+  }
+
+  @Test
+  void invalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> new CacheConfig(-1));
+    assertThrows(IllegalArgumentException.class, () -> new CacheConfig(10, -1));
+    assertThrows(IllegalArgumentException.class, () -> CacheConfig.ofMaxWeightBytes(0));
+  }
+
+  @Test
+  void timePoliciesDisabledByDefault() {
+    CacheConfig config = new CacheConfig(10, 0);
+    assertEquals(Duration.ZERO, config.expireAfterWrite());
+    assertEquals(Duration.ZERO, config.refreshAfterWrite());
+    assertFalse(config.allowsStaleEntries());
+  }
+
+  @Test
+  void timePoliciesAllowStaleEntries() {
+    assertTrue(new CacheConfig(10, 0, Duration.ofMinutes(5), Duration.ZERO).allowsStaleEntries());
+    assertTrue(new CacheConfig(10, 0, Duration.ZERO, Duration.ofSeconds(30)).allowsStaleEntries());
+  }
+
+  @Test
+  void invalidDurationsThrowException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new CacheConfig(10, 0, null, Duration.ZERO));
+    assertThrows(IllegalArgumentException.class,
+        () -> new CacheConfig(10, 0, Duration.ZERO, Duration.ofSeconds(-1)));
+  }
+}
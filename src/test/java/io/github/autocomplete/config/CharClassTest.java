@@ -0,0 +1,48 @@
+package io.github.autocomplete.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class CharClassTest {
+
+  @Test
+  void ofPredicateMatchesPredicateForEveryChar() {
+    CharClass letters = CharClass.of(Character::isLetter);
+    for (int c = 0; c <= Character.MAX_VALUE; c++) {
+      assertEquals(Character.isLetter((char) c), letters.contains((char) c));
+    }
+    assertSame(letters, CharClass.of(letters));
+  }
+
+  @Test
+  void ofCategoriesAndRanges() {
+    CharClass upper = CharClass.ofCategories(Character.UPPERCASE_LETTER);
+    assertTrue(upper.contains('A'));
+    assertTrue(upper.contains('Ж'));
+    assertFalse(upper.contains('a'));
+
+    CharClass digits = CharClass.ofRanges('0', '9');
+    assertTrue(digits.contains('0'));
+    assertTrue(digits.contains('9'));
+    assertFalse(digits.contains('a'));
+
+    CharClass union = upper.union(digits);
+    assertTrue(union.contains('5'));
+    assertTrue(union.contains('Q'));
+    assertFalse(union.contains('q'));
+    assertEquals(union, digits.union(upper));
+    assertEquals(union.hashCode(), digits.union(upper).hashCode());
+    assertTrue(union.test('7'));
+  }
+
+  @Test
+  void invalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> CharClass.of(null));
+    assertThrows(IllegalArgumentException.class, () -> CharClass.ofCategories((int[]) null));
+    assertThrows(IllegalArgumentException.class, () -> CharClass.ofRanges('a'));
+    assertThrows(IllegalArgumentException.class, () -> CharClass.ofRanges('z', 'a'));
+    assertThrows(IllegalArgumentException.class,
+        () -> CharClass.ofRanges('a', 'z').union(null));
+  }
+}
@@ -0,0 +1,68 @@
+package io.github.autocomplete.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class FoldingTest {
+
+  @Test
+  void lowerCaseMatchesCharacterToLowerCase() {
+    for (int c = 0; c <= Character.MAX_VALUE; c++) {
+      assertEquals(Character.toLowerCase((char) c), Folding.LOWER_CASE.fold((char) c));
+      assertEquals(c, Folding.NONE.fold((char) c));
+    }
+  }
+
+  @Test
+  void foldedStringIsReturnedWithoutCopy() {
+    String folded = "ежик в тумане";
+
+    assertSame(folded, Folding.LOWER_CASE.fold(folded));
+    assertSame(folded, Folding.of(true, true, true).fold(folded));
+    assertEquals("ёжик", Folding.LOWER_CASE.fold("ЁЖИК"));
+  }
+
+  @Test
+  void diacriticsAndYoAreFolded() {
+    Folding folding = Folding.of(true, true, true);
+
+    assertEquals("ежик", folding.fold("Ёжик"));
+    assertEquals("cafe creme", folding.fold("Café Crème"));
+    assertEquals("cafe", folding.fold("café"));
+    assertEquals("йод", folding.fold("Йод"));
+    assertEquals("Еж", Folding.of(false, false, true).fold("Ёж"));
+    assertEquals("Ёж", Folding.of(false, true, false).fold("Ёж"));
+    assertEquals("Angstrom", Folding.of(false, true, false).fold("Ångström"));
+  }
+
+  @Test
+  void foldsBufferInPlace() {
+    char[] buffer = "xRéSUMÉy".toCharArray();
+
+    int length = Folding.of(true, true, false).fold(buffer, 1, 8);
+
+    assertEquals(6, length);
+    assertEquals("resume", new String(buffer, 1, length));
+    assertEquals('x', buffer[0]);
+    assertEquals("\uFFFF", Folding.of(true, true, true).fold("\uFFFF"));
+    assertEquals("\uFFFFa", Folding.of(true, true, true).fold("\uFFFFA"));
+  }
+
+  @Test
+  void instancesAreCached() {
+    assertSame(Folding.LOWER_CASE, Folding.of(true, false, false));
+    assertSame(Folding.NONE, Folding.of(false, false, false));
+    assertTrue(Folding.NONE.isIdentity());
+    assertFalse(Folding.LOWER_CASE.isIdentity());
+    assertTrue(Folding.of(false, true, true).stripDiacritics());
+    assertTrue(Folding.of(false, true, true).foldYo());
+  }
+
+  @Test
+  void invalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> Folding.NONE.fold((String) null));
+    assertThrows(IllegalArgumentException.class, () -> Folding.NONE.fold(null, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> Folding.NONE.fold(new char[2], 1, 2));
+  }
+}
@@ -0,0 +1,74 @@
+package io.github.autocomplete.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class StopWordsTest {
+
+  @Test
+  void containsMatchesOnlyStopWords() {
+    StopWords stopWords = StopWords.of("the", "a", "и", "в", "the");
+
+    assertEquals(4, stopWords.size());
+    assertTrue(stopWords.contains("the"));
+    assertTrue(stopWords.contains(new StringBuilder("и")));
+    assertFalse(stopWords.contains("then"));
+    assertFalse(stopWords.contains("th"));
+
+    char[] buffer = "xthey".toCharArray();
+    assertTrue(stopWords.contains(buffer, 1, 3));
+    assertFalse(stopWords.contains(buffer, 1, 4));
+  }
+
+  @Test
+  void largeSetHasNoCollisions() {
+    List<String> words = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      words.add("w" + i);
+    }
+    StopWords stopWords = StopWords.of(words);
+
+    for (String word : words) {
+      assertTrue(stopWords.contains(word), word);
+    }
+    assertFalse(stopWords.contains("w500"));
+    assertEquals(stopWords, StopWords.of(words.reversed()));
+    assertEquals(stopWords.hashCode(), StopWords.of(words.reversed()).hashCode());
+    assertNotEquals(stopWords, StopWords.of("w1"));
+  }
+
+  @Test
+  @Timeout(value = 10, unit = TimeUnit.SECONDS)
+  void hundredThousandWordsBuildInLinearSpace() {
+    List<String> words = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      words.add("слово" + i);
+    }
+
+    StopWords stopWords = StopWords.of(words);
+
+    assertEquals(words.size(), stopWords.size());
+    for (String word : words) {
+      assertTrue(stopWords.contains(word), word);
+      char[] buffer = (" " + word + " ").toCharArray();
+      assertTrue(stopWords.contains(buffer, 1, word.length()), word);
+    }
+    for (int i = 100_000; i < 110_000; i++) {
+      assertFalse(stopWords.contains("слово" + i));
+    }
+  }
+
+  @Test
+  void invalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> StopWords.of((List<String>) null));
+    assertThrows(IllegalArgumentException.class, () -> StopWords.of("a", ""));
+    assertThrows(IllegalArgumentException.class, () -> StopWords.of("a").contains(null));
+    assertEquals(0, StopWords.of().size());
+    assertFalse(StopWords.of().contains("a"));
+  }
+}
@@ -27,4 +27,58 @@ class TokenizerConfigTest {
     assertSame(customFilter, config.charFilter());
     assertFalse(config.toLowerCase());
   }
+
+  @Test
+  void charFilterIsCompiledOnce() {
+    int[] calls = new int[1];
+    TokenizerConfig config = new TokenizerConfig(",", c -> {
+      calls[0]++;
+      return c == 'a';
+    }, false);
+
+    assertEquals(Character.MAX_VALUE + 1, calls[0]);
+    assertTrue(config.charClass().contains('a'));
+    assertFalse(config.charClass().contains('b'));
+    assertEquals(Character.MAX_VALUE + 1, calls[0]);
+  }
+
+  @Test
+  void charClassFilterIsUsedAsIs() {
+    CharClass digits = CharClass.ofRanges('0', '9');
+    TokenizerConfig config = new TokenizerConfig("\\s+", digits, true);
+
+    assertSame(digits, config.charClass());
+    assertSame(TokenizerConfig.LETTERS, new TokenizerConfig().charClass());
+  }
+
+  @Test
+  void tokenFilterDefaultsToNone() {
+    assertSame(TokenFilter.NONE, new TokenizerConfig().tokenFilter());
+    assertTrue(TokenFilter.NONE.isEmpty());
+
+    TokenFilter filter = TokenFilter.ofLength(2, 10).withStopWords(StopWords.of("the"))
+        .withNormalization(java.text.Normalizer.Form.NFC);
+    TokenizerConfig config = new TokenizerConfig().withTokenFilter(filter);
+    assertSame(filter, config.tokenFilter());
+    assertSame(TokenizerConfig.LETTERS, config.charClass());
+    assertFalse(filter.isEmpty());
+
+    assertThrows(IllegalArgumentException.class, () -> TokenFilter.ofLength(0, 3));
+    assertThrows(IllegalArgumentException.class, () -> TokenFilter.ofLength(3, 2));
+  }
+
+  @Test
+  void foldingFollowsToLowerCase() {
+    assertSame(Folding.LOWER_CASE, new TokenizerConfig().folding());
+    assertSame(Folding.NONE, new TokenizerConfig("\\s+", Character::isLetter, false).folding());
+
+    Folding folding = Folding.of(false, true, true);
+    TokenizerConfig config = new TokenizerConfig().withFolding(folding);
+    assertSame(folding, config.folding());
+    assertFalse(config.toLowerCase());
+
+    assertThrows(IllegalArgumentException.class, () -> new TokenizerConfig().withFolding(null));
+    assertThrows(IllegalArgumentException.class, () -> new TokenizerConfig("\\s+",
+        Character::isLetter, true, null, null, Folding.NONE));
+  }
 }
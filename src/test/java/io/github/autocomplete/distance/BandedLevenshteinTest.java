@@ -0,0 +1,67 @@
+package io.github.autocomplete.distance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BandedLevenshteinTest {
+
+  @Test
+  void distanceWithinBoundIsExact() {
+    assertEquals(0, BandedLevenshtein.distance("kitten", "kitten", 0));
+    assertEquals(3, BandedLevenshtein.distance("kitten", "sitting", 3));
+    assertEquals(2, BandedLevenshtein.distance("flaw", "lawn", 5));
+    assertEquals(6, BandedLevenshtein.distance("", "kitten", 10));
+    assertEquals(0, BandedLevenshtein.distance("", "", 0));
+  }
+
+  @Test
+  void distanceAboveBoundReturnsMaxPlusOne() {
+    assertEquals(3, BandedLevenshtein.distance("kitten", "sitting", 2));
+    assertEquals(1, BandedLevenshtein.distance("abc", "abcdef", 0));
+    assertEquals(2, BandedLevenshtein.distance("", "kitten", 1));
+  }
+
+  @Test
+  void distanceHugeBound() {
+    assertEquals(5, BandedLevenshtein.distance("intention", "execution", Integer.MAX_VALUE));
+  }
+
+  @Test
+  void distanceMatchesLevenshteinOnRandomStrings() {
+    Random random = new Random(3);
+    for (int i = 0; i < 2000; i++) {
+      String a = randomString(random);
+      String b = randomString(random);
+      int max = random.nextInt(5);
+      int expected = Levenshtein.distance(a, b);
+      int actual = BandedLevenshtein.distance(a, b, max);
+      assertEquals(expected <= max ? expected : max + 1, actual, a + " / " + b + " / " + max);
+    }
+  }
+
+  @Test
+  void distanceInvalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> BandedLevenshtein.distance(null, "a", 1));
+    assertThrows(IllegalArgumentException.class, () -> BandedLevenshtein.distance("a", null, 1));
+    assertThrows(IllegalArgumentException.class, () -> BandedLevenshtein.distance("a", "b", -1));
+  }
+
+  @Test
+  void boundedDistanceAdapters() {
+    assertEquals(3, BoundedDistance.levenshtein().distance("kitten", "sitting", 3));
+    assertEquals(3, BoundedDistance.of(Levenshtein::distance).distance("kitten", "sitting", 1));
+    assertThrows(IllegalArgumentException.class, () -> BoundedDistance.of(null));
+  }
+
+  private static String randomString(Random random) {
+    int length = random.nextInt(9);
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      builder.append((char) ('a' + random.nextInt(3)));
+    }
+    return builder.toString();
+  }
+}
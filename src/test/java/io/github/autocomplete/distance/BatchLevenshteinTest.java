@@ -0,0 +1,88 @@
+package io.github.autocomplete.distance;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BatchLevenshteinTest {
+
+  @Test
+  void batchDistanceKnownCases() {
+    int[] distances =
+        Levenshtein.batchDistance("kitten", List.of("kitten", "sitten", "sitting", "k", ""), 2);
+    assertArrayEquals(new int[] {0, 1, 3, 3, 3}, distances);
+  }
+
+  @Test
+  void batchDistanceMatchesScalarOnRandomStrings() {
+    Random random = new Random(17);
+    for (int iteration = 0; iteration < 50; iteration++) {
+      String query = randomString(random, 1 + random.nextInt(70));
+      List<String> candidates = new ArrayList<>();
+      for (int i = 0; i < 37; i++) {
+        candidates.add(mutate(random, query));
+      }
+      int max = random.nextInt(4);
+      int[] expected = new int[candidates.size()];
+      for (int i = 0; i < expected.length; i++) {
+        int distance = Levenshtein.distance(query, candidates.get(i));
+        expected[i] = distance > max ? max + 1 : distance;
+      }
+      assertArrayEquals(expected, Levenshtein.batchDistance(query, candidates, max));
+      assertArrayEquals(expected, BatchLevenshtein.scalarDistances(query, candidates, max));
+      if (BatchLevenshtein.VECTOR_AVAILABLE && query.length() <= 64) {
+        assertArrayEquals(expected, VectorBatchLevenshtein.distances(query, candidates, max));
+      }
+    }
+  }
+
+  @Test
+  void batchDistanceEmptyInputs() {
+    assertEquals(0, Levenshtein.batchDistance("abc", List.of(), 1).length);
+    assertArrayEquals(new int[] {1, 2}, Levenshtein.batchDistance("", List.of("a", "abc"), 1));
+  }
+
+  @Test
+  void batchDistanceInvalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> Levenshtein.batchDistance(null, List.of(), 1));
+    assertThrows(IllegalArgumentException.class, () -> Levenshtein.batchDistance("a", null, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> Levenshtein.batchDistance("a", List.of(), -1));
+  }
+
+  private static String mutate(Random random, String word) {
+    StringBuilder builder = new StringBuilder(word);
+    int edits = random.nextInt(5);
+    for (int i = 0; i < edits; i++) {
+      int position = random.nextInt(builder.length() + 1);
+      switch (random.nextInt(3)) {
+        case 0 -> builder.insert(position, (char) ('a' + random.nextInt(3)));
+        case 1 -> {
+          if (position < builder.length()) {
+            builder.deleteCharAt(position);
+          }
+        }
+        default -> {
+          if (position < builder.length()) {
+            builder.setCharAt(position, 'я');
+          }
+        }
+      }
+    }
+    return builder.toString();
+  }
+
+  private static String randomString(Random random, int length) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      builder.append((char) ('a' + random.nextInt(3)));
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,93 @@
+package io.github.autocomplete.distance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LevenshteinAutomatonTest {
+
+  private static int run(LevenshteinAutomaton automaton, String word) {
+    int state = automaton.start();
+    for (int i = 0; i < word.length() && state != LevenshteinAutomaton.DEAD; i++) {
+      state = automaton.step(state, word.charAt(i));
+    }
+    return state;
+  }
+
+  @Test
+  void acceptsWordsWithinDistance() {
+    LevenshteinAutomaton automaton = new LevenshteinAutomaton("kitten", 1);
+    assertTrue(automaton.isMatch(run(automaton, "kitten")));
+    assertTrue(automaton.isMatch(run(automaton, "sitten")));
+    assertTrue(automaton.isMatch(run(automaton, "kitte")));
+    assertTrue(automaton.isMatch(run(automaton, "kittena")));
+    assertFalse(automaton.isMatch(run(automaton, "sitting")));
+  }
+
+  @Test
+  void distanceOfMatchedState() {
+    LevenshteinAutomaton automaton = new LevenshteinAutomaton("flaw", 2);
+    assertEquals(0, automaton.distance(run(automaton, "flaw")));
+    assertEquals(2, automaton.distance(run(automaton, "lawn")));
+    assertEquals(3, automaton.distance(run(automaton, "xyzw")));
+  }
+
+  @Test
+  void hopelessPrefixLeadsToDeadState() {
+    LevenshteinAutomaton automaton = new LevenshteinAutomaton("apple", 1);
+    assertEquals(LevenshteinAutomaton.DEAD, run(automaton, "zz"));
+    assertFalse(automaton.isMatch(LevenshteinAutomaton.DEAD));
+  }
+
+  @Test
+  void zeroDistanceAcceptsOnlyExactWord() {
+    LevenshteinAutomaton automaton = new LevenshteinAutomaton("abc", 0);
+    assertTrue(automaton.isMatch(run(automaton, "abc")));
+    assertFalse(automaton.isMatch(run(automaton, "ab")));
+    assertEquals(LevenshteinAutomaton.DEAD, run(automaton, "abd"));
+  }
+
+  @Test
+  void matchesLevenshteinDistanceOnRandomWords() {
+    Random random = new Random(42);
+    for (int iteration = 0; iteration < 200; iteration++) {
+      String target = randomWord(random);
+      int maxDistance = random.nextInt(3);
+      LevenshteinAutomaton automaton = new LevenshteinAutomaton(target, maxDistance);
+      for (int i = 0; i < 20; i++) {
+        String word = randomWord(random);
+        int expected = Levenshtein.distance(word, target);
+        assertEquals(expected <= maxDistance, automaton.isMatch(run(automaton, word)),
+            word + " vs " + target);
+      }
+    }
+  }
+
+  @Test
+  void statesAreShared() {
+    LevenshteinAutomaton automaton = new LevenshteinAutomaton("abc", 1);
+    run(automaton, "abc");
+    int states = automaton.stateCount();
+    run(automaton, "abc");
+    assertEquals(states, automaton.stateCount());
+  }
+
+  @Test
+  void constructorInvalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> new LevenshteinAutomaton(null, 1));
+    assertThrows(IllegalArgumentException.class, () -> new LevenshteinAutomaton("abc", -1));
+  }
+
+  private static String randomWord(Random random) {
+    int length = random.nextInt(6);
+    StringBuilder word = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      word.append((char) ('a' + random.nextInt(3)));
+    }
+    return word.toString();
+  }
+}
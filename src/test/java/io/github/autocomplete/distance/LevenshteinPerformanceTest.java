@@ -0,0 +1,74 @@
+package io.github.autocomplete.distance;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Сравнение производительности реализаций расстояния Левенштейна на проверке кандидатов: один
+ * запрос против множества слов.
+ */
+@Tag("stress")
+@Tag("performance")
+class LevenshteinPerformanceTest {
+
+  private static final int CANDIDATES = 100_000;
+  private static final int ROUNDS = 20;
+  private static final int MAX_DISTANCE = 2;
+
+  @Test
+  @Timeout(value = 60, unit = TimeUnit.SECONDS)
+  void batchDistanceVersusScalar() {
+    Random random = new Random(42);
+    List<String> candidates = new ArrayList<>(CANDIDATES);
+    for (int i = 0; i < CANDIDATES; i++) {
+      candidates.add(randomWord(random, 6, 12));
+    }
+    String query = "autocomplete";
+
+    int[] scalar = new int[CANDIDATES];
+    int[] batch = null;
+    long scalarNanos = Long.MAX_VALUE;
+    long bandedNanos = Long.MAX_VALUE;
+    long batchNanos = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < CANDIDATES; i++) {
+        int distance = Levenshtein.distance(query, candidates.get(i));
+        scalar[i] = distance > MAX_DISTANCE ? MAX_DISTANCE + 1 : distance;
+      }
+      scalarNanos = Math.min(scalarNanos, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      for (int i = 0; i < CANDIDATES; i++) {
+        BandedLevenshtein.distance(query, candidates.get(i), MAX_DISTANCE);
+      }
+      bandedNanos = Math.min(bandedNanos, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      batch = Levenshtein.batchDistance(query, candidates, MAX_DISTANCE);
+      batchNanos = Math.min(batchNanos, System.nanoTime() - start);
+    }
+
+    System.out.printf("Levenshtein.distance: %d ms, BandedLevenshtein: %d ms, "
+        + "batchDistance (vector=%b): %d ms for %,d candidates%n",
+        TimeUnit.NANOSECONDS.toMillis(scalarNanos), TimeUnit.NANOSECONDS.toMillis(bandedNanos),
+        BatchLevenshtein.VECTOR_AVAILABLE, TimeUnit.NANOSECONDS.toMillis(batchNanos), CANDIDATES);
+    assertArrayEquals(scalar, batch);
+  }
+
+  private static String randomWord(Random random, int minLength, int maxLength) {
+    int length = minLength + random.nextInt(maxLength - minLength + 1);
+    StringBuilder word = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      word.append((char) ('a' + random.nextInt(26)));
+    }
+    return word.toString();
+  }
+}
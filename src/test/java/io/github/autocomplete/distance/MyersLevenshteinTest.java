@@ -0,0 +1,69 @@
+package io.github.autocomplete.distance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MyersLevenshteinTest {
+
+  @Test
+  void distanceKnownCases() {
+    assertEquals(0, MyersLevenshtein.distance("kitten", "kitten"));
+    assertEquals(0, MyersLevenshtein.distance("", ""));
+    assertEquals(6, MyersLevenshtein.distance("kitten", ""));
+    assertEquals(6, MyersLevenshtein.distance("", "kitten"));
+    assertEquals(3, MyersLevenshtein.distance("kitten", "sitting"));
+    assertEquals(2, MyersLevenshtein.distance("flaw", "lawn"));
+    assertEquals(5, MyersLevenshtein.distance("intention", "execution"));
+    assertEquals(1, MyersLevenshtein.distance("abc", "Abc"));
+  }
+
+  @Test
+  void distanceNonAsciiCharacters() {
+    assertEquals(1, MyersLevenshtein.distance("ёлка", "елка"));
+    assertEquals(Levenshtein.distance("привет мир", "превед мир"),
+        MyersLevenshtein.distance("привет мир", "превед мир"));
+  }
+
+  @Test
+  void distanceMatchesLevenshteinOnRandomStrings() {
+    Random random = new Random(7);
+    int[] lengths = {1, 5, 63, 64, 65, 127, 128, 129, 200};
+    for (int lengthA : lengths) {
+      for (int i = 0; i < 20; i++) {
+        String a = randomString(random, lengthA);
+        String b = randomString(random, random.nextInt(lengthA + 10));
+        assertEquals(Levenshtein.distance(a, b), MyersLevenshtein.distance(a, b), a + " / " + b);
+        assertEquals(Levenshtein.distance(a, b), MyersLevenshtein.compile(a).distance(b));
+      }
+    }
+  }
+
+  @Test
+  void compiledPatternIsReusable() {
+    MyersLevenshtein.Pattern pattern = MyersLevenshtein.compile("apple");
+    assertEquals(5, pattern.length());
+    assertEquals(0, pattern.distance("apple"));
+    assertEquals(1, pattern.distance("ample"));
+    assertEquals(5, pattern.distance(""));
+    assertEquals(3, MyersLevenshtein.compile("").distance("abc"));
+  }
+
+  @Test
+  void invalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> MyersLevenshtein.compile(null));
+    assertThrows(IllegalArgumentException.class,
+        () -> MyersLevenshtein.compile("abc").distance(null));
+  }
+
+  private static String randomString(Random random, int length) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      int kind = random.nextInt(10);
+      builder.append(kind == 0 ? (char) ('а' + random.nextInt(4)) : (char) ('a' + random.nextInt(4)));
+    }
+    return builder.toString();
+  }
+}
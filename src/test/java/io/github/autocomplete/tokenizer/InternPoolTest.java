@@ -0,0 +1,119 @@
+package io.github.autocomplete.tokenizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class InternPoolTest {
+
+  @Test
+  void internReturnsCanonicalInstance() {
+    InternPool pool = new InternPool(16);
+    char[] buffer = "xappley".toCharArray();
+
+    String first = pool.intern(buffer, 1, 5);
+    String second = pool.intern(new StringBuilder("apple"));
+
+    assertEquals("apple", first);
+    assertSame(first, second);
+    assertSame(first, pool.intern("apple".toCharArray(), 0, 5));
+    assertNotSame(first, pool.intern(buffer, 1, 4));
+    assertEquals("", pool.intern(buffer, 0, 0));
+    assertEquals(3, pool.size());
+
+    InternStats stats = pool.stats();
+    assertEquals(2, stats.hitCount());
+    assertEquals(3, stats.missCount());
+    assertEquals(0, stats.rejectedCount());
+    assertEquals(5, stats.requestCount());
+    assertEquals(0.4, stats.hitRate(), 1e-9);
+    assertTrue(stats.memoryBytes() > 0);
+  }
+
+  @Test
+  void fullPoolRejectsNewStrings() {
+    InternPool pool = new InternPool(2);
+    pool.intern("a");
+    pool.intern("b");
+
+    String c = pool.intern("c");
+    assertEquals("c", c);
+    assertNotSame(c, pool.intern("c"));
+    assertSame(pool.intern("a"), pool.intern("a"));
+
+    InternStats stats = pool.stats();
+    assertEquals(2, stats.size());
+    assertEquals(2, stats.capacity());
+    assertEquals(2, stats.rejectedCount());
+
+    pool.clear();
+    assertEquals(0, pool.size());
+    String d = pool.intern("d");
+    assertSame(d, pool.intern("d"));
+  }
+
+  @Test
+  void zeroCapacityPoolStoresNothing() {
+    InternPool pool = new InternPool(0);
+
+    assertNotSame(pool.intern("word"), pool.intern("word"));
+    assertEquals(0, pool.size());
+    assertEquals(2, pool.stats().rejectedCount());
+  }
+
+  @Test
+  void concurrentInternReturnsSameInstance() throws Exception {
+    InternPool pool = new InternPool(1 << 10);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<CompletableFuture<String[]>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(CompletableFuture.supplyAsync(() -> {
+          String[] result = new String[500];
+          for (int i = 0; i < result.length; i++) {
+            result[i] = pool.intern("w" + i);
+          }
+          return result;
+        }, executor));
+      }
+      String[] first = futures.get(0).get();
+      for (CompletableFuture<String[]> future : futures) {
+        String[] other = future.get();
+        for (int i = 0; i < first.length; i++) {
+          assertSame(first[i], other[i]);
+        }
+      }
+      assertEquals(500, pool.size());
+      assertEquals(2000, pool.stats().requestCount());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void sharedPoolIsSingleton() {
+    assertSame(InternPool.shared(), InternPool.shared());
+    assertEquals(InternPool.SHARED_CAPACITY, InternPool.shared().capacity());
+    assertEquals(InternPool.DEFAULT_CAPACITY, new InternPool().capacity());
+  }
+
+  @Test
+  void invalidArgumentsThrowException() {
+    InternPool pool = new InternPool();
+
+    assertThrows(IllegalArgumentException.class, () -> new InternPool(-1));
+    assertThrows(IllegalArgumentException.class, () -> new InternPool((1 << 29) + 1));
+    assertThrows(IllegalArgumentException.class, () -> pool.intern(null, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> pool.intern(new char[2], 1, 2));
+    assertThrows(IllegalArgumentException.class, () -> pool.intern((CharSequence) null));
+    assertThrows(IllegalArgumentException.class,
+        () -> new InternStats(0, 0, 0, 3, 2, 0));
+    assertThrows(IllegalArgumentException.class,
+        () -> new InternStats(-1, 0, 0, 0, 0, 0));
+  }
+}
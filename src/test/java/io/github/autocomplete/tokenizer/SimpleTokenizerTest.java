@@ -131,4 +131,108 @@ class SimpleTokenizerTest {
     assertEquals(",", retrievedConfig.splitRegex());
     assertFalse(retrievedConfig.toLowerCase());
   }
+
+  @Test
+  void scanningMatchesRegexSplit() {
+    // "[\\s]+" эквивалентен "\\s+", но разбирается через String.split
+    SimpleTokenizer regexTokenizer =
+        new SimpleTokenizer(new TokenizerConfig("[\\s]+", Character::isLetter, true));
+    java.util.Random random = new java.util.Random(7);
+    String alphabet = "aZ \t\n\u000B\f\r\u00A0\u2003.,!1_ЁёЖжß\uD83D\uDE00İ";
+    for (int round = 0; round < 500; round++) {
+      StringBuilder text = new StringBuilder();
+      int length = random.nextInt(40);
+      for (int i = 0; i < length; i++) {
+        text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      String input = text.toString();
+      assertEquals(regexTokenizer.tokenize(input).collect(Collectors.toList()),
+          tokenizer.tokenize(input).collect(Collectors.toList()), input);
+    }
+  }
+
+  @Test
+  void scanningWithCustomFilterAndSingleWhitespaceRegex() {
+    tokenizer.setConfig(new TokenizerConfig("\\s", Character::isLetterOrDigit, false));
+
+    assertEquals(List.of("Item123", "456", "Привет"),
+        tokenizer.tokenize("  Item123\t\t45.6%\n Привет!").collect(Collectors.toList()));
+  }
+
+  @Test
+  void tokenizeToSinkMatchesStream() {
+    String input = "  Hello, World!\tПривет мир 123 hello ";
+    List<String> tokens = new java.util.ArrayList<>();
+    tokenizer.tokenize(input,
+        (buffer, offset, length) -> tokens.add(new String(buffer, offset, length)));
+
+    assertEquals(tokenizer.tokenize(input).collect(Collectors.toList()), tokens);
+
+    // Для прочих regex используется реализация по умолчанию через Stream
+    tokenizer.setConfig(new TokenizerConfig("[-,]", Character::isLetter, true));
+    tokens.clear();
+    tokenizer.tokenize(new StringBuilder("a-B,c1"),
+        (buffer, offset, length) -> tokens.add(new String(buffer, offset, length)));
+    assertEquals(List.of("a", "b", "c"), tokens);
+  }
+
+  @Test
+  void tokenizeToSinkNullArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> tokenizer.tokenize(null, (buffer, offset, length) -> {
+        }));
+    assertThrows(IllegalArgumentException.class, () -> tokenizer.tokenize("text", null));
+  }
+
+  @Test
+  void tokenFilterChainDropsTokens() {
+    TokenizerConfig config = new TokenizerConfig().withTokenFilter(
+        io.github.autocomplete.config.TokenFilter.ofLength(2, 6)
+            .withStopWords(io.github.autocomplete.config.StopWords.of("the", "и")));
+    tokenizer.setConfig(config);
+    String input = "The quick brown fox и a jumped extraordinarily";
+
+    assertEquals(List.of("quick", "brown", "fox", "jumped"),
+        tokenizer.tokenize(input).collect(Collectors.toList()));
+
+    List<String> tokens = new java.util.ArrayList<>();
+    tokenizer.tokenize(input,
+        (buffer, offset, length) -> tokens.add(new String(buffer, offset, length)));
+    assertEquals(List.of("quick", "brown", "fox", "jumped"), tokens);
+
+    // Путь через String.split применяет ту же цепочку
+    tokenizer.setConfig(new TokenizerConfig("[\\s]+", Character::isLetter, true, null,
+        config.tokenFilter()));
+    assertEquals(List.of("quick", "brown", "fox", "jumped"),
+        tokenizer.tokenize(input).collect(Collectors.toList()));
+  }
+
+  @Test
+  void tokenFilterNormalizesBeforeStopWords() {
+    // "é" в разложенной форме: e + U+0301
+    String decomposed = "cafe\u0301 re\u0301sume\u0301 plain";
+    tokenizer.setConfig(new TokenizerConfig("\\s+", c -> Character.isLetter(c)
+        || Character.getType(c) == Character.NON_SPACING_MARK, true).withTokenFilter(
+            io.github.autocomplete.config.TokenFilter.NONE
+                .withNormalization(java.text.Normalizer.Form.NFC)
+                .withStopWords(io.github.autocomplete.config.StopWords.of("résumé"))));
+
+    assertEquals(List.of("café", "plain"),
+        tokenizer.tokenize(decomposed).collect(Collectors.toList()));
+  }
+
+  @Test
+  void foldingAppliesToBothPaths() {
+    io.github.autocomplete.config.Folding folding =
+        io.github.autocomplete.config.Folding.of(true, true, true);
+    String input = "Ёлка CAFÉ naïve Йогурт";
+    List<String> expected = List.of("елка", "cafe", "naive", "йогурт");
+
+    tokenizer.setConfig(new TokenizerConfig().withFolding(folding));
+    assertEquals(expected, tokenizer.tokenize(input).collect(Collectors.toList()));
+
+    tokenizer.setConfig(
+        new TokenizerConfig("[\\s]+", Character::isLetter, true).withFolding(folding));
+    assertEquals(expected, tokenizer.tokenize(input).collect(Collectors.toList()));
+  }
 }
@@ -0,0 +1,168 @@
+package io.github.autocomplete.tokenizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.github.autocomplete.config.Folding;
+import io.github.autocomplete.config.TokenizerConfig;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Пропускная способность токенизации: однопроходный сканер против разбиения по regex.
+ */
+@Tag("stress")
+@Tag("performance")
+class TokenizerPerformanceTest {
+
+  private static final int WORDS = 500_000;
+  private static final int ROUNDS = 10;
+
+  @Test
+  @Timeout(value = 120, unit = TimeUnit.SECONDS)
+  void scanningVersusRegexSplit() {
+    String text = randomText(new Random(42));
+    double megabytes = text.getBytes(StandardCharsets.UTF_8).length / (1024.0 * 1024.0);
+
+    SimpleTokenizer scanning = new SimpleTokenizer();
+    // Тот же набор разделителей, но через String.split и посимвольный Stream
+    SimpleTokenizer regex =
+        new SimpleTokenizer(new TokenizerConfig("[\\s]+", Character::isLetter, true));
+
+    List<String> expected = null;
+    List<String> actual = null;
+    long regexNanos = Long.MAX_VALUE;
+    long scanningNanos = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      expected = regex.tokenize(text).collect(Collectors.toList());
+      regexNanos = Math.min(regexNanos, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      actual = scanning.tokenize(text).collect(Collectors.toList());
+      scanningNanos = Math.min(scanningNanos, System.nanoTime() - start);
+    }
+
+    System.out.printf("Tokenizer: regex split %.1f MB/s, scanning %.1f MB/s (%.1f MB)%n",
+        megabytes / (regexNanos / 1e9), megabytes / (scanningNanos / 1e9), megabytes);
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  @Timeout(value = 120, unit = TimeUnit.SECONDS)
+  void utf8BytesVersusDecodeAndScan() {
+    byte[] bytes = randomText(new Random(42)).getBytes(StandardCharsets.UTF_8);
+    double megabytes = bytes.length / (1024.0 * 1024.0);
+    SimpleTokenizer scanning = new SimpleTokenizer();
+    Utf8Tokenizer utf8 = new Utf8Tokenizer();
+
+    long[] decodedTokens = new long[1];
+    long[] byteTokens = new long[1];
+    long decodeNanos = Long.MAX_VALUE;
+    long bytesNanos = Long.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      decodedTokens[0] = 0;
+      long start = System.nanoTime();
+      scanning.tokenize(new String(bytes, StandardCharsets.UTF_8),
+          (buffer, offset, length) -> decodedTokens[0]++);
+      decodeNanos = Math.min(decodeNanos, System.nanoTime() - start);
+
+      byteTokens[0] = 0;
+      start = System.nanoTime();
+      utf8.tokenize(bytes, 0, bytes.length, (buffer, offset, length) -> byteTokens[0]++);
+      bytesNanos = Math.min(bytesNanos, System.nanoTime() - start);
+    }
+
+    System.out.printf("UTF-8 input: decode + scan %.1f MB/s, byte-level %.1f MB/s%n",
+        megabytes / (decodeNanos / 1e9), megabytes / (bytesNanos / 1e9));
+    assertEquals(decodedTokens[0], byteTokens[0]);
+  }
+
+  @Test
+  @Timeout(value = 120, unit = TimeUnit.SECONDS)
+  void sinkVersusStreamIngestion() {
+    String text = randomText(new Random(7));
+    SimpleTokenizer tokenizer = new SimpleTokenizer();
+    io.github.autocomplete.util.Trie streamTrie = new io.github.autocomplete.util.Trie();
+    io.github.autocomplete.util.Trie sinkTrie = new io.github.autocomplete.util.Trie();
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    long streamNanos = Long.MAX_VALUE;
+    long sinkNanos = Long.MAX_VALUE;
+    long streamBytes = 0;
+    long sinkBytes = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long allocated = threads.getThreadAllocatedBytes(threadId);
+      long start = System.nanoTime();
+      tokenizer.tokenize(text).forEach(streamTrie::insert);
+      streamNanos = Math.min(streamNanos, System.nanoTime() - start);
+      streamBytes = threads.getThreadAllocatedBytes(threadId) - allocated;
+
+      allocated = threads.getThreadAllocatedBytes(threadId);
+      start = System.nanoTime();
+      tokenizer.tokenize(text, sinkTrie::insert);
+      sinkNanos = Math.min(sinkNanos, System.nanoTime() - start);
+      sinkBytes = threads.getThreadAllocatedBytes(threadId) - allocated;
+    }
+
+    // После первого прохода все слова известны, поэтому сток почти не выделяет памяти
+    System.out.printf("Ingestion: stream %d ms (%,d bytes), sink %d ms (%,d bytes)%n",
+        TimeUnit.NANOSECONDS.toMillis(streamNanos), streamBytes,
+        TimeUnit.NANOSECONDS.toMillis(sinkNanos), sinkBytes);
+    assertEquals(streamTrie.getAllWords(), sinkTrie.getAllWords());
+  }
+
+  @Test
+  @Timeout(value = 120, unit = TimeUnit.SECONDS)
+  void foldingVersusStringToLowerCase() {
+    String[] prefixes = randomText(new Random(11)).split("[\\s,.!]+");
+    Folding folding = Folding.LOWER_CASE;
+
+    long lowerNanos = Long.MAX_VALUE;
+    long foldNanos = Long.MAX_VALUE;
+    long checksum = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (String prefix : prefixes) {
+        checksum += prefix.toLowerCase().length();
+      }
+      lowerNanos = Math.min(lowerNanos, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      for (String prefix : prefixes) {
+        checksum -= folding.fold(prefix).length();
+      }
+      foldNanos = Math.min(foldNanos, System.nanoTime() - start);
+    }
+
+    System.out.printf("Prefix folding: toLowerCase %.1f ns, Folding %.1f ns per prefix%n",
+        (double) lowerNanos / prefixes.length, (double) foldNanos / prefixes.length);
+    assertEquals(0, checksum);
+    for (String prefix : prefixes) {
+      assertEquals(prefix.toLowerCase(), folding.fold(prefix));
+    }
+  }
+
+  private static String randomText(Random random) {
+    String[] separators = {" ", " ", " ", ", ", ". ", "\n", "  ", "! "};
+    StringBuilder text = new StringBuilder(WORDS * 8);
+    for (int i = 0; i < WORDS; i++) {
+      int length = 2 + random.nextInt(9);
+      boolean cyrillic = random.nextInt(10) == 0;
+      for (int j = 0; j < length; j++) {
+        char base = cyrillic ? 'а' : 'a';
+        char c = (char) (base + random.nextInt(26));
+        text.append(j == 0 && random.nextInt(5) == 0 ? Character.toUpperCase(c) : c);
+      }
+      text.append(separators[random.nextInt(separators.length)]);
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,124 @@
+package io.github.autocomplete.tokenizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.github.autocomplete.config.TokenizerConfig;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class Utf8TokenizerTest {
+
+  private static List<String> tokens(Utf8Tokenizer tokenizer, byte[] input) {
+    List<String> tokens = new ArrayList<>();
+    tokenizer.tokenize(input, 0, input.length,
+        (buffer, offset, length) -> tokens.add(new String(buffer, offset, length)));
+    return tokens;
+  }
+
+  @Test
+  void tokenizeDefaultConfig() {
+    byte[] input = "Hello, World! Привет,  МИР\n日本語 123".getBytes(StandardCharsets.UTF_8);
+
+    assertEquals(List.of("hello", "world", "привет", "мир", "日本語"),
+        tokens(new Utf8Tokenizer(), input));
+  }
+
+  @Test
+  void tokenizeMatchesSimpleTokenizer() {
+    Random random = new Random(5);
+    String alphabet = "aZ \t\n\u000B\f\r  .,!1_ЁёЖжß😀İ日";
+    List<TokenizerConfig> configs = List.of(new TokenizerConfig(),
+        new TokenizerConfig("\\s", Character::isLetterOrDigit, false),
+        new TokenizerConfig("\\s+", c -> true, true));
+    for (TokenizerConfig config : configs) {
+      SimpleTokenizer expected = new SimpleTokenizer(config);
+      Utf8Tokenizer tokenizer = new Utf8Tokenizer(config);
+      for (int round = 0; round < 300; round++) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(40);
+        for (int i = 0; i < length; i++) {
+          char c = alphabet.charAt(random.nextInt(alphabet.length()));
+          if (Character.isSurrogate(c)) {
+            text.append("😀");
+          } else {
+            text.append(c);
+          }
+        }
+        String input = text.toString();
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(expected.tokenize(input).collect(Collectors.toList()),
+            tokens(tokenizer, bytes), input);
+        assertEquals(input.length(), tokenizer.tokenize(ByteBuffer.wrap(bytes),
+            (buffer, offset, count) -> {
+            }));
+      }
+    }
+  }
+
+  @Test
+  void tokenizeByteBufferRespectsPositionAndLimit() {
+    ByteBuffer input = ByteBuffer.wrap("skip one two skip".getBytes(StandardCharsets.UTF_8));
+    input.position(5).limit(12);
+    List<String> tokens = new ArrayList<>();
+
+    new Utf8Tokenizer().tokenize(input,
+        (buffer, offset, length) -> tokens.add(new String(buffer, offset, length)));
+
+    assertEquals(List.of("one", "two"), tokens);
+    assertEquals(5, input.position());
+  }
+
+  @Test
+  void tokenizeMalformedInputReplacesBytes() {
+    Utf8Tokenizer tokenizer = new Utf8Tokenizer(new TokenizerConfig("\\s+", c -> true, false));
+    // Обрезанная последовательность, одиночный байт продолжения и избыточная форма
+    byte[] input = {'a', (byte) 0xD0, ' ', (byte) 0x80, 'b', ' ', (byte) 0xC0, (byte) 0xAF};
+
+    assertEquals(List.of("a�", "�b", "��"), tokens(tokenizer, input));
+  }
+
+  @Test
+  void invalidArgumentsThrowException() {
+    Utf8Tokenizer tokenizer = new Utf8Tokenizer();
+    TokenSink sink = (buffer, offset, length) -> {
+    };
+    assertThrows(IllegalArgumentException.class, () -> new Utf8Tokenizer(null));
+    assertThrows(IllegalArgumentException.class,
+        () -> new Utf8Tokenizer(new TokenizerConfig(",", Character::isLetter, true)));
+    assertThrows(IllegalArgumentException.class,
+        () -> tokenizer.tokenize((ByteBuffer) null, sink));
+    assertThrows(IllegalArgumentException.class,
+        () -> tokenizer.tokenize(ByteBuffer.allocate(1), null));
+    assertThrows(IllegalArgumentException.class, () -> tokenizer.tokenize(new byte[2], 1, 2, sink));
+    assertFalse(Utf8Tokenizer.supports(new TokenizerConfig("[\\s]+", Character::isLetter, true)));
+  }
+
+  @Test
+  void tokenFilterChainAppliesToBytes() {
+    TokenizerConfig config = new TokenizerConfig().withTokenFilter(
+        io.github.autocomplete.config.TokenFilter.ofLength(3, 5)
+            .withStopWords(io.github.autocomplete.config.StopWords.of("это")));
+    String input = "Это был длинный день, да";
+
+    assertEquals(new SimpleTokenizer(config).tokenize(input).collect(Collectors.toList()),
+        tokens(new Utf8Tokenizer(config), input.getBytes(StandardCharsets.UTF_8)));
+    assertEquals(List.of("был", "день"),
+        tokens(new Utf8Tokenizer(config), input.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  void foldingMatchesSimpleTokenizer() {
+    TokenizerConfig config = new TokenizerConfig()
+        .withFolding(io.github.autocomplete.config.Folding.of(true, true, true));
+    String input = "Ёлка CAFÉ naïve Ωmega Йогурт";
+
+    assertEquals(new SimpleTokenizer(config).tokenize(input).collect(Collectors.toList()),
+        tokens(new Utf8Tokenizer(config), input.getBytes(StandardCharsets.UTF_8)));
+  }
+}
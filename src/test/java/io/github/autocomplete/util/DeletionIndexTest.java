@@ -0,0 +1,93 @@
+package io.github.autocomplete.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.autocomplete.distance.Levenshtein;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class DeletionIndexTest {
+
+  @Test
+  void candidatesContainWordsWithinDistance() {
+    DeletionIndex index = new DeletionIndex(1);
+    for (String word : List.of("apple", "ample", "apply", "banana")) {
+      index.add(word);
+    }
+    Collection<String> candidates = index.candidates("aple", 1);
+    assertTrue(candidates.contains("apple"));
+    assertTrue(candidates.contains("ample"));
+    assertFalse(candidates.contains("banana"));
+  }
+
+  @Test
+  void candidatesNeverMissMatchesOnRandomWords() {
+    Random random = new Random(11);
+    DeletionIndex index = new DeletionIndex(2);
+    List<String> words = new java.util.ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      String word = randomWord(random);
+      words.add(word);
+      index.add(word);
+    }
+    for (int i = 0; i < 100; i++) {
+      String query = randomWord(random);
+      for (int tolerance = 0; tolerance <= 2; tolerance++) {
+        Collection<String> candidates = index.candidates(query, tolerance);
+        for (String word : words) {
+          if (Levenshtein.distance(query, word) <= tolerance) {
+            assertTrue(candidates.contains(word), query + " -> " + word);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void addIsIdempotentAndMemoryGrows() {
+    DeletionIndex index = new DeletionIndex(1);
+    assertEquals(0, index.memoryBytes());
+    index.add("hello");
+    long memory = index.memoryBytes();
+    int variants = index.variantCount();
+    assertTrue(memory > 0);
+    assertEquals(5, variants); // hello, ello, hllo, helo, hell
+    index.add("hello");
+    assertEquals(memory, index.memoryBytes());
+    assertEquals(1, index.size());
+    assertEquals(1, index.candidates("hello", 0).size());
+  }
+
+  @Test
+  void clearRemovesEverything() {
+    DeletionIndex index = new DeletionIndex(1);
+    index.add("hello");
+    index.clear();
+    assertEquals(0, index.size());
+    assertEquals(0, index.memoryBytes());
+    assertTrue(index.candidates("hello", 1).isEmpty());
+  }
+
+  @Test
+  void invalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> new DeletionIndex(-1));
+    DeletionIndex index = new DeletionIndex(1);
+    assertThrows(IllegalArgumentException.class, () -> index.add(""));
+    assertThrows(IllegalArgumentException.class, () -> index.candidates("a", 2));
+    assertThrows(IllegalArgumentException.class, () -> index.candidates(null, 1));
+  }
+
+  private static String randomWord(Random random) {
+    int length = 1 + random.nextInt(6);
+    StringBuilder word = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      word.append((char) ('a' + random.nextInt(4)));
+    }
+    return word.toString();
+  }
+}
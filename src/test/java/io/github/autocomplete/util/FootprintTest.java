@@ -0,0 +1,26 @@
+package io.github.autocomplete.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class FootprintTest {
+  @Test
+  void stringSizeGrowsWithLength() {
+    assertTrue(Footprint.string("a".repeat(100)) > Footprint.string("a"));
+  }
+
+  @Test
+  void nonLatinStringsTakeTwoBytesPerChar() {
+    assertTrue(Footprint.string("я".repeat(64)) > Footprint.string("a".repeat(64)));
+  }
+
+  @Test
+  void sizesAreAligned() {
+    assertEquals(0, Footprint.string("abc") % 8);
+    assertEquals(0, Footprint.intArray(3) % 8);
+    assertEquals(0, Footprint.referenceArray(3) % 8);
+    assertEquals(Footprint.ARRAY_HEADER, Footprint.referenceArray(0));
+    assertEquals(24, Footprint.align(17));
+  }
+}
@@ -0,0 +1,94 @@
+package io.github.autocomplete.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.autocomplete.distance.Levenshtein;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class NGramIndexTest {
+
+  @Test
+  void candidatesFilterBySharedGrams() {
+    NGramIndex index = new NGramIndex();
+    for (String word : List.of("application", "applications", "banana", "duplication")) {
+      index.add(word);
+    }
+    Collection<String> candidates = index.candidates("aplication", 1);
+    assertTrue(candidates.contains("application"));
+    assertFalse(candidates.contains("banana"));
+    assertFalse(candidates.contains("duplication"));
+  }
+
+  @Test
+  void candidatesNeverMissMatchesOnRandomWords() {
+    Random random = new Random(5);
+    for (int n = 1; n <= 4; n++) {
+      NGramIndex index = new NGramIndex(n);
+      List<String> words = new java.util.ArrayList<>();
+      for (int i = 0; i < 300; i++) {
+        String word = randomWord(random);
+        words.add(word);
+        index.add(word);
+      }
+      for (int i = 0; i < 50; i++) {
+        String query = randomWord(random);
+        for (int tolerance = 0; tolerance <= 3; tolerance++) {
+          Collection<String> candidates = index.candidates(query, tolerance);
+          for (String word : words) {
+            if (Levenshtein.distance(query, word) <= tolerance) {
+              assertTrue(candidates.contains(word), n + ": " + query + " -> " + word);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void repeatedGramsAreCountedWithMultiplicity() {
+    NGramIndex index = new NGramIndex(2);
+    index.add("aaaa");
+    index.add("ab");
+    assertTrue(index.candidates("aaaa", 0).contains("aaaa"));
+    assertFalse(index.candidates("aaab", 0).contains("aaaa"));
+  }
+
+  @Test
+  void addIsIdempotentAndReportsMemory() {
+    NGramIndex index = new NGramIndex();
+    index.add("hello");
+    long memory = index.memoryBytes();
+    assertTrue(memory > 0);
+    assertEquals(7, index.gramCount());
+    index.add("hello");
+    assertEquals(memory, index.memoryBytes());
+    assertEquals(1, index.size());
+    index.clear();
+    assertEquals(0, index.size());
+    assertEquals(0, index.memoryBytes());
+  }
+
+  @Test
+  void invalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> new NGramIndex(0));
+    NGramIndex index = new NGramIndex();
+    assertThrows(IllegalArgumentException.class, () -> index.add(null));
+    assertThrows(IllegalArgumentException.class, () -> index.candidates("a", -1));
+    assertThrows(IllegalArgumentException.class, () -> index.candidates(null, 1));
+  }
+
+  private static String randomWord(Random random) {
+    int length = 1 + random.nextInt(10);
+    StringBuilder word = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      word.append((char) ('a' + random.nextInt(4)));
+    }
+    return word.toString();
+  }
+}
@@ -0,0 +1,77 @@
+package io.github.autocomplete.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TokenCountsTest {
+
+  private static void add(TokenCounts counts, String token) {
+    char[] buffer = ("#" + token + "#").toCharArray();
+    counts.add(buffer, 1, token.length());
+  }
+
+  @Test
+  void addAndDrainAggregatesOccurrences() {
+    TokenCounts counts = new TokenCounts();
+    add(counts, "hello");
+    add(counts, "world");
+    add(counts, "hello");
+
+    assertEquals(2, counts.size());
+    assertEquals(3, counts.total());
+
+    Trie trie = new Trie();
+    counts.drainTo(trie);
+    assertEquals(Map.of("hello", 2, "world", 1), trie.getAllWords());
+    assertEquals(0, counts.size());
+    assertEquals(0, counts.total());
+
+    counts.drainTo(trie);
+    assertEquals(Map.of("hello", 2, "world", 1), trie.getAllWords());
+  }
+
+  @Test
+  void manyDistinctTokensSurviveResize() {
+    TokenCounts counts = new TokenCounts();
+    Map<String, Integer> expected = new HashMap<>();
+    Random random = new Random(1);
+    for (int i = 0; i < 20_000; i++) {
+      String token = "w" + random.nextInt(3_000);
+      add(counts, token);
+      expected.merge(token, 1, Integer::sum);
+    }
+
+    Trie trie = new Trie();
+    counts.drainTo(trie);
+    assertEquals(expected, trie.getAllWords());
+  }
+
+  @Test
+  void invalidArgumentsThrowException() {
+    TokenCounts counts = new TokenCounts();
+    assertThrows(IllegalArgumentException.class, () -> counts.add(null, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> counts.add(new char[2], 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> counts.add(new char[2], 1, 2));
+    assertThrows(IllegalArgumentException.class, () -> counts.drainTo(null));
+  }
+
+  @Test
+  void newTokensAreTakenFromInternPool() {
+    io.github.autocomplete.tokenizer.InternPool pool =
+        new io.github.autocomplete.tokenizer.InternPool(16);
+    TokenCounts counts = new TokenCounts(pool);
+    add(counts, "hello");
+    add(counts, "hello");
+    counts.drainTo(new Trie());
+    add(counts, "hello");
+    counts.drainTo(new Trie());
+
+    // Строка создаётся один раз на новый токен в пакете, второй пакет берёт её из пула
+    assertEquals(1, pool.stats().missCount());
+    assertEquals(1, pool.stats().hitCount());
+  }
+}
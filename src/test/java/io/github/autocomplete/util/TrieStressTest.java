@@ -72,6 +72,33 @@ class TrieStressTest {
     assertTrue(uniqueWords > 0 && uniqueWords <= UNIQUE_WORDS);
   }
 
+  @Test
+  @Timeout(value = 40, unit = TimeUnit.SECONDS)
+  void insertAllVersusPerOccurrenceInsert() {
+    List<String> occurrences = IntStream.range(0, LARGE_DATA_SIZE)
+        .mapToObj(i -> dictionary.get(random.nextInt(UNIQUE_WORDS))).collect(Collectors.toList());
+
+    long startTime = System.nanoTime();
+    for (String word : occurrences) {
+      trie.insert(word);
+    }
+    long perOccurrence = System.nanoTime() - startTime;
+
+    Map<String, Long> counts = new java.util.HashMap<>();
+    startTime = System.nanoTime();
+    for (String word : occurrences) {
+      counts.merge(word, 1L, Long::sum);
+    }
+    Trie bulk = new Trie();
+    bulk.insertAll(counts);
+    long insertAll = System.nanoTime() - startTime;
+
+    System.out.printf("%,d occurrences of %,d words: insert %d ms, aggregate + insertAll %d ms%n",
+        LARGE_DATA_SIZE, counts.size(), TimeUnit.NANOSECONDS.toMillis(perOccurrence),
+        TimeUnit.NANOSECONDS.toMillis(insertAll));
+    assertEquals(trie.getAllWords(), bulk.getAllWords());
+  }
+
   @Test
   @Timeout(value = 40, unit = TimeUnit.SECONDS)
   void insertVeryLargeDatasetPerformance() {
@@ -2,6 +2,7 @@ package io.github.autocomplete.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import io.github.autocomplete.model.Candidate;
 import io.github.autocomplete.model.WordFrequency;
 import java.io.File;
 import java.io.IOException;
@@ -474,4 +475,453 @@ class TrieTest {
       Files.deleteIfExists(tempFile);
     }
   }
+
+  @Test
+  void hasCompletionsDetectsWordsInSubtree() {
+    trie.insert("apple");
+    trie.insert("banana");
+
+    assertTrue(trie.hasCompletions("app"));
+    assertTrue(trie.hasCompletions("apple"));
+    assertFalse(trie.hasCompletions("apples"));
+    assertFalse(trie.hasCompletions("cherry"));
+  }
+
+  @Test
+  void hasCompletionsIgnoresRemovedWords() {
+    trie.insert("apple");
+    trie.remove("apple");
+
+    assertFalse(trie.hasCompletions("app"));
+  }
+
+  @Test
+  void findSimilarPrefixesByAutomatonMatchesDistanceFunction() {
+    for (String word : List.of("apple", "ample", "apply", "maple", "ape", "banana", "app")) {
+      trie.insert(word);
+    }
+    for (String prefix : List.of("aple", "appel", "bnana", "ap", "xyz")) {
+      for (int tolerance = 0; tolerance <= 2; tolerance++) {
+        List<String> expected = trie.findSimilarPrefixes(prefix, tolerance, 1,
+            io.github.autocomplete.distance.Levenshtein::distance);
+        List<String> actual = trie.findSimilarPrefixesByAutomaton(prefix, tolerance, 1);
+        assertEquals(new java.util.HashSet<>(expected), new java.util.HashSet<>(actual),
+            prefix + " / " + tolerance);
+      }
+    }
+  }
+
+  @Test
+  void findSimilarPrefixesByAutomatonShortPrefixReturnsExactMatch() {
+    trie.insert("app");
+    trie.insert("apple");
+    assertEquals(List.of("app"), trie.findSimilarPrefixesByAutomaton("app", 1, 5));
+    assertTrue(trie.findSimilarPrefixesByAutomaton("apq", 1, 5).isEmpty());
+  }
+
+  @Test
+  void findSimilarPrefixesByAutomatonInvalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> trie.findSimilarPrefixesByAutomaton(null, 1, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> trie.findSimilarPrefixesByAutomaton("", 1, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> trie.findSimilarPrefixesByAutomaton("a", -1, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> trie.findSimilarPrefixesByAutomaton("a", 1, -1));
+  }
+
+  @Test
+  void findSimilarPrefixesByRowsMatchesDistanceFunction() {
+    for (String word : List.of("apple", "ample", "apply", "maple", "ape", "banana", "app", "a")) {
+      trie.insert(word);
+    }
+    for (String prefix : List.of("aple", "appel", "bnana", "ap", "xyz")) {
+      for (int tolerance = 0; tolerance <= 3; tolerance++) {
+        List<String> expected = trie.findSimilarPrefixes(prefix, tolerance, 1,
+            io.github.autocomplete.distance.Levenshtein::distance);
+        List<String> actual = trie.findSimilarPrefixes(prefix, tolerance, 1);
+        assertEquals(new java.util.HashSet<>(expected), new java.util.HashSet<>(actual),
+            prefix + " / " + tolerance);
+      }
+    }
+  }
+
+  @Test
+  void findSimilarPrefixesByRowsHugeTolerance() {
+    trie.insert("apple");
+    trie.insert("banana");
+    assertEquals(2, trie.findSimilarPrefixes("x", Integer.MAX_VALUE, 0).size());
+  }
+
+  @Test
+  void findSimilarPrefixesByRowsInvalidArgumentsThrowException() {
+    assertThrows(IllegalArgumentException.class, () -> trie.findSimilarPrefixes(null, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> trie.findSimilarPrefixes("", 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> trie.findSimilarPrefixes("a", -1, 1));
+    assertThrows(IllegalArgumentException.class, () -> trie.findSimilarPrefixes("a", 1, -1));
+  }
+
+  @Test
+  void findSimilarPrefixesBoundedDistanceMatchesDistanceFunction() {
+    for (String word : List.of("apple", "ample", "apply", "maple", "ape", "banana", "app")) {
+      trie.insert(word);
+    }
+    for (String prefix : List.of("aple", "appel", "bnana", "ap")) {
+      for (int tolerance = 0; tolerance <= 2; tolerance++) {
+        List<String> expected = trie.findSimilarPrefixes(prefix, tolerance, 1,
+            io.github.autocomplete.distance.Levenshtein::distance);
+        List<String> actual = trie.findSimilarPrefixes(prefix, tolerance, 1,
+            io.github.autocomplete.distance.BoundedDistance.levenshtein());
+        assertEquals(new java.util.HashSet<>(expected), new java.util.HashSet<>(actual));
+      }
+    }
+  }
+
+  @Test
+  void findSimilarPrefixesNullBoundedDistanceThrowsException() {
+    assertThrows(IllegalArgumentException.class, () -> trie.findSimilarPrefixes("a", 1, 1,
+        (io.github.autocomplete.distance.BoundedDistance) null));
+  }
+
+  @Test
+  void findSimilarPrefixesByIndexMatchesTraversal() {
+    trie.insert("apple");
+    trie.attachSimilarityIndex(new DeletionIndex(2));
+    for (String word : List.of("ample", "apply", "maple", "ape", "banana", "app")) {
+      trie.insert(word);
+    }
+    for (String prefix : List.of("aple", "appel", "bnana", "ap")) {
+      for (int tolerance = 0; tolerance <= 2; tolerance++) {
+        assertEquals(new java.util.HashSet<>(trie.findSimilarPrefixes(prefix, tolerance, 1)),
+            new java.util.HashSet<>(trie.findSimilarPrefixesByIndex(prefix, tolerance, 1)),
+            prefix + " / " + tolerance);
+      }
+    }
+  }
+
+  @Test
+  void findSimilarPrefixesByIndexSkipsRemovedWords() {
+    trie.attachSimilarityIndex(new DeletionIndex(1));
+    trie.insert("apple");
+    trie.remove("apple");
+    assertTrue(trie.findSimilarPrefixesByIndex("aple", 1, 1).isEmpty());
+    trie.insert("apple");
+    assertEquals(List.of("apple"), trie.findSimilarPrefixesByIndex("aple", 1, 1));
+  }
+
+  @Test
+  void findSimilarPrefixesByIndexFallsBackWithoutIndex() {
+    trie.insert("apple");
+    assertEquals(List.of("apple"), trie.findSimilarPrefixesByIndex("aple", 1, 1));
+    trie.attachSimilarityIndex(new DeletionIndex(1));
+    assertEquals(List.of("apple"), trie.findSimilarPrefixesByIndex("aplx", 2, 1));
+  }
+
+  @Test
+  void similarityIndexFollowsClear() {
+    DeletionIndex index = new DeletionIndex(1);
+    trie.insert("apple");
+    trie.attachSimilarityIndex(index);
+    assertEquals(1, index.size());
+    trie.clear();
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  void detachingIndexKeepsOtherIndexesAttached() {
+    DeletionIndex first = new DeletionIndex(1);
+    NGramIndex second = new NGramIndex();
+    trie.insert("apple");
+    trie.attachSimilarityIndex(first);
+    trie.attachSimilarityIndex(second);
+
+    assertTrue(trie.detachSimilarityIndex(second));
+    assertFalse(trie.detachSimilarityIndex(second));
+    trie.insert("maple");
+
+    assertTrue(trie.isSimilarityIndexAttached(first));
+    assertFalse(trie.isSimilarityIndexAttached(second));
+    assertEquals(2, first.size());
+    assertEquals(List.of("maple"), trie.findSimilarPrefixesByIndex("mple", 1, 1, first));
+    assertEquals(List.of("maple"), trie.findSimilarPrefixesByIndex("mple", 1, 1, second));
+    assertThrows(IllegalArgumentException.class, () -> trie.attachSimilarityIndex(null));
+  }
+
+  @Test
+  void findSimilarPrefixesByNGramIndexMatchesTraversal() {
+    trie.attachSimilarityIndex(new NGramIndex());
+    for (String word : List.of("apple", "ample", "apply", "maple", "ape", "application", "app")) {
+      trie.insert(word);
+    }
+    for (String prefix : List.of("aple", "appel", "aplication", "ap")) {
+      for (int tolerance = 0; tolerance <= 3; tolerance++) {
+        assertEquals(new java.util.HashSet<>(trie.findSimilarPrefixes(prefix, tolerance, 1)),
+            new java.util.HashSet<>(trie.findSimilarPrefixesByIndex(prefix, tolerance, 1)),
+            prefix + " / " + tolerance);
+      }
+    }
+  }
+
+  @Test
+  void findFuzzyPrefixRootsMatchesPathPrefixes() {
+    trie.insert("hello");
+    trie.insert("helloworld");
+    trie.insert("help");
+    trie.insert("world");
+    List<String> roots = trie.findFuzzyPrefixRoots("helo", 1, 1);
+    assertTrue(roots.contains("hel"));
+    assertFalse(roots.contains("hello"));
+    assertFalse(roots.contains("world"));
+  }
+
+  @Test
+  void findFuzzyPrefixRootsAreNotNested() {
+    for (String word : List.of("apple", "application", "apply", "maple", "ample", "banana")) {
+      trie.insert(word);
+    }
+    List<String> roots = trie.findFuzzyPrefixRoots("appl", 1, 1);
+    for (String a : roots) {
+      for (String b : roots) {
+        assertTrue(a.equals(b) || !b.startsWith(a), a + " contains " + b);
+      }
+      assertTrue(trie.hasCompletions(a));
+    }
+    assertTrue(roots.stream().anyMatch(r -> "apple".startsWith(r)));
+    assertTrue(roots.stream().anyMatch(r -> "ample".startsWith(r)));
+  }
+
+  @Test
+  void findFuzzyPrefixRootsCoversEveryFuzzyCompletion() {
+    for (String word : List.of("apple", "application", "apply", "maple", "ample", "banana", "ap")) {
+      trie.insert(word);
+    }
+    String query = "aplic";
+    int tolerance = 2;
+    List<String> roots = trie.findFuzzyPrefixRoots(query, tolerance, 1);
+    for (String word : trie.getAllWords().keySet()) {
+      boolean expected = false;
+      for (int i = 1; i <= word.length(); i++) {
+        if (io.github.autocomplete.distance.Levenshtein.distance(query,
+            word.substring(0, i)) <= tolerance) {
+          expected = true;
+        }
+      }
+      boolean covered = roots.stream().anyMatch(word::startsWith);
+      assertEquals(expected, covered, word);
+    }
+  }
+
+  @Test
+  void findFuzzyPrefixRootsShortPrefixReturnsExactMatch() {
+    trie.insert("apple");
+    assertEquals(List.of("ap"), trie.findFuzzyPrefixRoots("ap", 1, 3));
+    assertThrows(IllegalArgumentException.class, () -> trie.findFuzzyPrefixRoots("", 1, 1));
+  }
+
+  @Test
+  void nodeCountFollowsInsertRemoveAndClear() {
+    trie.insert("abc");
+    trie.insert("abd");
+    assertEquals(4, trie.getNodeCount());
+    trie.remove("abd", true);
+    assertEquals(3, trie.getNodeCount());
+    trie.clear();
+    assertEquals(0, trie.getNodeCount());
+  }
+
+  @Test
+  void findSimilarPrefixesParallelMatchesSequential() {
+    java.util.Random random = new java.util.Random(21);
+    while (trie.getNodeCount() < Trie.PARALLEL_THRESHOLD) {
+      StringBuilder word = new StringBuilder();
+      int length = 3 + random.nextInt(6);
+      for (int i = 0; i < length; i++) {
+        word.append((char) ('a' + random.nextInt(26)));
+      }
+      trie.insert(word.toString());
+    }
+    java.util.concurrent.ExecutorService executor =
+        java.util.concurrent.Executors.newFixedThreadPool(4);
+    try {
+      io.github.autocomplete.distance.BoundedDistance distance =
+          io.github.autocomplete.distance.BoundedDistance.levenshtein();
+      for (String prefix : List.of("hello", "world", "abc")) {
+        List<String> sequential = trie.findSimilarPrefixes(prefix, 1, 1, distance);
+        List<String> parallel = trie.findSimilarPrefixes(prefix, 1, 1, distance, executor);
+        assertEquals(new java.util.HashSet<>(sequential), new java.util.HashSet<>(parallel));
+        assertEquals(sequential.size(), parallel.size());
+        assertEquals(parallel, trie.findSimilarPrefixes(prefix, 1, 1, distance, executor));
+        List<String> sorted = new java.util.ArrayList<>(parallel);
+        sorted.sort(java.util.Comparator.comparing(word -> word.charAt(0)));
+        assertEquals(sorted, parallel);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void findSimilarPrefixesParallelSmallTrieRunsInCallerThread() {
+    trie.insert("apple");
+    trie.insert("banana");
+    List<String> result = trie.findSimilarPrefixes("aple", 1, 1,
+        io.github.autocomplete.distance.BoundedDistance.levenshtein(), task -> {
+          throw new AssertionError("executor must not be used for small tries");
+        });
+    assertEquals(List.of("apple"), result);
+    assertThrows(IllegalArgumentException.class, () -> trie.findSimilarPrefixes("a", 1, 1,
+        io.github.autocomplete.distance.BoundedDistance.levenshtein(), null));
+  }
+
+  @Test
+  void findWeightedCompletionsMergesDisjointRoots() {
+    trie.insert("apple");
+    trie.insert("apple");
+    trie.insert("apply");
+    trie.insert("ample");
+    trie.insert("ample");
+    trie.insert("ample");
+    trie.insert("maple");
+
+    List<Candidate> result =
+        trie.findWeightedCompletions("app", 1.0, List.of("amp", "ap", "app", "zzz"), 0.5, 10);
+    // "ap" поглощает "app", но слова под "app" сохраняют исходный вес
+    assertEquals(List.of(new Candidate("apple", 2.0),
+        new Candidate("ample", 1.5),
+        new Candidate("apply", 1.0)), result);
+  }
+
+  @Test
+  void findWeightedCompletionsKeepsTopLimit() {
+    trie.insert("bat");
+    trie.insert("bar");
+    trie.insert("bar");
+    trie.insert("car");
+    trie.insert("car");
+    trie.insert("car");
+    trie.insert("cab");
+
+    List<Candidate> result =
+        trie.findWeightedCompletions("ba", 1.0, List.of("ca"), 1.0, 2);
+    assertEquals(List.of(new Candidate("car", 3.0),
+        new Candidate("bar", 2.0)), result);
+
+    result = trie.findWeightedCompletions("ba", 1.0, List.of("ca"), 1.0, 4);
+    // При равном весе слова идут по алфавиту
+    assertEquals(List.of("car", "bar", "bat", "cab"),
+        result.stream().map(Candidate::word).toList());
+  }
+
+  @Test
+  void findWeightedCompletionsInvalidArguments() {
+    assertThrows(IllegalArgumentException.class,
+        () -> trie.findWeightedCompletions("", 1.0, List.of(), 0.5, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> trie.findWeightedCompletions("a", 1.0, null, 0.5, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> trie.findWeightedCompletions("a", 1.0, List.of(), 0.5, 0));
+    assertTrue(trie.findWeightedCompletions("a", 1.0, List.of("b"), 0.5, 3).isEmpty());
+  }
+
+  @Test
+  void insertCharArraySlice() {
+    char[] buffer = "xxhelloyy".toCharArray();
+    trie.insert(buffer, 2, 5);
+    trie.insert("hello");
+    trie.insert(buffer, 2, 4);
+
+    assertEquals(2, trie.getFrequency("hello"));
+    assertEquals(1, trie.getFrequency("hell"));
+    assertEquals(0, trie.getFrequency("xxhello"));
+    assertEquals(5, trie.getNodeCount());
+  }
+
+  @Test
+  void insertCharArrayInvalidArguments() {
+    char[] buffer = "hello".toCharArray();
+    assertThrows(IllegalArgumentException.class, () -> trie.insert(null, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> trie.insert(buffer, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> trie.insert(buffer, -1, 2));
+    assertThrows(IllegalArgumentException.class, () -> trie.insert(buffer, 3, 3));
+  }
+
+  @Test
+  void mergeAddsFrequencies() {
+    trie.insert("apple");
+    trie.insert("app");
+    Trie other = new Trie();
+    other.insert("apple");
+    other.insert("apple");
+    other.insert("banana");
+    other.insert("ban");
+    other.remove("ban");
+
+    trie.attachSimilarityIndex(new DeletionIndex(1));
+    trie.merge(other);
+
+    assertEquals(Map.of("apple", 3, "app", 1, "banana", 1), trie.getAllWords());
+    assertEquals(Map.of("apple", 2, "banana", 1), other.getAllWords());
+    assertEquals(11, trie.getNodeCount());
+    assertEquals(List.of("banana"), trie.findSimilarPrefixesByIndex("banan", 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> trie.merge(null));
+    assertThrows(IllegalArgumentException.class, () -> trie.merge(trie));
+  }
+
+  @Test
+  void insertWithCount() {
+    trie.insert("apple", 3);
+    trie.insert("apple");
+    trie.attachSimilarityIndex(new NGramIndex());
+    trie.insert("apply", 2);
+
+    assertEquals(4, trie.getFrequency("apple"));
+    assertEquals(2, trie.getFrequency("apply"));
+    assertEquals(List.of("apply"), trie.findSimilarPrefixesByIndex("applyx", 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> trie.insert("a", 0));
+    assertThrows(IllegalArgumentException.class, () -> trie.insert("", 1));
+    assertThrows(ArithmeticException.class, () -> trie.insert("apple", Integer.MAX_VALUE));
+  }
+
+  @Test
+  void insertAllReusesSharedPrefixes() {
+    Map<String, Long> counts = new java.util.HashMap<>();
+    counts.put("car", 2L);
+    counts.put("cart", 1L);
+    counts.put("care", 5L);
+    counts.put("dog", 1L);
+    counts.put("ca", 1L);
+    trie.insert("car");
+
+    trie.insertAll(counts);
+
+    assertEquals(Map.of("car", 3, "cart", 1, "care", 5, "dog", 1, "ca", 1), trie.getAllWords());
+    assertEquals(8, trie.getNodeCount());
+  }
+
+  @Test
+  void insertAllInvalidArgumentsLeaveTrieUnchanged() {
+    Map<String, Long> invalid = new java.util.HashMap<>();
+    invalid.put("good", 1L);
+    invalid.put("bad", 0L);
+
+    assertThrows(IllegalArgumentException.class, () -> trie.insertAll(invalid));
+    assertTrue(trie.getAllWords().isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> trie.insertAll(null));
+    assertThrows(IllegalArgumentException.class, () -> trie.insertAll(Map.of("", 1L)));
+  }
+
+  @Test
+  void findWeightedCompletionsWithHugeLimitAllocatesOnDemand() {
+    for (int i = 0; i < 100; i++) {
+      trie.insert("help" + i);
+    }
+    trie.insert("world");
+
+    List<Candidate> result =
+        trie.findWeightedCompletions("helo", 1.0, List.of("hel"), 0.5, Integer.MAX_VALUE);
+
+    assertEquals(100, result.size());
+    assertEquals("help0", result.get(0).word());
+  }
 }